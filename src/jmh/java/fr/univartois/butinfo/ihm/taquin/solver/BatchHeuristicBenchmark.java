@@ -0,0 +1,160 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * La classe BatchHeuristicBenchmark compare le débit (en grilles évaluées par seconde)
+ * de l'évaluation vectorisée d'un lot de grilles avec celui de l'évaluation scalaire,
+ * par lot et grille par grille.
+ *
+ * Lancement : {@code gradle jmh}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchHeuristicBenchmark {
+
+    /**
+     * Le nombre de grilles évaluées à chaque appel.
+     */
+    private static final int NB_BOARDS = 4096;
+
+    /**
+     * La taille des grilles évaluées.
+     */
+    @Param({"3", "4", "5"})
+    private int size;
+
+    /**
+     * Les grilles évaluées, une par tableau.
+     */
+    private int[][] boards;
+
+    /**
+     * Les grilles évaluées, regroupées en un lot.
+     */
+    private BoardBatch batch;
+
+    /**
+     * L'évaluation vectorisée.
+     */
+    private BatchHeuristic vector;
+
+    /**
+     * L'évaluation scalaire par lot.
+     */
+    private BatchHeuristic scalar;
+
+    /**
+     * L'évaluation scalaire grille par grille.
+     */
+    private ManhattanDistance distance;
+
+    /**
+     * Les valeurs des grilles évaluées par lot.
+     */
+    private int[] scores;
+
+    /**
+     * Prépare des grilles aléatoires à évaluer.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int nbPositions = size * size;
+        boards = new int[NB_BOARDS][];
+        batch = new BoardBatch(size, NB_BOARDS);
+        for (int i = 0; i < NB_BOARDS; i++) {
+            int[] tiles = Boards.goal(size);
+            for (int j = nbPositions - 1; j > 0; j--) {
+                int k = random.nextInt(j + 1);
+                int tmp = tiles[j];
+                tiles[j] = tiles[k];
+                tiles[k] = tmp;
+            }
+            boards[i] = tiles;
+            batch.add(tiles);
+        }
+
+        vector = new BatchHeuristic(size);
+        scalar = new BatchHeuristic(size, false);
+        distance = new ManhattanDistance(size);
+        scores = new int[NB_BOARDS];
+    }
+
+    /**
+     * Évalue le lot avec l'API Vector.
+     *
+     * @return Les valeurs des grilles.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NB_BOARDS)
+    public int[] vectorBatch() {
+        vector.evaluate(batch, scores);
+        return scores;
+    }
+
+    /**
+     * Évalue le lot sans vectorisation explicite.
+     *
+     * @return Les valeurs des grilles.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NB_BOARDS)
+    public int[] scalarBatch() {
+        scalar.evaluate(batch, scores);
+        return scores;
+    }
+
+    /**
+     * Évalue les grilles une par une.
+     *
+     * @param blackhole L'objet empêchant l'élimination des calculs.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NB_BOARDS)
+    public void scalarPerBoard(Blackhole blackhole) {
+        for (int[] tiles : boards) {
+            blackhole.consume(distance.evaluate(tiles));
+        }
+    }
+
+}
@@ -17,9 +17,13 @@
 package fr.univartois.butinfo.ihm.taquin;
 
 import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import fr.univartois.butinfo.ihm.taquin.controller.TaquinController;
 import fr.univartois.butinfo.ihm.taquin.model.Taquin;
+import fr.univartois.butinfo.ihm.taquin.stats.GameStatistics;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -36,6 +40,29 @@ import javafx.stage.Stage;
  */
 public final class TaquinApplication extends Application {
 
+    /**
+     * Le journal dans lequel sont signalées les erreurs d'accès aux statistiques.
+     */
+    private static final System.Logger LOGGER =
+            System.getLogger(TaquinApplication.class.getName());
+
+    /**
+     * Le nom du répertoire (dans le répertoire de l'utilisateur) contenant les données
+     * de l'application.
+     */
+    private static final String DATA_DIRECTORY = ".taquin";
+
+    /**
+     * Le nom du fichier contenant le journal des statistiques.
+     */
+    private static final String STATISTICS_FILE = "statistics.log";
+
+    /**
+     * Les statistiques des parties terminées, ou {@code null} si elles n'ont pas pu
+     * être ouvertes.
+     */
+    private GameStatistics statistics;
+
     /**
      * Cette méthode permet d'initialiser l'affichage de la fenêtre de l'application.
      *
@@ -61,12 +88,49 @@ public final class TaquinApplication extends Application {
         controller.setScene(scene);
         controller.setModel(taquin);
         taquin.setController(controller);
+
+        // Les parties terminées alimentent les statistiques de l'utilisateur.
+        statistics = openStatistics();
+        taquin.setStatistics(statistics);
         taquin.startGame();
 
         // Enfin, on affiche la fenêtre.
         stage.show();
     }
 
+    /**
+     * Ouvre les statistiques des parties de l'utilisateur, stockées dans son répertoire
+     * de données.
+     * Le jeu reste utilisable si elles ne peuvent pas être ouvertes.
+     *
+     * @return Les statistiques ouvertes, ou {@code null} si elles n'ont pas pu l'être.
+     */
+    private static GameStatistics openStatistics() {
+        Path directory = Path.of(System.getProperty("user.home"), DATA_DIRECTORY);
+        try {
+            Files.createDirectories(directory);
+            return new GameStatistics(directory.resolve(STATISTICS_FILE));
+
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Impossible d'ouvrir les statistiques", e);
+            return null;
+        }
+    }
+
+    /**
+     * Cette méthode est appelée à la fermeture de l'application, et ferme les
+     * statistiques afin que les derniers résultats soient écrits.
+     *
+     * @throws IOException Si le journal des statistiques ne peut pas être fermé.
+     */
+    @Override
+    public void stop() throws IOException {
+        if (statistics != null) {
+            statistics.close();
+            statistics = null;
+        }
+    }
+
     /**
      * Cette méthode exécute l'application JavaFX.
      *
@@ -120,10 +120,10 @@ public final class TaquinController implements ITaquinController {
      */
     @Override
     public void initGrid(Grid grid) {
-        buttons = new Button[grid.size()][grid.size()];
+        buttons = new Button[grid.getRows()][grid.getColumns()];
 
-        for (int i = 0; i < grid.size(); i++) {
-            for (int j = 0; j < grid.size(); j++) {
+        for (int i = 0; i < grid.getRows(); i++) {
+            for (int j = 0; j < grid.getColumns(); j++) {
                 buttons[i][j] = createButton(i, j, grid.get(i, j).getProperty());
                 gridPane.add(buttons[i][j], j, i);
             }
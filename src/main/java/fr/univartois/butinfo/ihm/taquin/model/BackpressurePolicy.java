@@ -0,0 +1,57 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+/**
+ * L'énumération BackpressurePolicy représente les politiques de contre-pression qu'un
+ * abonné d'un {@link MoveEventPublisher} peut choisir, c'est-à-dire la manière dont sont
+ * traités les événements publiés alors que l'abonné n'en a pas demandé.
+ *
+ * Quelle que soit la politique choisie, la publication d'un événement ne bloque jamais :
+ * un abonné lent ne ralentit pas le joueur.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * Les événements publiés alors que l'abonné n'en a pas demandé sont abandonnés.
+     * Cette politique convient par exemple aux statistiques approchées.
+     */
+    DROP,
+
+    /**
+     * Seul le dernier des événements publiés alors que l'abonné n'en a pas demandé est
+     * conservé, et lui est transmis dès sa prochaine demande.
+     * Cette politique convient par exemple aux spectateurs, qui n'ont besoin que de
+     * l'état le plus récent de la partie.
+     */
+    LATEST,
+
+    /**
+     * Les événements publiés alors que l'abonné n'en a pas demandé sont conservés dans
+     * un tampon borné propre à l'abonné.
+     * Si ce tampon déborde, l'abonnement est annulé et l'abonné en est informé par
+     * {@link java.util.concurrent.Flow.Subscriber#onError(Throwable)}.
+     * Cette politique convient par exemple aux enregistreurs, qui ne doivent manquer
+     * aucun événement.
+     */
+    BUFFER
+
+}
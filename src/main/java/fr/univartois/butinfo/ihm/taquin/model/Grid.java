@@ -16,10 +16,17 @@
 
 package fr.univartois.butinfo.ihm.taquin.model;
 
+import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
- * La classe Grid représente la grille sur laquelle se joue le jeu du Taquin.
+ * La classe Grid représente la grille (carrée ou rectangulaire) sur laquelle se joue le
+ * jeu du Taquin.
+ *
+ * Les positions voisines de chaque case sont précalculées à la création de la grille,
+ * de sorte que les déplacements et le mélange des tuiles ne vérifient jamais les bords
+ * de la grille.
  *
  * @author Romain Wallon
  *
@@ -40,33 +47,94 @@ public final class Grid {
     private static final int NB_PERMUTATIONS = 1000;
 
     /**
-     * La taille de la grille (en nombre de tuiles par côté).
+     * Le nombre de lignes de la grille.
+     */
+    private final int rows;
+
+    /**
+     * Le nombre de colonnes de la grille.
+     */
+    private final int columns;
+
+    /**
+     * Les tuiles présentes sur cette grille, ligne par ligne.
+     */
+    private final Tile[] allTiles;
+
+    /**
+     * La table {@code [position][move.ordinal()]} des positions des cases poussées par
+     * chaque déplacement, contenant {@code -1} lorsque le déplacement est impossible.
+     */
+    private final int[][] neighbours;
+
+    /**
+     * Les positions des cases pouvant être poussées depuis chaque position de la tuile
+     * vide (sans case invalide).
+     */
+    private final int[][] reachable;
+
+    /**
+     * La position où se trouve la tuile vide.
      */
-    private final int size;
+    private int empty;
 
     /**
-     * Les tuiles présentes sur cette grille.
+     * Le nombre de tuiles (non vides) qui ne sont pas à leur place.
      */
-    private final Tile[][] allTiles;
+    private int nbMisplaced;
 
     /**
-     * La ligne où se trouve la tuile vide.
+     * Les clés aléatoires utilisées pour calculer le code de hachage de la disposition
+     * des tuiles, indexées par valeur de tuile puis par position.
+     * Elles sont tirées à partir des dimensions de la grille, de sorte que le code de
+     * hachage d'une disposition ne varie pas d'une exécution à l'autre.
      */
-    private int emptyRow;
+    private final long[] keys;
 
     /**
-     * La colonne où se trouve la tuile vide.
+     * Le code de hachage de la disposition courante des tuiles, maintenu à chaque
+     * déplacement.
      */
-    private int emptyColumn;
+    private long hash;
 
     /**
      * Crée une nouvelle instance de Grid.
      *
-     * @param size La taille de la grille à construire.
+     * @param size La taille de la grille à construire (en nombre de tuiles par côté).
      */
     public Grid(int size) {
-        this.size = size;
-        this.allTiles = new Tile[size][size];
+        this(size, size);
+    }
+
+    /**
+     * Crée une nouvelle instance de Grid rectangulaire.
+     *
+     * @param rows Le nombre de lignes de la grille à construire.
+     * @param columns Le nombre de colonnes de la grille à construire.
+     *
+     * @throws IllegalArgumentException Si la grille a moins de deux lignes ou de deux
+     *         colonnes.
+     */
+    public Grid(int rows, int columns) {
+        if ((rows < 2) || (columns < 2)) {
+            throw new IllegalArgumentException(
+                    "Dimensions de grille invalides : " + rows + "x" + columns);
+        }
+
+        int nbPositions = rows * columns;
+        this.rows = rows;
+        this.columns = columns;
+        this.allTiles = new Tile[nbPositions];
+        this.neighbours = Layouts.neighbours(rows, columns);
+        this.reachable = new int[nbPositions][];
+        for (int position = 0; position < nbPositions; position++) {
+            reachable[position] = Arrays.stream(neighbours[position])
+                    .filter(p -> p >= 0)
+                    .toArray();
+        }
+        this.keys = new SplittableRandom(((long) rows << 32) | columns)
+                .longs((long) nbPositions * nbPositions)
+                .toArray();
         initialize();
     }
 
@@ -75,19 +143,13 @@ public final class Grid {
      */
     private void initialize() {
         // On crée les tuiles dans l'ordre.
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int value = i * size + j + 1;
-                if (value == size * size) {
-                    value = 0;
-                }
-                allTiles[i][j] = new Tile(value);
-            }
+        for (int position = 0; position < allTiles.length; position++) {
+            allTiles[position] = new Tile(goalValue(position));
         }
 
-        // On s'assure que la tuile vide est dans le coin inférieur droit.
-        emptyRow = size - 1;
-        emptyColumn = size - 1;
+        // La tuile vide est alors dans le coin inférieur droit.
+        empty = allTiles.length - 1;
+        rehash();
     }
 
     /**
@@ -95,60 +157,174 @@ public final class Grid {
      */
     public void reset() {
         // On remet les tuiles dans l'ordre.
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int value = i * size + j + 1;
-                if (value == size * size) {
-                    value = 0;
-                }
-                allTiles[i][j].setValue(value);
+        for (int position = 0; position < allTiles.length; position++) {
+            allTiles[position].setValue(goalValue(position));
+        }
+
+        // La tuile vide est alors dans le coin inférieur droit.
+        empty = allTiles.length - 1;
+        rehash();
+    }
+
+    /**
+     * Donne la valeur de la tuile devant se trouver à une position donnée lorsque la
+     * grille est ordonnée.
+     *
+     * @param position La position considérée.
+     *
+     * @return La valeur de la tuile à cette position, {@code 0} pour la tuile vide.
+     */
+    private int goalValue(int position) {
+        return (position == allTiles.length - 1) ? 0 : (position + 1);
+    }
+
+    /**
+     * Place les tuiles de cette grille selon la disposition donnée.
+     * La disposition est vérifiée avant d'être appliquée : si elle n'est pas valide, la
+     * grille n'est pas modifiée.
+     *
+     * @param values Les valeurs des tuiles, ligne par ligne, la tuile vide valant
+     *        {@code 0}.
+     *
+     * @throws IllegalArgumentException Si la disposition n'est pas valide ou ne peut pas
+     *         être remise dans l'ordre.
+     */
+    public void load(int[] values) {
+        Layouts.checkLayout(values, rows, columns);
+
+        for (int position = 0; position < allTiles.length; position++) {
+            allTiles[position].setValue(values[position]);
+            if (values[position] == 0) {
+                empty = position;
+            }
+        }
+        rehash();
+    }
+
+    /**
+     * Recalcule le code de hachage et le nombre de tuiles mal placées de la disposition
+     * courante des tuiles.
+     */
+    private void rehash() {
+        hash = 0;
+        nbMisplaced = 0;
+        for (int position = 0; position < allTiles.length; position++) {
+            int value = allTiles[position].getValue();
+            hash ^= key(value, position);
+            if ((value != 0) && (value != goalValue(position))) {
+                nbMisplaced++;
             }
         }
+    }
 
-        // On s'assure que la tuile vide est dans le coin inférieur droit.
-        emptyRow = size - 1;
-        emptyColumn = size - 1;
+    /**
+     * Donne la clé associée à une tuile placée à une position donnée.
+     *
+     * @param value La valeur de la tuile.
+     * @param position La position de la tuile.
+     *
+     * @return La clé associée à la tuile, nulle pour la tuile vide.
+     */
+    private long key(int value, int position) {
+        if (value == 0) {
+            return 0;
+        }
+        return keys[value * allTiles.length + position];
     }
 
     /**
-     * Donne la taille de la grille (en nombre de tuiles par côté).
+     * Donne le nombre de lignes de la grille.
      *
-     * @return La taille de la grille.
+     * @return Le nombre de lignes.
      */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Donne le nombre de colonnes de la grille.
+     *
+     * @return Le nombre de colonnes.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Donne la taille de cette grille, lorsqu'elle est carrée.
+     *
+     * @return La taille de la grille (en nombre de tuiles par côté).
+     *
+     * @throws IllegalStateException Si la grille n'est pas carrée.
+     *
+     * @deprecated Les grilles pouvant être rectangulaires, utilisez {@link #getRows()}
+     *             et {@link #getColumns()}.
+     */
+    @Deprecated
     public int size() {
-        return size;
+        if (rows != columns) {
+            throw new IllegalStateException(
+                    "La grille n'est pas carrée (" + rows + "x" + columns + ")");
+        }
+        return rows;
     }
 
     /**
-     * Vérifie si un indice donné se trouve bien sur la grille.
+     * Donne la ligne où se trouve la tuile vide.
      *
-     * @param i L'indice à vérifier.
+     * @return La ligne de la tuile vide.
+     */
+    public int getEmptyRow() {
+        return empty / columns;
+    }
+
+    /**
+     * Donne la colonne où se trouve la tuile vide.
      *
-     * @return Si l'indice est bien sur cette grille.
+     * @return La colonne de la tuile vide.
      */
-    public boolean checkIndex(int i) {
-        return (0 <= i) && (i < size);
+    public int getEmptyColumn() {
+        return empty % columns;
+    }
+
+    /**
+     * Donne le code de hachage (de Zobrist) de la disposition courante des tuiles.
+     * Deux grilles de mêmes dimensions ayant la même disposition ont le même code.
+     *
+     * @return Le code de hachage de la disposition courante.
+     */
+    public long getHash() {
+        return hash;
     }
 
     /**
-     * Vérifie si une position donnée dans la grille est voisine de la tuile vide.
+     * Vérifie si une position donnée se trouve bien sur la grille.
      *
      * @param row La ligne à vérifier.
      * @param column La colonne à vérifier.
      *
-     * @return Si la position donnée est voisine de la tuile vide.
+     * @return Si la position est bien sur cette grille.
      */
-    private boolean isNearEmpty(int row, int column) {
-        if (!checkIndex(row) || !checkIndex(column)) {
-            // La position est en dehors de la grille.
-            return false;
-        }
+    public boolean checkIndex(int row, int column) {
+        return (0 <= row) && (row < rows) && (0 <= column) && (column < columns);
+    }
 
-        // On compare la position avec celle de la tuile vide.
-        return ((row - 1 == emptyRow) && (column == emptyColumn))
-                || ((row + 1 == emptyRow) && (column == emptyColumn))
-                || ((row == emptyRow) && (column - 1 == emptyColumn))
-                || ((row == emptyRow) && (column + 1 == emptyColumn));
+    /**
+     * Vérifie si un indice de ligne ou de colonne donné se trouve bien sur cette grille,
+     * lorsqu'elle est carrée.
+     *
+     * @param i L'indice à vérifier.
+     *
+     * @return Si l'indice est bien sur cette grille.
+     *
+     * @throws IllegalStateException Si la grille n'est pas carrée.
+     *
+     * @deprecated Les grilles pouvant être rectangulaires, utilisez
+     *             {@link #checkIndex(int, int)}.
+     */
+    @Deprecated
+    public boolean checkIndex(int i) {
+        return (0 <= i) && (i < size());
     }
 
     /**
@@ -160,7 +336,21 @@ public final class Grid {
      * @return La tuile à la position demandée.
      */
     public Tile get(int row, int column) {
-        return allTiles[row][column];
+        return allTiles[row * columns + column];
+    }
+
+    /**
+     * Donne les valeurs des tuiles de cette grille, ligne par ligne.
+     * La tuile vide y est représentée par la valeur {@code 0}.
+     *
+     * @return Un tableau (indépendant de cette grille) contenant les valeurs des tuiles.
+     */
+    public int[] toArray() {
+        int[] values = new int[allTiles.length];
+        for (int position = 0; position < allTiles.length; position++) {
+            values[position] = allTiles[position].getValue();
+        }
+        return values;
     }
 
     /**
@@ -172,16 +362,45 @@ public final class Grid {
      * @return Si un déplacement a effectivement eu lieu.
      */
     public boolean push(int row, int column) {
-        if (isNearEmpty(row, column)) {
-            Tile empty = allTiles[emptyRow][emptyColumn];
-            Tile other = allTiles[row][column];
-            empty.exchange(other);
-            emptyRow = row;
-            emptyColumn = column;
-            return true;
+        Move move = Move.of(row - getEmptyRow(), column - getEmptyColumn());
+        return (move != null) && push(move);
+    }
+
+    /**
+     * Pousse dans l'emplacement vide la case désignée par un déplacement.
+     *
+     * @param move Le déplacement à réaliser.
+     *
+     * @return Si un déplacement a effectivement eu lieu.
+     */
+    public boolean push(Move move) {
+        int position = neighbours[empty][move.ordinal()];
+        if (position < 0) {
+            // La case à pousser est en dehors de la grille.
+            return false;
         }
 
-        return false;
+        moveEmpty(position);
+        return true;
+    }
+
+    /**
+     * Pousse dans l'emplacement vide la case à une position voisine donnée.
+     *
+     * @param position La position de la case à pousser, voisine de la tuile vide.
+     */
+    private void moveEmpty(int position) {
+        Tile other = allTiles[position];
+        int value = other.getValue();
+        hash ^= key(value, position) ^ key(value, empty);
+        if (value == goalValue(position)) {
+            nbMisplaced++;
+        }
+        if (value == goalValue(empty)) {
+            nbMisplaced--;
+        }
+        allTiles[empty].exchange(other);
+        empty = position;
     }
 
     /**
@@ -190,7 +409,7 @@ public final class Grid {
      * @return Si un déplacement a effectivement eu lieu.
      */
     public boolean pushUp() {
-        return push(emptyRow + 1, emptyColumn);
+        return push(Move.UP);
     }
 
     /**
@@ -199,7 +418,7 @@ public final class Grid {
      * @return Si un déplacement a effectivement eu lieu.
      */
     public boolean pushRight() {
-        return push(emptyRow, emptyColumn - 1);
+        return push(Move.RIGHT);
     }
 
     /**
@@ -208,7 +427,7 @@ public final class Grid {
      * @return Si un déplacement a effectivement eu lieu.
      */
     public boolean pushDown() {
-        return push(emptyRow - 1, emptyColumn);
+        return push(Move.DOWN);
     }
 
     /**
@@ -217,7 +436,7 @@ public final class Grid {
      * @return Si un déplacement a effectivement eu lieu.
      */
     public boolean pushLeft() {
-        return push(emptyRow, emptyColumn + 1);
+        return push(Move.LEFT);
     }
 
     /**
@@ -230,31 +449,9 @@ public final class Grid {
      */
     public void shuffle() {
         for (int i = 0; i < NB_PERMUTATIONS; i++) {
-            int row;
-            int col;
-
-            do {
-                // On commence par choisir la ligne (relativement à la case vide).
-                row = RANDOM.nextInt(-1, 2);
-
-                if (row == 0) {
-                    // La ligne est la même que celle de l'emplacement vide.
-                    // Il faut donc forcer le changement de colonne.
-                    col = 2 * RANDOM.nextInt(2) - 1;
-
-                } else {
-                    // La colonne doit rester fixe.
-                    col = 0;
-                }
-
-                // On calcule la position (absolue) de la tuile à déplacer.
-                row += emptyRow;
-                col += emptyColumn;
-
-            } while (!checkIndex(col) || !checkIndex(row));
-
-            // On pousse la tuile sélectionnée.
-            push(row, col);
+            // On pousse l'une des cases voisines de l'emplacement vide.
+            int[] candidates = reachable[empty];
+            moveEmpty(candidates[RANDOM.nextInt(candidates.length)]);
         }
     }
 
@@ -264,15 +461,7 @@ public final class Grid {
      * @return Si les tuiles sont ordonnées.
      */
     public boolean isOrdered() {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int value = i * size + j + 1;
-                if ((value != size * size) && (value != allTiles[i][j].getValue())) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return nbMisplaced == 0;
     }
 
 }
@@ -0,0 +1,190 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+import java.util.Arrays;
+
+/**
+ * La classe Layouts fournit des méthodes utilitaires pour vérifier et parcourir les
+ * dispositions de tuiles d'une grille (carrée ou rectangulaire) du Taquin.
+ *
+ * Dans ces dispositions, les valeurs des tuiles sont stockées ligne par ligne, et la
+ * tuile vide est représentée par la valeur {@code 0}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class Layouts {
+
+    /**
+     * Désactive l'instanciation de cette classe utilitaire.
+     */
+    private Layouts() {
+        throw new AssertionError("Layouts ne doit pas être instanciée");
+    }
+
+    /**
+     * Vérifie que les tuiles données forment bien une permutation de {@code 0..n-1}.
+     * En cas d'erreur, seules la position et la valeur de la tuile fautive sont
+     * signalées, afin que le message reste lisible sur les grandes grilles.
+     *
+     * @param tiles Les tuiles à vérifier.
+     *
+     * @throws IllegalArgumentException Si une valeur est invalide ou répétée.
+     */
+    public static void checkPermutation(int[] tiles) {
+        int[] positions = new int[tiles.length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < tiles.length; i++) {
+            int value = tiles[i];
+            if ((value < 0) || (value >= tiles.length)) {
+                throw new IllegalArgumentException(
+                        "Valeur de tuile invalide en position " + i + " : " + value);
+            }
+            if (positions[value] >= 0) {
+                throw new IllegalArgumentException("Valeur de tuile répétée en position "
+                        + i + " : " + value + " (déjà en position " + positions[value]
+                        + ")");
+            }
+            positions[value] = i;
+        }
+    }
+
+    /**
+     * Donne la position de la tuile vide dans la grille donnée.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return La position de la tuile vide, ou {@code -1} si elle est absente.
+     */
+    public static int indexOfEmpty(int[] tiles) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compte le nombre d'inversions entre les tuiles (non vides) de la grille donnée.
+     *
+     * Le comptage utilise un arbre de Fenwick : la grille est parcourue de droite à
+     * gauche, et l'arbre donne pour chaque tuile le nombre de tuiles plus petites déjà
+     * rencontrées, ce qui prend un temps en {@code O(n log n)} pour {@code n} tuiles.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return Le nombre d'inversions de la grille.
+     */
+    public static long countInversions(int[] tiles) {
+        int[] tree = new int[tiles.length];
+        long inversions = 0;
+        for (int i = tiles.length - 1; i >= 0; i--) {
+            int value = tiles[i];
+            if (value == 0) {
+                continue;
+            }
+
+            // On compte les valeurs de 1 à (value - 1) déjà rencontrées.
+            for (int j = value - 1; j > 0; j -= j & -j) {
+                inversions += tree[j];
+            }
+
+            // On enregistre la valeur courante.
+            for (int j = value; j < tree.length; j += j & -j) {
+                tree[j]++;
+            }
+        }
+        return inversions;
+    }
+
+    /**
+     * Vérifie si la grille rectangulaire donnée peut être remise dans l'ordre.
+     *
+     * Sur une grille de largeur impaire, le nombre d'inversions doit être pair.
+     * Sur une grille de largeur paire, chaque déplacement vertical change à la fois la
+     * parité du nombre d'inversions et la ligne de la tuile vide : c'est donc la parité
+     * de leur somme qui est conservée.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return Si la grille peut être résolue.
+     */
+    public static boolean isSolvable(int[] tiles, int rows, int columns) {
+        long inversions = countInversions(tiles);
+        if ((columns & 1) == 1) {
+            return (inversions & 1) == 0;
+        }
+        int emptyRow = indexOfEmpty(tiles) / columns;
+        return ((inversions + emptyRow) & 1) == ((rows - 1) & 1);
+    }
+
+    /**
+     * Vérifie que les tuiles données forment une grille rectangulaire valide et pouvant
+     * être résolue.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param rows Le nombre de lignes attendu de la grille.
+     * @param columns Le nombre de colonnes attendu de la grille.
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         résolue.
+     */
+    public static void checkLayout(int[] tiles, int rows, int columns) {
+        if (tiles.length != rows * columns) {
+            throw new IllegalArgumentException("Une grille de " + (rows * columns)
+                    + " tuiles est attendue (" + tiles.length + " tuiles)");
+        }
+        checkPermutation(tiles);
+        if (!isSolvable(tiles, rows, columns)) {
+            throw new IllegalArgumentException("Grille insoluble ("
+                    + countInversions(tiles) + " inversions, tuile vide en ligne "
+                    + (indexOfEmpty(tiles) / columns) + ")");
+        }
+    }
+
+    /**
+     * Calcule, pour chaque position de la tuile vide et chaque déplacement, la position
+     * de la tuile qui est poussée sur une grille rectangulaire.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return La table {@code [position][move.ordinal()]} des positions des tuiles
+     *         poussées, contenant {@code -1} lorsque le déplacement est impossible.
+     */
+    public static int[][] neighbours(int rows, int columns) {
+        Move[] moves = Move.values();
+        int[][] table = new int[rows * columns][moves.length];
+        for (int position = 0; position < rows * columns; position++) {
+            int row = position / columns;
+            int column = position % columns;
+            for (Move move : moves) {
+                int r = row + move.getDeltaRow();
+                int c = column + move.getDeltaColumn();
+                boolean inside = (0 <= r) && (r < rows) && (0 <= c) && (c < columns);
+                table[position][move.ordinal()] = inside ? (r * columns + c) : -1;
+            }
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+/**
+ * L'énumération Move représente les déplacements qu'il est possible de réaliser sur la
+ * grille du Taquin.
+ * Chaque déplacement correspond à l'une des méthodes {@code push*} de {@link Grid}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public enum Move {
+
+    /**
+     * Pousse la case située sous l'emplacement vide dans cet emplacement.
+     */
+    UP(1, 0),
+
+    /**
+     * Pousse la case située à gauche de l'emplacement vide dans cet emplacement.
+     */
+    RIGHT(0, -1),
+
+    /**
+     * Pousse la case située au dessus de l'emplacement vide dans cet emplacement.
+     */
+    DOWN(-1, 0),
+
+    /**
+     * Pousse la case située à droite de l'emplacement vide dans cet emplacement.
+     */
+    LEFT(0, 1);
+
+    /**
+     * Le décalage en ligne de la case poussée, relativement à l'emplacement vide.
+     */
+    private final int deltaRow;
+
+    /**
+     * Le décalage en colonne de la case poussée, relativement à l'emplacement vide.
+     */
+    private final int deltaColumn;
+
+    /**
+     * Crée une nouvelle instance de Move.
+     *
+     * @param deltaRow Le décalage en ligne de la case poussée.
+     * @param deltaColumn Le décalage en colonne de la case poussée.
+     */
+    Move(int deltaRow, int deltaColumn) {
+        this.deltaRow = deltaRow;
+        this.deltaColumn = deltaColumn;
+    }
+
+    /**
+     * Donne le déplacement poussant la case située au décalage donné, relativement à
+     * l'emplacement vide.
+     *
+     * @param deltaRow Le décalage en ligne de la case poussée.
+     * @param deltaColumn Le décalage en colonne de la case poussée.
+     *
+     * @return Le déplacement correspondant, ou {@code null} si la case n'est pas voisine
+     *         de l'emplacement vide.
+     */
+    public static Move of(int deltaRow, int deltaColumn) {
+        for (Move move : values()) {
+            if ((move.deltaRow == deltaRow) && (move.deltaColumn == deltaColumn)) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Donne le décalage en ligne de la case poussée, relativement à l'emplacement vide.
+     *
+     * @return Le décalage en ligne de la case poussée.
+     */
+    public int getDeltaRow() {
+        return deltaRow;
+    }
+
+    /**
+     * Donne le décalage en colonne de la case poussée, relativement à l'emplacement
+     * vide.
+     *
+     * @return Le décalage en colonne de la case poussée.
+     */
+    public int getDeltaColumn() {
+        return deltaColumn;
+    }
+
+    /**
+     * Donne le déplacement annulant ce déplacement.
+     *
+     * @return Le déplacement opposé à celui-ci.
+     */
+    public Move opposite() {
+        return switch (this) {
+            case UP -> DOWN;
+            case RIGHT -> LEFT;
+            case DOWN -> UP;
+            case LEFT -> RIGHT;
+        };
+    }
+
+    /**
+     * Applique ce déplacement sur la grille donnée.
+     *
+     * @param grid La grille sur laquelle appliquer le déplacement.
+     *
+     * @return Si un déplacement a effectivement eu lieu.
+     */
+    public boolean applyTo(Grid grid) {
+        return switch (this) {
+            case UP -> grid.pushUp();
+            case RIGHT -> grid.pushRight();
+            case DOWN -> grid.pushDown();
+            case LEFT -> grid.pushLeft();
+        };
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+/**
+ * La classe MoveEvent représente un déplacement réalisé sur la grille d'une partie du
+ * Taquin, tel qu'il est diffusé par un {@link MoveEventPublisher}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class MoveEvent {
+
+    /**
+     * Le numéro de cet événement, attribué par ordre de publication à partir de
+     * {@code 0}.
+     */
+    private final long sequence;
+
+    /**
+     * Le déplacement réalisé.
+     */
+    private final Move move;
+
+    /**
+     * Le code de hachage de la disposition des tuiles obtenue après le déplacement.
+     */
+    private final long hash;
+
+    /**
+     * Le nombre de déplacements réalisés depuis le début de la partie, y compris
+     * celui-ci.
+     */
+    private final int moveCount;
+
+    /**
+     * Crée une nouvelle instance de MoveEvent.
+     *
+     * @param sequence Le numéro de cet événement.
+     * @param move Le déplacement réalisé.
+     * @param hash Le code de hachage de la disposition obtenue après le déplacement.
+     * @param moveCount Le nombre de déplacements réalisés depuis le début de la partie.
+     */
+    MoveEvent(long sequence, Move move, long hash, int moveCount) {
+        this.sequence = sequence;
+        this.move = move;
+        this.hash = hash;
+        this.moveCount = moveCount;
+    }
+
+    /**
+     * Donne le numéro de cet événement.
+     * Les numéros des événements reçus par un abonné se suivent, sauf lorsque des
+     * événements ont été abandonnés selon sa politique de contre-pression : l'abonné
+     * peut ainsi savoir combien d'événements il a manqués.
+     *
+     * @return Le numéro de cet événement.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Donne le déplacement réalisé.
+     *
+     * @return Le déplacement réalisé.
+     */
+    public Move getMove() {
+        return move;
+    }
+
+    /**
+     * Donne le code de hachage de la disposition des tuiles obtenue après le
+     * déplacement.
+     *
+     * @return Le code de hachage de la disposition obtenue.
+     *
+     * @see Grid#getHash()
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Donne le nombre de déplacements réalisés depuis le début de la partie, y compris
+     * celui-ci.
+     *
+     * @return Le nombre de déplacements réalisés.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + move + " (" + moveCount + " déplacements, "
+                + Long.toHexString(hash) + ")";
+    }
+
+}
@@ -0,0 +1,504 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+import java.lang.System.Logger.Level;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * La classe MoveEventPublisher diffuse les déplacements réalisés au cours d'une partie du
+ * Taquin à un nombre quelconque d'abonnés (spectateurs, enregistreurs, statistiques...).
+ *
+ * Les événements sont publiés dans un tampon circulaire sans verrou (voir
+ * {@link MoveEventRing}), dans lequel chaque abonné lit à son rythme.
+ * Les abonnés sont servis par les threads d'un {@link Executor}, et jamais par le thread
+ * ayant publié l'événement : publier un événement ne bloque donc jamais, quel que soit
+ * le nombre ou la lenteur des abonnés.
+ * Si l'exécuteur refuse de servir un abonné, son abonnement est terminé sur une erreur.
+ * Chaque abonné choisit la manière dont sont traités les événements publiés alors qu'il
+ * n'en a pas demandé (voir {@link BackpressurePolicy}).
+ *
+ * Une fois cette instance fermée, chaque abonné reçoit encore les événements déjà
+ * publiés qu'il demande, puis la fin de la diffusion, y compris s'il s'abonne après la
+ * fermeture.
+ *
+ * Les abonnés ne sont pas servis par le thread de JavaFX : ceux qui modifient la vue
+ * doivent passer par {@code Platform.runLater()}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class MoveEventPublisher implements Flow.Publisher<MoveEvent>, AutoCloseable {
+
+    /**
+     * Le nombre d'emplacements par défaut du tampon circulaire.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Le journal dans lequel sont signalées les erreurs des abonnés.
+     */
+    private static final System.Logger LOGGER =
+            System.getLogger(MoveEventPublisher.class.getName());
+
+    /**
+     * Le tampon circulaire dans lequel les événements sont publiés.
+     */
+    private final MoveEventRing ring;
+
+    /**
+     * L'exécuteur servant les abonnés.
+     */
+    private final Executor executor;
+
+    /**
+     * L'exécuteur créé par cette instance, qui doit être arrêté à sa fermeture, ou
+     * {@code null} si l'exécuteur a été fourni.
+     */
+    private final ExecutorService ownExecutor;
+
+    /**
+     * Les abonnements en cours.
+     */
+    private final List<MoveSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Si cette instance a été fermée.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Crée une nouvelle instance de MoveEventPublisher, dont les abonnés sont servis par
+     * des threads démons qui lui sont propres.
+     */
+    public MoveEventPublisher() {
+        this.ring = new MoveEventRing(DEFAULT_CAPACITY);
+        AtomicInteger counter = new AtomicInteger();
+        this.ownExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "move-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = ownExecutor;
+    }
+
+    /**
+     * Crée une nouvelle instance de MoveEventPublisher.
+     *
+     * @param capacity Le nombre d'emplacements du tampon circulaire (une puissance de 2).
+     * @param executor L'exécuteur servant les abonnés, qui ne doit pas bloquer lorsqu'on
+     *        lui soumet une tâche.
+     */
+    public MoveEventPublisher(int capacity, Executor executor) {
+        this.ring = new MoveEventRing(capacity);
+        this.executor = Objects.requireNonNull(executor);
+        this.ownExecutor = null;
+    }
+
+    /**
+     * Abonne un abonné aux événements publiés à partir de maintenant, en conservant les
+     * événements qu'il n'a pas encore demandés dans un tampon de
+     * {@link Flow#defaultBufferSize()} événements.
+     *
+     * @param subscriber L'abonné à abonner.
+     *
+     * @see BackpressurePolicy#BUFFER
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super MoveEvent> subscriber) {
+        subscribe(subscriber, BackpressurePolicy.BUFFER, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Abonne un abonné aux événements publiés à partir de maintenant.
+     *
+     * @param subscriber L'abonné à abonner.
+     * @param policy La politique appliquée aux événements que l'abonné n'a pas encore
+     *        demandés.
+     */
+    public void subscribe(Flow.Subscriber<? super MoveEvent> subscriber,
+            BackpressurePolicy policy) {
+        subscribe(subscriber, policy, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Abonne un abonné aux événements publiés à partir de maintenant.
+     *
+     * @param subscriber L'abonné à abonner.
+     * @param policy La politique appliquée aux événements que l'abonné n'a pas encore
+     *        demandés.
+     * @param bufferCapacity Le nombre maximal d'événements conservés pour l'abonné
+     *        (uniquement pour la politique {@link BackpressurePolicy#BUFFER}).
+     *
+     * @throws IllegalArgumentException Si la taille du tampon n'est pas strictement
+     *         positive.
+     */
+    public void subscribe(Flow.Subscriber<? super MoveEvent> subscriber,
+            BackpressurePolicy policy, int bufferCapacity) {
+        Objects.requireNonNull(subscriber);
+        Objects.requireNonNull(policy);
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Taille de tampon invalide : " + bufferCapacity);
+        }
+
+        MoveSubscription subscription =
+                new MoveSubscription(subscriber, policy, bufferCapacity);
+        subscriber.onSubscribe(subscription);
+
+        // L'abonnement n'est visible des publications qu'une fois onSubscribe() terminé.
+        subscriptions.add(subscription);
+        if (subscription.cancelled) {
+            subscriptions.remove(subscription);
+        }
+
+        // Les événements publiés avant l'ajout de l'abonnement, ou la fin de la diffusion
+        // si cette instance a été fermée, n'ont pas encore été signalés.
+        subscription.signal();
+    }
+
+    /**
+     * Donne le nombre d'abonnements en cours.
+     *
+     * @return Le nombre d'abonnements en cours.
+     */
+    public int getNbSubscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Publie un déplacement auprès des abonnés.
+     * Cette méthode ne bloque jamais, et ne fait rien si cette instance a été fermée.
+     *
+     * @param move Le déplacement réalisé.
+     * @param hash Le code de hachage de la disposition obtenue après le déplacement.
+     * @param moveCount Le nombre de déplacements réalisés depuis le début de la partie.
+     */
+    void publish(Move move, long hash, int moveCount) {
+        if (closed) {
+            return;
+        }
+
+        ring.publish(move, hash, moveCount);
+        for (MoveSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Ferme cette instance.
+     * Les événements déjà publiés sont transmis aux abonnés selon leur politique, puis
+     * la fin de la diffusion leur est signalée.
+     * Les threads propres à cette instance ne sont arrêtés qu'une fois tous les
+     * abonnements terminés.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (MoveSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+        shutdownIfIdle();
+    }
+
+    /**
+     * Arrête l'exécuteur propre à cette instance si plus aucun abonnement n'est en
+     * cours.
+     * Un abonnement ajouté ensuite est servi par le thread qui le signale.
+     */
+    private void shutdownIfIdle() {
+        if ((ownExecutor != null) && subscriptions.isEmpty()) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * La classe MoveSubscription représente l'abonnement d'un abonné aux événements de
+     * déplacement.
+     *
+     * Les événements sont transmis à l'abonné par une tâche soumise à l'exécuteur
+     * lorsque l'abonnement est signalé.
+     * Un compteur de signaux garantit qu'une seule tâche s'exécute à la fois pour un
+     * abonnement donné, et qu'aucun signal n'est perdu : les champs non partagés ne sont
+     * donc lus et modifiés que par cette tâche.
+     */
+    private final class MoveSubscription implements Flow.Subscription {
+
+        /**
+         * L'abonné auquel les événements sont transmis.
+         */
+        private final Flow.Subscriber<? super MoveEvent> subscriber;
+
+        /**
+         * La politique appliquée aux événements que l'abonné n'a pas encore demandés.
+         */
+        private final BackpressurePolicy policy;
+
+        /**
+         * Le nombre maximal d'événements conservés pour l'abonné.
+         */
+        private final int bufferCapacity;
+
+        /**
+         * Les événements conservés pour l'abonné (pour la politique
+         * {@link BackpressurePolicy#BUFFER}).
+         */
+        private final Queue<MoveEvent> buffer = new ArrayDeque<>();
+
+        /**
+         * Le nombre d'événements demandés par l'abonné et pas encore transmis.
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * Le nombre de signaux n'ayant pas encore été traités.
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * L'erreur à signaler à l'abonné, lorsqu'il a fait une demande invalide.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Si cet abonnement est terminé.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Le numéro du prochain événement à lire dans le tampon circulaire.
+         */
+        private long cursor;
+
+        /**
+         * Crée une nouvelle instance de MoveSubscription.
+         *
+         * @param subscriber L'abonné auquel les événements sont transmis.
+         * @param policy La politique appliquée aux événements non demandés.
+         * @param bufferCapacity Le nombre maximal d'événements conservés pour l'abonné.
+         */
+        MoveSubscription(Flow.Subscriber<? super MoveEvent> subscriber,
+                BackpressurePolicy policy, int bufferCapacity) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.bufferCapacity = bufferCapacity;
+            this.cursor = ring.head();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Flow.Subscription#request(long)
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Demande invalide : " + n);
+            } else {
+                requested.getAndAccumulate(n, (current, added) -> (current + added < 0)
+                        ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Flow.Subscription#cancel()
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            if (closed) {
+                shutdownIfIdle();
+            }
+        }
+
+        /**
+         * Signale que de nouveaux événements ou de nouvelles demandes sont disponibles.
+         * Cette méthode ne bloque pas, et ne transmet jamais d'événement sur le thread
+         * appelant tant que cette instance n'a pas été fermée.
+         * Si l'exécuteur refuse la tâche alors que cette instance est ouverte,
+         * l'abonnement est terminé sur une erreur.
+         * Une fois cette instance fermée, plus aucun événement n'est publié, et les
+         * signaux refusés sont traités par le thread appelant, afin que l'abonné reçoive
+         * toujours les événements demandés et la fin de la diffusion.
+         */
+        void signal() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+
+                } catch (RejectedExecutionException e) {
+                    if (closed) {
+                        LOGGER.log(Level.DEBUG,
+                                "Exécuteur arrêté, abonnement servi sur place", e);
+                        drain();
+
+                    } else {
+                        // Aucune tâche ne peut être en cours : l'erreur est signalée ici.
+                        LOGGER.log(Level.WARNING,
+                                "Exécuteur saturé, abonnement annulé", e);
+                        fail(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Traite les signaux reçus, jusqu'à ce qu'il n'y en ait plus.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!cancelled) {
+                    transmit();
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Transmet à l'abonné les événements disponibles, dans la limite de sa demande,
+         * et applique sa politique aux autres.
+         */
+        private void transmit() {
+            Throwable failure = error;
+            if (failure != null) {
+                fail(failure);
+                return;
+            }
+
+            long demand = requested.get();
+            long emitted = 0;
+            long head = ring.head();
+            while (!cancelled) {
+                if (emitted == demand) {
+                    // L'abonné a pu faire de nouvelles demandes depuis onNext().
+                    demand = requested.get();
+                }
+
+                if (!buffer.isEmpty() && (emitted < demand)) {
+                    // Les événements conservés sont transmis avant ceux du tampon
+                    // circulaire, qui continuent sinon d'être conservés ci-dessous.
+                    emit(buffer.poll());
+                    emitted++;
+                    continue;
+                }
+
+                if (cursor == head) {
+                    break;
+                }
+                MoveEvent event = ring.get(cursor);
+                if ((event == null) || (event.getSequence() < cursor)) {
+                    // Cet événement n'est pas encore écrit : son producteur signalera
+                    // l'abonnement une fois qu'il le sera.
+                    break;
+                }
+                if (event.getSequence() > cursor) {
+                    // L'abonné a pris trop de retard, et cet événement a été écrasé.
+                    if (policy == BackpressurePolicy.BUFFER) {
+                        fail(new IllegalStateException("Des événements ont été perdus à "
+                                + "partir du numéro " + cursor));
+                        return;
+                    }
+                    cursor = Math.max(cursor + 1, ring.head() - ring.capacity());
+                    continue;
+                }
+
+                if (emitted == demand) {
+                    // L'abonné n'a pas demandé cet événement : sa politique s'applique.
+                    if (policy == BackpressurePolicy.DROP) {
+                        cursor++;
+                        continue;
+                    }
+                    if (policy == BackpressurePolicy.LATEST) {
+                        if (cursor + 1 < head) {
+                            cursor++;
+                            continue;
+                        }
+                        break;
+                    }
+                    if (buffer.size() == bufferCapacity) {
+                        fail(new IllegalStateException(
+                                "Le tampon de l'abonné a débordé (" + bufferCapacity
+                                        + " événements)"));
+                        return;
+                    }
+                    buffer.add(event);
+                    cursor++;
+                    continue;
+                }
+
+                cursor++;
+                emit(event);
+                emitted++;
+            }
+
+            if ((emitted > 0) && (demand != Long.MAX_VALUE)) {
+                requested.addAndGet(-emitted);
+            }
+
+            if (closed && !cancelled && buffer.isEmpty() && (cursor == ring.head())) {
+                cancel();
+                subscriber.onComplete();
+            }
+        }
+
+        /**
+         * Transmet un événement à l'abonné.
+         * Si l'abonné lève une exception, son abonnement est annulé.
+         *
+         * @param event L'événement à transmettre.
+         */
+        private void emit(MoveEvent event) {
+            try {
+                subscriber.onNext(event);
+
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Abonné défaillant, abonnement annulé", e);
+                cancel();
+            }
+        }
+
+        /**
+         * Termine cet abonnement sur une erreur.
+         *
+         * @param failure L'erreur à signaler à l'abonné.
+         */
+        private void fail(Throwable failure) {
+            cancel();
+            buffer.clear();
+            subscriber.onError(failure);
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * La classe MoveEventRing est un tampon circulaire sans verrou, dans lequel sont publiés
+ * les événements de déplacement.
+ *
+ * La publication d'un événement ne fait jamais attendre : lorsque le tampon est plein,
+ * l'événement le plus ancien est écrasé.
+ * Chaque lecteur maintient sa propre position de lecture, et détecte les événements
+ * qu'il a manqués grâce à leurs numéros (voir {@link MoveEvent#getSequence()}).
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class MoveEventRing {
+
+    /**
+     * Les emplacements du tampon.
+     */
+    private final AtomicReferenceArray<MoveEvent> slots;
+
+    /**
+     * Le masque permettant de calculer l'emplacement d'un événement à partir de son
+     * numéro.
+     */
+    private final int mask;
+
+    /**
+     * Le numéro du prochain événement à publier.
+     */
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * Crée une nouvelle instance de MoveEventRing.
+     *
+     * @param capacity Le nombre d'emplacements du tampon (une puissance de 2).
+     *
+     * @throws IllegalArgumentException Si la capacité n'est pas une puissance de 2.
+     */
+    MoveEventRing(int capacity) {
+        if ((capacity <= 0) || (Integer.bitCount(capacity) != 1)) {
+            throw new IllegalArgumentException(
+                    "La capacité doit être une puissance de 2 : " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Donne le nombre d'emplacements du tampon.
+     *
+     * @return Le nombre d'emplacements du tampon.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Publie un nouvel événement.
+     * Plusieurs threads peuvent publier simultanément.
+     *
+     * @param move Le déplacement réalisé.
+     * @param hash Le code de hachage de la disposition obtenue après le déplacement.
+     * @param moveCount Le nombre de déplacements réalisés depuis le début de la partie.
+     *
+     * @return Le numéro de l'événement publié.
+     */
+    long publish(Move move, long hash, int moveCount) {
+        long sequence = next.getAndIncrement();
+        MoveEvent event = new MoveEvent(sequence, move, hash, moveCount);
+        slots.setRelease((int) sequence & mask, event);
+        return sequence;
+    }
+
+    /**
+     * Donne le numéro du prochain événement à publier.
+     * Les événements de numéros inférieurs ont été publiés, ou sont en train de l'être.
+     *
+     * @return Le numéro du prochain événement à publier.
+     */
+    long head() {
+        return next.get();
+    }
+
+    /**
+     * Donne l'événement occupant l'emplacement d'un numéro donné.
+     * Le numéro de l'événement renvoyé doit être comparé au numéro demandé : s'il est
+     * inférieur, l'événement demandé n'a pas encore été écrit ; s'il est supérieur,
+     * l'événement demandé a été écrasé.
+     *
+     * @param sequence Le numéro de l'événement demandé.
+     *
+     * @return L'événement occupant l'emplacement, ou {@code null} si cet emplacement n'a
+     *         jamais été écrit.
+     */
+    MoveEvent get(long sequence) {
+        return slots.getAcquire((int) sequence & mask);
+    }
+
+}
@@ -16,6 +16,11 @@
 
 package fr.univartois.butinfo.ihm.taquin.model;
 
+import java.time.Duration;
+
+import fr.univartois.butinfo.ihm.taquin.solver.AnytimeSolver;
+import fr.univartois.butinfo.ihm.taquin.solver.Solution;
+import fr.univartois.butinfo.ihm.taquin.stats.GameStatistics;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 
@@ -39,20 +44,46 @@ public final class Taquin {
      */
     private final IntegerProperty nbMoves;
 
+    /**
+     * La diffusion des déplacements réalisés sur la grille.
+     */
+    private final MoveEventPublisher moveEvents;
+
     /**
      * Le contrôleur de l'application, avec lequel cette façade interagit pour maintenir
      * la cohérence avec la vue, et inversement.
      */
     private ITaquinController controller;
 
+    /**
+     * Les statistiques dans lesquelles les parties terminées sont enregistrées.
+     */
+    private GameStatistics statistics;
+
+    /**
+     * Le code de hachage de la disposition initiale des tuiles de la partie en cours.
+     */
+    private long startLayout;
+
     /**
      * Crée une nouvelle instance du jeu du Taquin.
      *
      * @param size La taille de la grille sur laquelle le jeu se déroule.
      */
     public Taquin(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Crée une nouvelle instance du jeu du Taquin sur une grille rectangulaire.
+     *
+     * @param rows Le nombre de lignes de la grille sur laquelle le jeu se déroule.
+     * @param columns Le nombre de colonnes de cette grille.
+     */
+    public Taquin(int rows, int columns) {
         this.nbMoves = new SimpleIntegerProperty();
-        this.grid = new Grid(size);
+        this.grid = new Grid(rows, columns);
+        this.moveEvents = new MoveEventPublisher();
     }
 
     /**
@@ -68,19 +99,81 @@ public final class Taquin {
     }
 
     /**
-     * Donne la taille de la grille sur laquelle le jeu se déroule.
+     * Modifie les statistiques dans lesquelles les parties terminées sont enregistrées.
+     *
+     * @param statistics Les statistiques à alimenter, ou {@code null} pour ne plus
+     *        enregistrer les parties.
+     */
+    public void setStatistics(GameStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Donne le nombre de lignes de la grille sur laquelle le jeu se déroule.
+     *
+     * @return Le nombre de lignes de la grille.
+     */
+    public int getRows() {
+        return grid.getRows();
+    }
+
+    /**
+     * Donne le nombre de colonnes de la grille sur laquelle le jeu se déroule.
+     *
+     * @return Le nombre de colonnes de la grille.
+     */
+    public int getColumns() {
+        return grid.getColumns();
+    }
+
+    /**
+     * Donne la taille de la grille sur laquelle le jeu se déroule, lorsqu'elle est
+     * carrée.
      *
      * @return La taille de la grille, en nombre de cases par côté.
+     *
+     * @throws IllegalStateException Si la grille n'est pas carrée.
+     *
+     * @deprecated Les grilles pouvant être rectangulaires, utilisez {@link #getRows()}
+     *             et {@link #getColumns()}.
      */
+    @Deprecated
     public int size() {
         return grid.size();
     }
 
+    /**
+     * Donne la diffusion des déplacements réalisés sur la grille, à laquelle peuvent
+     * s'abonner des spectateurs, des enregistreurs, etc.
+     *
+     * @return La diffusion des déplacements.
+     */
+    public MoveEventPublisher getMoveEvents() {
+        return moveEvents;
+    }
+
     /**
      * Démarre une nouvelle partie.
      */
     public void startGame() {
         grid.shuffle();
+        startLayout = grid.getHash();
+        controller.startGame();
+    }
+
+    /**
+     * Démarre une nouvelle partie à partir d'une disposition donnée des tuiles.
+     *
+     * @param layout Les valeurs des tuiles, ligne par ligne, la tuile vide valant
+     *        {@code 0}.
+     *
+     * @throws IllegalArgumentException Si la disposition n'est pas valide ou ne peut pas
+     *         être remise dans l'ordre.
+     */
+    public void startGame(int[] layout) {
+        grid.load(layout);
+        startLayout = grid.getHash();
+        nbMoves.set(0);
         controller.startGame();
     }
 
@@ -91,8 +184,9 @@ public final class Taquin {
      * @param column La colonne de la case à pousser.
      */
     public void push(int row, int column) {
-        if (grid.push(row, column)) {
-            acceptMove();
+        Move move = Move.of(row - grid.getEmptyRow(), column - grid.getEmptyColumn());
+        if ((move != null) && grid.push(move)) {
+            acceptMove(move);
         }
     }
 
@@ -101,7 +195,7 @@ public final class Taquin {
      */
     public void pushUp() {
         if (grid.pushUp()) {
-            acceptMove();
+            acceptMove(Move.UP);
         }
     }
 
@@ -110,7 +204,7 @@ public final class Taquin {
      */
     public void pushRight() {
         if (grid.pushRight()) {
-            acceptMove();
+            acceptMove(Move.RIGHT);
         }
     }
 
@@ -119,7 +213,7 @@ public final class Taquin {
      */
     public void pushDown() {
         if (grid.pushDown()) {
-            acceptMove();
+            acceptMove(Move.DOWN);
         }
     }
 
@@ -128,20 +222,40 @@ public final class Taquin {
      */
     public void pushLeft() {
         if (grid.pushLeft()) {
-            acceptMove();
+            acceptMove(Move.LEFT);
         }
     }
 
     /**
-     * Valide le dernier déplacement demandé par l'utilisateur.
+     * Valide le dernier déplacement demandé par l'utilisateur, et le diffuse.
+     *
+     * @param move Le déplacement réalisé.
      */
-    private void acceptMove() {
+    private void acceptMove(Move move) {
         nbMoves.set(nbMoves.get() + 1);
+        moveEvents.publish(move, grid.getHash(), nbMoves.get());
         if (grid.isOrdered()) {
+            if (statistics != null) {
+                statistics.record(getRows(), getColumns(), startLayout, nbMoves.get());
+            }
             controller.endGame();
         }
     }
 
+    /**
+     * Cherche les déplacements permettant de remettre la grille dans l'ordre depuis son
+     * état courant, par exemple pour proposer une aide au joueur.
+     * La solution renvoyée n'est pas forcément optimale, mais est obtenue dans le temps
+     * imparti.
+     *
+     * @param budget Le temps accordé à la recherche.
+     *
+     * @return La meilleure solution trouvée dans le temps imparti.
+     */
+    public Solution solve(Duration budget) {
+        return new AnytimeSolver(grid.getRows(), grid.getColumns()).solve(grid, budget);
+    }
+
     /**
      * Redémarre une nouvelle partie.
      */
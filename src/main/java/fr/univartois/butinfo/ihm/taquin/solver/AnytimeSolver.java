@@ -0,0 +1,305 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.time.Duration;
+
+import fr.univartois.butinfo.ihm.taquin.model.Grid;
+
+/**
+ * La classe AnytimeSolver permet de résoudre une grille du Taquin dans un temps limité.
+ *
+ * Une première solution est obtenue très rapidement par une recherche A* fortement
+ * pondérée, puis améliorée par des recherches de poids décroissants, pendant au plus la
+ * moitié du budget.
+ * Si ces recherches n'ont trouvé aucune solution dans ce délai, ou si la grille est trop
+ * grande pour elles, une solution est construite directement (voir
+ * {@link BoardReduction}), en un temps négligeable.
+ * Le temps restant est consacré à une recherche IDA*, qui élève la borne inférieure
+ * prouvée de la longueur d'une solution optimale, et trouve cette solution si le temps
+ * le permet.
+ * À l'échéance, la meilleure solution trouvée est renvoyée avec cette borne.
+ *
+ * L'échéance est vérifiée tous les 1024 nœuds, et les nœuds des recherches pondérées ne
+ * sont pas des objets (voir {@link WeightedSearch}), de sorte que la latence suit le
+ * budget donné à quelques millisecondes près, même lorsqu'aucune solution n'a pu être
+ * trouvée par une recherche.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class AnytimeSolver {
+
+    /**
+     * Les poids successifs des recherches A* pondérées, sous la forme de fractions
+     * {@code {numérateur, dénominateur}}.
+     */
+    private static final int[][] WEIGHTS = {
+            { 5, 1 }, { 3, 1 }, { 2, 1 }, { 3, 2 }, { 5, 4 } };
+
+    /**
+     * Le nombre maximal de nœuds mémorisés par une recherche A* pondérée.
+     */
+    private static final int MAX_NODES = 1 << 20;
+
+    /**
+     * L'espace de recherche des grilles à résoudre.
+     */
+    private final SearchSpace space;
+
+    /**
+     * Crée une nouvelle instance de AnytimeSolver.
+     *
+     * @param size La taille des grilles à résoudre (en nombre de tuiles par côté).
+     */
+    public AnytimeSolver(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Crée une nouvelle instance de AnytimeSolver pour des grilles rectangulaires.
+     *
+     * @param rows Le nombre de lignes des grilles à résoudre.
+     * @param columns Le nombre de colonnes des grilles à résoudre.
+     */
+    public AnytimeSolver(int rows, int columns) {
+        this.space = new SearchSpace(rows, columns);
+    }
+
+    /**
+     * Résout la grille donnée, dans son état courant.
+     *
+     * @param grid La grille à résoudre.
+     * @param budget Le temps accordé à la résolution.
+     *
+     * @return La meilleure solution trouvée dans le temps imparti.
+     */
+    public Solution solve(Grid grid, Duration budget) {
+        return solve(grid.toArray(), budget);
+    }
+
+    /**
+     * Résout la grille donnée.
+     *
+     * @param tiles Les tuiles de la grille à résoudre, ligne par ligne, la tuile vide
+     *        valant {@code 0}.
+     * @param budget Le temps accordé à la résolution.
+     *
+     * @return La meilleure solution trouvée dans le temps imparti.
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         remise dans l'ordre.
+     */
+    public Solution solve(int[] tiles, Duration budget) {
+        space.checkLayout(tiles);
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        return new Search(tiles, start, deadline).run();
+    }
+
+    /**
+     * La classe Search représente une résolution en cours.
+     */
+    private final class Search {
+
+        /**
+         * Le nœud correspondant à la grille à résoudre.
+         */
+        private final FrontierNode root;
+
+        /**
+         * L'instant auquel la résolution a commencé (en nanosecondes).
+         */
+        private final long start;
+
+        /**
+         * L'instant auquel la résolution doit s'arrêter (en nanosecondes).
+         */
+        private final long deadline;
+
+        /**
+         * La meilleure solution trouvée (sous la forme des indices de ses déplacements).
+         */
+        private int[] best;
+
+        /**
+         * La borne inférieure prouvée de la longueur d'une solution optimale.
+         */
+        private int lowerBound;
+
+        /**
+         * La recherche A* pondérée utilisée pour trouver et améliorer les solutions, ou
+         * {@code null} si les grilles sont trop grandes pour elle.
+         */
+        private final WeightedSearch weightedSearch =
+                (space.rows() * space.columns() <= WeightedSearch.MAX_POSITIONS)
+                        ? new WeightedSearch(space) : null;
+
+        /**
+         * Le nombre de nœuds explorés.
+         */
+        private long nbNodes;
+
+        /**
+         * Crée une nouvelle instance de Search.
+         *
+         * @param tiles Les tuiles de la grille à résoudre.
+         * @param start L'instant auquel la résolution a commencé.
+         * @param deadline L'instant auquel la résolution doit s'arrêter.
+         */
+        Search(int[] tiles, long start, long deadline) {
+            this.root = space.node(tiles, new int[0]);
+            this.start = start;
+            this.deadline = deadline;
+            this.lowerBound = root.h();
+        }
+
+        /**
+         * Exécute la résolution.
+         *
+         * @return La meilleure solution trouvée.
+         */
+        Solution run() {
+            if (root.h() == 0) {
+                best = new int[0];
+                return solution();
+            }
+
+            // Les recherches pondérées disposent de la moitié du budget au plus.
+            long weightedDeadline = start + (deadline - start) / 2;
+            for (int[] weight : WEIGHTS) {
+                if ((weightedSearch == null) || (System.nanoTime() >= weightedDeadline)
+                        || !weighted(weight[0], weight[1], weightedDeadline, MAX_NODES)
+                        || isOptimal()) {
+                    break;
+                }
+            }
+
+            if (best == null) {
+                // Aucune recherche n'a abouti à temps : une solution est construite.
+                best = BoardReduction.solve(space, root.tiles());
+            }
+            deepen();
+            return solution();
+        }
+
+        /**
+         * Recherche une solution plus courte que la meilleure solution connue, à l'aide
+         * d'une recherche A* pondérée.
+         * Une telle recherche trouve une solution dont la longueur est au plus
+         * {@code numerator / denominator} fois la longueur optimale, ce qui fournit
+         * aussi une borne inférieure.
+         *
+         * @param numerator Le numérateur du poids de l'heuristique.
+         * @param denominator Le dénominateur du poids de l'heuristique (nul pour une
+         *        recherche gloutonne).
+         * @param stop L'instant auquel la recherche doit s'arrêter.
+         * @param maxNodes Le nombre maximal de nœuds mémorisés par la recherche.
+         *
+         * @return Si la recherche a été menée à son terme.
+         */
+        private boolean weighted(int numerator, int denominator, long stop, int maxNodes) {
+            int limit = (best == null) ? Integer.MAX_VALUE : best.length;
+            int result = weightedSearch.search(root, numerator, denominator, limit, stop,
+                    maxNodes);
+            nbNodes += weightedSearch.takeExplored();
+
+            if (result == WeightedSearch.FOUND) {
+                best = weightedSearch.solution();
+                if (denominator > 0) {
+                    int length = best.length * denominator;
+                    raiseLowerBound((length + numerator - 1) / numerator);
+                }
+                return true;
+            }
+
+            if (result == WeightedSearch.EXHAUSTED) {
+                // Aucune solution plus courte que la meilleure solution connue n'existe.
+                raiseLowerBound(limit);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Élève la borne inférieure à l'aide d'une recherche IDA*, jusqu'à l'échéance ou
+         * jusqu'à prouver l'optimalité de la meilleure solution.
+         * Une solution doit déjà être connue.
+         */
+        private void deepen() {
+            SubtreeSearch search = new SubtreeSearch(
+                    space, t -> System.nanoTime() >= deadline);
+            int threshold = lowerBound;
+            while ((threshold < best.length) && (System.nanoTime() < deadline)) {
+                int result = search.explore(root, threshold);
+                nbNodes += search.takeExplored();
+
+                if (result == SubtreeSearch.FOUND) {
+                    best = search.solution();
+                    raiseLowerBound(best.length);
+                    return;
+                }
+                if (result == SubtreeSearch.ABORTED) {
+                    return;
+                }
+
+                // Aucune solution n'a une longueur inférieure à la valeur renvoyée.
+                raiseLowerBound(result);
+                threshold = lowerBound;
+            }
+        }
+
+        /**
+         * Élève la borne inférieure prouvée de la longueur d'une solution optimale.
+         * La parité de la longueur de toute solution étant celle de l'heuristique sur la
+         * grille initiale, la borne est arrondie à cette parité.
+         *
+         * @param bound La nouvelle borne.
+         */
+        private void raiseLowerBound(int bound) {
+            if (((bound - root.h()) & 1) != 0) {
+                bound++;
+            }
+            lowerBound = Math.max(lowerBound, bound);
+            if (best != null) {
+                lowerBound = Math.min(lowerBound, best.length);
+            }
+        }
+
+        /**
+         * Vérifie si la meilleure solution trouvée est prouvée optimale.
+         *
+         * @return Si la meilleure solution trouvée est optimale.
+         */
+        private boolean isOptimal() {
+            return (best != null) && (lowerBound >= best.length);
+        }
+
+        /**
+         * Construit la solution renvoyée par la résolution.
+         *
+         * @return La meilleure solution trouvée.
+         */
+        private Solution solution() {
+            return new Solution(SearchSpace.toMoves(best), nbNodes,
+                    Duration.ofNanos(System.nanoTime() - start), lowerBound);
+        }
+
+    }
+
+}
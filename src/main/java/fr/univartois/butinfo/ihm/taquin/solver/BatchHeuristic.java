@@ -0,0 +1,169 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Arrays;
+
+/**
+ * La classe BatchHeuristic évalue la distance de Manhattan de tout un lot de grilles en
+ * un seul appel.
+ *
+ * Lorsque le module {@code jdk.incubator.vector} est disponible et que les vecteurs
+ * natifs sont assez larges pour contenir la table d'une position, l'évaluation est
+ * vectorisée.
+ * Sinon, une implémentation scalaire produisant exactement les mêmes valeurs est
+ * utilisée.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class BatchHeuristic {
+
+    /**
+     * Le nom du module fournissant l'API Vector.
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * La plus grande somme représentable sur un octet non signé.
+     */
+    private static final int MAX_VECTOR_SUM = 0xFF;
+
+    /**
+     * Les tables de distances, indexées par {@code [position][tuile]}.
+     */
+    private final byte[][] tables;
+
+    /**
+     * Le noyau vectorisé, ou {@code null} s'il ne peut pas être utilisé.
+     */
+    private final VectorManhattanKernel kernel;
+
+    /**
+     * Crée une nouvelle instance de BatchHeuristic.
+     *
+     * @param size La taille des grilles (en nombre de tuiles par côté).
+     */
+    public BatchHeuristic(int size) {
+        this(size, true);
+    }
+
+    /**
+     * Crée une nouvelle instance de BatchHeuristic.
+     *
+     * @param size La taille des grilles (en nombre de tuiles par côté).
+     * @param allowVector Si l'évaluation peut être vectorisée.
+     */
+    public BatchHeuristic(int size, boolean allowVector) {
+        this(size, size, allowVector);
+    }
+
+    /**
+     * Crée une nouvelle instance de BatchHeuristic pour des grilles rectangulaires.
+     *
+     * @param rows Le nombre de lignes des grilles.
+     * @param columns Le nombre de colonnes des grilles.
+     * @param allowVector Si l'évaluation peut être vectorisée.
+     */
+    public BatchHeuristic(int rows, int columns, boolean allowVector) {
+        ManhattanDistance distance = new ManhattanDistance(rows, columns);
+        int nbPositions = rows * columns;
+        int width = nbPositions;
+        boolean vector = allowVector && isVectorAvailable();
+        if (vector) {
+            width = Math.max(width, VectorManhattanKernel.lanes());
+        }
+
+        this.tables = new byte[nbPositions][width];
+        int maxSum = 0;
+        for (int position = 0; position < nbPositions; position++) {
+            int max = 0;
+            for (int tile = 1; tile < nbPositions; tile++) {
+                tables[position][tile] = (byte) distance.distance(tile, position);
+                max = Math.max(max, distance.distance(tile, position));
+            }
+            maxSum += max;
+        }
+
+        // Les tables doivent tenir dans un vecteur et les sommes dans un octet.
+        vector = vector && (width == VectorManhattanKernel.lanes())
+                && (maxSum <= MAX_VECTOR_SUM);
+        this.kernel = vector ? new VectorManhattanKernel(tables) : null;
+    }
+
+    /**
+     * Vérifie si l'API Vector est disponible dans la machine virtuelle courante.
+     *
+     * @return Si le module {@code jdk.incubator.vector} a été chargé.
+     */
+    private static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Vérifie si l'évaluation réalisée par cette instance est vectorisée.
+     *
+     * @return Si l'évaluation est vectorisée.
+     */
+    public boolean isVectorized() {
+        return kernel != null;
+    }
+
+    /**
+     * Évalue toutes les grilles du lot donné.
+     *
+     * @param batch Le lot de grilles à évaluer.
+     * @param scores Le tableau dans lequel écrire la valeur de chaque grille, de taille
+     *        au moins égale à celle du lot.
+     */
+    public void evaluate(BoardBatch batch, int[] scores) {
+        if (batch.nbPositions() != tables.length) {
+            throw new IllegalArgumentException("Le lot ne contient pas des grilles de "
+                    + tables.length + " tuiles");
+        }
+
+        if (kernel == null) {
+            evaluateScalar(batch, scores);
+        } else {
+            kernel.evaluate(batch, scores);
+        }
+    }
+
+    /**
+     * Évalue toutes les grilles du lot donné, sans vectorisation explicite.
+     *
+     * @param batch Le lot de grilles à évaluer.
+     * @param scores Le tableau dans lequel écrire la valeur de chaque grille.
+     */
+    private void evaluateScalar(BoardBatch batch, int[] scores) {
+        byte[] data = batch.data();
+        int capacity = batch.capacity();
+        int size = batch.size();
+        Arrays.fill(scores, 0, size, 0);
+
+        // Les grilles sont parcourues position par position, comme elles sont stockées.
+        for (int position = 0; position < tables.length; position++) {
+            byte[] table = tables[position];
+            int offset = position * capacity;
+            for (int board = 0; board < size; board++) {
+                scores[board] += table[data[offset + board] & 0xFF];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * La classe BfsResult représente le résultat d'un parcours en largeur complet de
+ * l'espace des grilles accessibles depuis une grille de départ.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class BfsResult {
+
+    /**
+     * Le nombre de grilles trouvées à chaque distance de la grille de départ.
+     */
+    private final long[] histogram;
+
+    /**
+     * Quelques-unes des grilles les plus éloignées de la grille de départ.
+     */
+    private final List<int[]> deepest;
+
+    /**
+     * Le temps nécessaire au parcours.
+     */
+    private final Duration elapsed;
+
+    /**
+     * Crée une nouvelle instance de BfsResult.
+     *
+     * @param histogram Le nombre de grilles trouvées à chaque distance.
+     * @param deepest Quelques-unes des grilles les plus éloignées.
+     * @param elapsed Le temps nécessaire au parcours.
+     */
+    public BfsResult(long[] histogram, List<int[]> deepest, Duration elapsed) {
+        this.histogram = histogram.clone();
+        this.deepest = List.copyOf(deepest);
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Donne la plus grande distance atteinte depuis la grille de départ.
+     *
+     * @return La distance maximale.
+     */
+    public int getMaxDepth() {
+        return histogram.length - 1;
+    }
+
+    /**
+     * Donne le nombre de grilles se trouvant à une distance donnée de la grille de
+     * départ.
+     *
+     * @param depth La distance considérée.
+     *
+     * @return Le nombre de grilles à cette distance.
+     */
+    public long getCount(int depth) {
+        if ((depth < 0) || (depth >= histogram.length)) {
+            return 0;
+        }
+        return histogram[depth];
+    }
+
+    /**
+     * Donne le nombre de grilles accessibles depuis la grille de départ.
+     *
+     * @return Le nombre de grilles accessibles (y compris la grille de départ).
+     */
+    public long getNbStates() {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Donne quelques-unes des grilles les plus éloignées de la grille de départ.
+     *
+     * @return La liste (non modifiable) de ces grilles.
+     */
+    public List<int[]> getDeepest() {
+        return deepest;
+    }
+
+    /**
+     * Donne le temps nécessaire au parcours.
+     *
+     * @return Le temps du parcours.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int depth = 0; depth < histogram.length; depth++) {
+            builder.append(String.format("%3d : %d%n", depth, histogram[depth]));
+        }
+        builder.append(getNbStates()).append(" grilles, distance maximale ")
+                .append(getMaxDepth()).append(" (").append(elapsed.toMillis())
+                .append(" ms)");
+        for (int[] tiles : deepest) {
+            builder.append(System.lineSeparator()).append(Boards.format(tiles));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,177 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+/**
+ * La classe BoardBatch représente un lot de grilles de même forme, stockées de manière
+ * compacte pour être évaluées ensemble.
+ *
+ * Chaque tuile occupe un octet (non signé), ce qui limite les grilles à 256 positions.
+ * Les grilles sont rangées position par position : les tuiles situées à une même
+ * position sur des grilles consécutives sont contiguës en mémoire, ce qui permet de les
+ * traiter en parallèle.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class BoardBatch {
+
+    /**
+     * L'alignement de la capacité d'un lot, suffisant pour les vecteurs les plus larges.
+     */
+    private static final int ALIGNMENT = 64;
+
+    /**
+     * Le nombre maximal de positions sur une grille, pour que chaque tuile tienne sur un
+     * octet.
+     */
+    static final int MAX_POSITIONS = 0x100;
+
+    /**
+     * Le nombre de positions sur chaque grille.
+     */
+    private final int nbPositions;
+
+    /**
+     * Le nombre maximal de grilles de ce lot.
+     */
+    private final int capacity;
+
+    /**
+     * Les tuiles des grilles, indexées par {@code position * capacity + grille}.
+     */
+    private final byte[] data;
+
+    /**
+     * Le nombre de grilles de ce lot.
+     */
+    private int size;
+
+    /**
+     * Crée une nouvelle instance de BoardBatch.
+     *
+     * @param boardSize La taille des grilles (en nombre de tuiles par côté).
+     * @param capacity Le nombre minimal de grilles que le lot doit pouvoir contenir.
+     */
+    public BoardBatch(int boardSize, int capacity) {
+        this(boardSize, boardSize, capacity);
+    }
+
+    /**
+     * Crée une nouvelle instance de BoardBatch pour des grilles rectangulaires.
+     *
+     * @param rows Le nombre de lignes des grilles.
+     * @param columns Le nombre de colonnes des grilles.
+     * @param capacity Le nombre minimal de grilles que le lot doit pouvoir contenir.
+     *
+     * @throws IllegalArgumentException Si les grilles ont plus de {@value #MAX_POSITIONS}
+     *         positions.
+     */
+    public BoardBatch(int rows, int columns, int capacity) {
+        if (rows * columns > MAX_POSITIONS) {
+            throw new IllegalArgumentException("Les grilles d'un lot ont au plus "
+                    + MAX_POSITIONS + " positions (" + rows + "x" + columns + ")");
+        }
+        this.nbPositions = rows * columns;
+        this.capacity = (capacity + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        this.data = new byte[nbPositions * this.capacity];
+    }
+
+    /**
+     * Ajoute une grille à ce lot.
+     *
+     * @param tiles Les tuiles de la grille à ajouter, ligne par ligne.
+     *
+     * @return L'indice de la grille dans ce lot.
+     *
+     * @throws IllegalArgumentException Si la grille n'a pas la forme de celles du lot.
+     * @throws IllegalStateException Si le lot est plein.
+     */
+    public int add(int[] tiles) {
+        if (tiles.length != nbPositions) {
+            throw new IllegalArgumentException("Une grille de " + nbPositions
+                    + " tuiles est attendue (" + tiles.length + " tuiles)");
+        }
+        if (size == capacity) {
+            throw new IllegalStateException("Le lot est plein (" + capacity + " grilles)");
+        }
+        for (int position = 0; position < nbPositions; position++) {
+            data[position * capacity + size] = (byte) tiles[position];
+        }
+        return size++;
+    }
+
+    /**
+     * Donne les tuiles d'une grille de ce lot.
+     *
+     * @param index L'indice de la grille dans ce lot.
+     *
+     * @return Les tuiles de la grille, ligne par ligne.
+     */
+    public int[] get(int index) {
+        int[] tiles = new int[nbPositions];
+        for (int position = 0; position < nbPositions; position++) {
+            tiles[position] = Byte.toUnsignedInt(data[position * capacity + index]);
+        }
+        return tiles;
+    }
+
+    /**
+     * Vide ce lot.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Donne le nombre de grilles de ce lot.
+     *
+     * @return Le nombre de grilles.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Donne le nombre de positions sur chaque grille.
+     *
+     * @return Le nombre de positions.
+     */
+    int nbPositions() {
+        return nbPositions;
+    }
+
+    /**
+     * Donne le nombre maximal de grilles de ce lot.
+     *
+     * @return La capacité du lot, multiple de la largeur des vecteurs.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Donne les tuiles des grilles de ce lot.
+     *
+     * @return Le tableau (partagé) des tuiles, rangées position par position.
+     */
+    byte[] data() {
+        return data;
+    }
+
+}
@@ -0,0 +1,405 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * La classe BoardReduction construit, sans aucune recherche globale, une solution (non
+ * optimale) pour une grille du Taquin.
+ *
+ * Les lignes du haut sont placées une à une, jusqu'à ce qu'il ne reste que deux lignes,
+ * dont les colonnes sont ensuite placées une à une de la gauche vers la droite.
+ * Chaque tuile est amenée à sa place par une recherche en largeur sur les positions de
+ * cette tuile et de la tuile vide, sans toucher aux tuiles déjà placées.
+ * Les deux dernières tuiles d'une ligne, ainsi que les deux tuiles d'une colonne, sont
+ * placées ensemble, par une recherche sur leurs positions et celle de la tuile vide,
+ * restreinte à une fenêtre autour de leurs cases.
+ *
+ * Le temps de construction est polynomial en le nombre de cases de la grille, quelle que
+ * soit la grille : cette classe fournit donc une solution lorsque les autres recherches
+ * n'ont pas le temps d'en trouver une.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class BoardReduction {
+
+    /**
+     * Le nombre de lignes de la grille.
+     */
+    private final int rows;
+
+    /**
+     * Le nombre de colonnes de la grille.
+     */
+    private final int columns;
+
+    /**
+     * La table des positions des tuiles poussées par chaque déplacement.
+     */
+    private final int[][] neighbours;
+
+    /**
+     * Les tuiles de la grille, au fur et à mesure de sa résolution.
+     */
+    private final int[] board;
+
+    /**
+     * Les cases contenant une tuile déjà placée, qui ne doit plus être déplacée.
+     */
+    private final boolean[] locked;
+
+    /**
+     * La position de la tuile vide.
+     */
+    private int blank;
+
+    /**
+     * Les indices des déplacements effectués.
+     */
+    private int[] moves = new int[64];
+
+    /**
+     * Le nombre de déplacements effectués.
+     */
+    private int nbMoves;
+
+    /**
+     * Crée une nouvelle instance de BoardReduction.
+     *
+     * @param space L'espace de recherche de la grille.
+     * @param tiles Les tuiles de la grille à résoudre.
+     */
+    private BoardReduction(SearchSpace space, int[] tiles) {
+        this.rows = space.rows();
+        this.columns = space.columns();
+        this.neighbours = space.neighbours();
+        this.board = tiles.clone();
+        this.locked = new boolean[tiles.length];
+        this.blank = Boards.indexOfEmpty(tiles);
+    }
+
+    /**
+     * Construit une solution pour la grille donnée, qui doit pouvoir être résolue.
+     *
+     * @param space L'espace de recherche de la grille.
+     * @param tiles Les tuiles de la grille à résoudre.
+     *
+     * @return Les indices des déplacements de la solution.
+     */
+    static int[] solve(SearchSpace space, int[] tiles) {
+        BoardReduction reduction = new BoardReduction(space, tiles);
+        reduction.run();
+        return Arrays.copyOf(reduction.moves, reduction.nbMoves);
+    }
+
+    /**
+     * Place toutes les tuiles de la grille.
+     */
+    private void run() {
+        // Les lignes du haut sont placées tant qu'il en reste plus de deux.
+        for (int r = 0; r < rows - 2; r++) {
+            for (int c = 0; c < columns - 2; c++) {
+                place(r * columns + c);
+            }
+            int first = r * columns + columns - 2;
+            int[] window = window(r, r + 2, columns - 3, columns - 1);
+            bringInto(first, first + 1, window);
+            placePair(first, first + 1, window, -1);
+        }
+
+        // Les colonnes des deux dernières lignes sont placées de la gauche vers la droite.
+        // Dans ces deux lignes, une tuile bloquée couperait la bande en deux : la fenêtre
+        // est donc élargie jusqu'aux tuiles à placer et à la tuile vide.
+        for (int c = 0; c < columns - 2; c++) {
+            int first = (rows - 2) * columns + c;
+            int right = c + 2;
+            for (int position : new int[] { indexOf(first + 1), indexOf(first + columns + 1),
+                    blank }) {
+                right = Math.max(right, position % columns);
+            }
+            placePair(first, first + columns, window(rows - 2, rows - 1, c, right), -1);
+        }
+
+        // Les trois dernières tuiles sont placées en faisant tourner le dernier carré.
+        int first = (rows - 2) * columns + columns - 2;
+        placePair(first, first + 1, window(rows - 2, rows - 1, columns - 2, columns - 1),
+                board.length - 1);
+    }
+
+    /**
+     * Amène à sa place la tuile devant se trouver sur la case donnée.
+     *
+     * @param target La case de la tuile à placer.
+     */
+    private void place(int target) {
+        int value = target + 1;
+        move(free(), new int[] { value }, p -> p[0] == target);
+        locked[target] = true;
+    }
+
+    /**
+     * Amène dans une fenêtre les deux dernières tuiles d'une ligne, ainsi que la tuile
+     * vide.
+     * La première tuile est bloquée dans le coin de la ligne le temps d'amener la seconde :
+     * ce coin étant aussi celui des cases libres, aucune case n'est alors isolée.
+     *
+     * @param first La case de la première tuile.
+     * @param second La case de la seconde tuile, dans le coin de la ligne.
+     * @param window Les cases de la fenêtre, qui doit contenir ce coin.
+     */
+    private void bringInto(int first, int second, int[] window) {
+        boolean[] inside = new boolean[board.length];
+        for (int cell : window) {
+            inside[cell] = true;
+        }
+        if (inside[indexOf(first + 1)] && inside[indexOf(second + 1)] && inside[blank]) {
+            return;
+        }
+
+        move(free(), new int[] { first + 1 }, p -> p[0] == second);
+        locked[second] = true;
+        move(free(), new int[] { second + 1 }, p -> inside[p[0]] && inside[p[1]]);
+        locked[second] = false;
+    }
+
+    /**
+     * Amène à leur place les deux tuiles devant se trouver sur les cases données, par
+     * une recherche restreinte à une fenêtre contenant déjà ces tuiles et la tuile vide.
+     *
+     * @param first La case de la première tuile à placer.
+     * @param second La case de la seconde tuile à placer.
+     * @param window Les cases de la fenêtre.
+     * @param empty La case sur laquelle doit se trouver la tuile vide à la fin, ou
+     *        {@code -1} si elle est indifférente.
+     */
+    private void placePair(int first, int second, int[] window, int empty) {
+        move(window, new int[] { first + 1, second + 1 },
+                p -> (p[0] == first) && (p[1] == second) && ((empty < 0) || (p[2] == empty)));
+        locked[first] = true;
+        locked[second] = true;
+    }
+
+    /**
+     * Déplace la tuile vide à l'intérieur des cases données jusqu'à atteindre une
+     * configuration voulue des tuiles suivies, en effectuant le moins de déplacements
+     * possible.
+     *
+     * @param cells Les cases dans lesquelles la tuile vide peut se déplacer.
+     * @param values Les valeurs des tuiles suivies (une ou deux), qui doivent se trouver,
+     *        comme la tuile vide, sur l'une de ces cases.
+     * @param goal Le test indiquant si une configuration est atteinte, appliqué aux
+     *        positions des tuiles suivies puis de la tuile vide.
+     *
+     * @throws IllegalStateException Si aucune configuration voulue n'est accessible.
+     */
+    private void move(int[] cells, int[] values, Predicate<int[]> goal) {
+        int nbCells = cells.length;
+        int[] local = new int[board.length];
+        Arrays.fill(local, -1);
+        for (int i = 0; i < nbCells; i++) {
+            local[cells[i]] = i;
+        }
+
+        // Un état est formé des positions (locales) des tuiles suivies et de la vide.
+        int nbBodies = values.length + 1;
+        int[] positions = new int[nbBodies];
+        for (int i = 0; i < values.length; i++) {
+            positions[i] = local[indexOf(values[i])];
+        }
+        positions[values.length] = local[blank];
+
+        int nbStates = 1;
+        for (int i = 0; i < nbBodies; i++) {
+            nbStates *= nbCells;
+        }
+        int[] previous = new int[nbStates];
+        Arrays.fill(previous, -1);
+        int[] queue = new int[nbStates];
+        int start = encode(positions, nbCells);
+        previous[start] = start;
+        queue[0] = start;
+
+        int[] global = new int[nbBodies];
+        for (int head = 0, tail = 1; head < tail; head++) {
+            int state = queue[head];
+            decode(state, nbCells, positions);
+            for (int i = 0; i < nbBodies; i++) {
+                global[i] = cells[positions[i]];
+            }
+            if (goal.test(global)) {
+                replay(cells, previous, state, nbCells);
+                return;
+            }
+
+            int hole = positions[values.length];
+            for (int next : neighbours[cells[hole]]) {
+                if ((next < 0) || (local[next] < 0)) {
+                    continue;
+                }
+                int[] child = positions.clone();
+                for (int i = 0; i < values.length; i++) {
+                    if (child[i] == local[next]) {
+                        child[i] = hole;
+                    }
+                }
+                child[values.length] = local[next];
+                int code = encode(child, nbCells);
+                if (previous[code] < 0) {
+                    previous[code] = state;
+                    queue[tail++] = code;
+                }
+            }
+        }
+        throw new IllegalStateException("Tuiles " + Arrays.toString(values) + " bloquées");
+    }
+
+    /**
+     * Effectue les déplacements menant à un état atteint par la recherche en largeur.
+     *
+     * @param cells Les cases de la recherche.
+     * @param previous L'état précédant chaque état atteint.
+     * @param state L'état à atteindre.
+     * @param nbCells Le nombre de cases de la recherche.
+     */
+    private void replay(int[] cells, int[] previous, int state, int nbCells) {
+        int length = 0;
+        for (int current = state; previous[current] != current; current = previous[current]) {
+            length++;
+        }
+
+        // La tuile vide est le dernier chiffre de chaque état.
+        int[] path = new int[length];
+        for (int current = state, i = length - 1; i >= 0; current = previous[current], i--) {
+            path[i] = cells[current % nbCells];
+        }
+        for (int position : path) {
+            moveBlank(position);
+        }
+    }
+
+    /**
+     * Déplace la tuile vide sur une case voisine.
+     *
+     * @param position La case voisine.
+     */
+    private void moveBlank(int position) {
+        int[] next = neighbours[blank];
+        int m = 0;
+        while (next[m] != position) {
+            m++;
+        }
+
+        board[blank] = board[position];
+        board[position] = 0;
+        blank = position;
+        if (nbMoves == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * nbMoves);
+        }
+        moves[nbMoves++] = m;
+    }
+
+    /**
+     * Donne les cases dont la tuile n'est pas encore placée.
+     *
+     * @return Les cases libres.
+     */
+    private int[] free() {
+        int[] cells = new int[board.length];
+        int nbCells = 0;
+        for (int i = 0; i < board.length; i++) {
+            if (!locked[i]) {
+                cells[nbCells++] = i;
+            }
+        }
+        return Arrays.copyOf(cells, nbCells);
+    }
+
+    /**
+     * Donne les cases libres d'un rectangle de la grille, dont les limites sont
+     * ramenées à l'intérieur de la grille.
+     *
+     * @param top La première ligne du rectangle.
+     * @param bottom La dernière ligne du rectangle.
+     * @param left La première colonne du rectangle.
+     * @param right La dernière colonne du rectangle.
+     *
+     * @return Les cases libres du rectangle.
+     */
+    private int[] window(int top, int bottom, int left, int right) {
+        int[] cells = new int[board.length];
+        int nbCells = 0;
+        for (int r = Math.max(0, top); r <= Math.min(rows - 1, bottom); r++) {
+            for (int c = Math.max(0, left); c <= Math.min(columns - 1, right); c++) {
+                if (!locked[r * columns + c]) {
+                    cells[nbCells++] = r * columns + c;
+                }
+            }
+        }
+        return Arrays.copyOf(cells, nbCells);
+    }
+
+    /**
+     * Donne la position d'une tuile.
+     *
+     * @param value La valeur de la tuile.
+     *
+     * @return La position de la tuile.
+     */
+    private int indexOf(int value) {
+        int i = 0;
+        while (board[i] != value) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Code un état de la recherche en largeur par un entier.
+     *
+     * @param positions Les positions (locales) des tuiles suivies puis de la tuile vide.
+     * @param nbCells Le nombre de cases de la recherche.
+     *
+     * @return Le code de l'état, dont la position de la tuile vide est le dernier chiffre.
+     */
+    private static int encode(int[] positions, int nbCells) {
+        int code = 0;
+        for (int position : positions) {
+            code = code * nbCells + position;
+        }
+        return code;
+    }
+
+    /**
+     * Décode un état de la recherche en largeur.
+     *
+     * @param code Le code de l'état.
+     * @param nbCells Le nombre de cases de la recherche.
+     * @param positions Le tableau dans lequel écrire les positions de l'état.
+     */
+    private static void decode(int code, int nbCells, int[] positions) {
+        for (int i = positions.length - 1; i >= 0; i--) {
+            positions[i] = code % nbCells;
+            code /= nbCells;
+        }
+    }
+
+}
@@ -0,0 +1,272 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import fr.univartois.butinfo.ihm.taquin.model.Layouts;
+
+/**
+ * La classe Boards fournit des méthodes utilitaires pour manipuler des grilles du
+ * Taquin représentées sous la forme de tableaux d'entiers.
+ *
+ * Dans cette représentation, les valeurs des tuiles sont stockées ligne par ligne, et
+ * la tuile vide est représentée par la valeur {@code 0}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class Boards {
+
+    /**
+     * Désactive l'instanciation de cette classe utilitaire.
+     */
+    private Boards() {
+        throw new AssertionError("Boards ne doit pas être instanciée");
+    }
+
+    /**
+     * Donne la grille ordonnée ayant la taille donnée.
+     *
+     * @param size La taille de la grille (en nombre de tuiles par côté).
+     *
+     * @return La grille ordonnée.
+     */
+    public static int[] goal(int size) {
+        return goal(size, size);
+    }
+
+    /**
+     * Donne la grille rectangulaire ordonnée ayant les dimensions données.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return La grille ordonnée.
+     */
+    public static int[] goal(int rows, int columns) {
+        int[] tiles = new int[rows * columns];
+        for (int i = 0; i < tiles.length - 1; i++) {
+            tiles[i] = i + 1;
+        }
+        return tiles;
+    }
+
+    /**
+     * Calcule la taille d'une grille carrée à partir de son nombre de tuiles.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return La taille de la grille (en nombre de tuiles par côté).
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas carrée.
+     */
+    public static int sizeOf(int[] tiles) {
+        int size = (int) Math.round(Math.sqrt(tiles.length));
+        if ((size < 2) || (size * size != tiles.length)) {
+            throw new IllegalArgumentException(
+                    "Une grille carrée est attendue (" + tiles.length + " tuiles)");
+        }
+        return size;
+    }
+
+    /**
+     * Vérifie que les tuiles données forment bien une permutation de {@code 0..n-1}.
+     * En cas d'erreur, seules la position et la valeur de la tuile fautive sont
+     * signalées, afin que le message reste lisible sur les grandes grilles.
+     *
+     * @param tiles Les tuiles à vérifier.
+     *
+     * @throws IllegalArgumentException Si une valeur est invalide ou répétée.
+     *
+     * @see Layouts#checkPermutation(int[])
+     */
+    public static void checkPermutation(int[] tiles) {
+        Layouts.checkPermutation(tiles);
+    }
+
+    /**
+     * Donne la position de la tuile vide dans la grille donnée.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return La position de la tuile vide, ou {@code -1} si elle est absente.
+     *
+     * @see Layouts#indexOfEmpty(int[])
+     */
+    public static int indexOfEmpty(int[] tiles) {
+        return Layouts.indexOfEmpty(tiles);
+    }
+
+    /**
+     * Compte le nombre d'inversions entre les tuiles (non vides) de la grille donnée.
+     *
+     * Le comptage utilise un arbre de Fenwick : la grille est parcourue de droite à
+     * gauche, et l'arbre donne pour chaque tuile le nombre de tuiles plus petites déjà
+     * rencontrées, ce qui prend un temps en {@code O(n log n)} pour {@code n} tuiles.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return Le nombre d'inversions de la grille.
+     *
+     * @see Layouts#countInversions(int[])
+     */
+    public static long countInversions(int[] tiles) {
+        return Layouts.countInversions(tiles);
+    }
+
+    /**
+     * Vérifie si la grille carrée donnée peut être remise dans l'ordre.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param size La taille de la grille (en nombre de tuiles par côté).
+     *
+     * @return Si la grille peut être résolue.
+     *
+     * @see #isSolvable(int[], int, int)
+     */
+    public static boolean isSolvable(int[] tiles, int size) {
+        return isSolvable(tiles, size, size);
+    }
+
+    /**
+     * Vérifie si la grille rectangulaire donnée peut être remise dans l'ordre.
+     *
+     * Sur une grille de largeur impaire, le nombre d'inversions doit être pair.
+     * Sur une grille de largeur paire, chaque déplacement vertical change à la fois la
+     * parité du nombre d'inversions et la ligne de la tuile vide : c'est donc la parité
+     * de leur somme qui est conservée.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return Si la grille peut être résolue.
+     *
+     * @see Layouts#isSolvable(int[], int, int)
+     */
+    public static boolean isSolvable(int[] tiles, int rows, int columns) {
+        return Layouts.isSolvable(tiles, rows, columns);
+    }
+
+    /**
+     * Vérifie que les tuiles données forment une grille carrée valide et pouvant être
+     * résolue.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param size La taille attendue de la grille (en nombre de tuiles par côté).
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         résolue.
+     */
+    public static void checkLayout(int[] tiles, int size) {
+        checkLayout(tiles, size, size);
+    }
+
+    /**
+     * Vérifie que les tuiles données forment une grille rectangulaire valide et pouvant
+     * être résolue.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param rows Le nombre de lignes attendu de la grille.
+     * @param columns Le nombre de colonnes attendu de la grille.
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         résolue.
+     *
+     * @see Layouts#checkLayout(int[], int, int)
+     */
+    public static void checkLayout(int[] tiles, int rows, int columns) {
+        Layouts.checkLayout(tiles, rows, columns);
+    }
+
+    /**
+     * Calcule, pour chaque position de la tuile vide et chaque déplacement, la position
+     * de la tuile qui est poussée.
+     *
+     * @param size La taille de la grille (en nombre de tuiles par côté).
+     *
+     * @return La table {@code [position][move.ordinal()]} des positions des tuiles
+     *         poussées, contenant {@code -1} lorsque le déplacement est impossible.
+     */
+    public static int[][] neighbours(int size) {
+        return neighbours(size, size);
+    }
+
+    /**
+     * Calcule, pour chaque position de la tuile vide et chaque déplacement, la position
+     * de la tuile qui est poussée sur une grille rectangulaire.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return La table {@code [position][move.ordinal()]} des positions des tuiles
+     *         poussées, contenant {@code -1} lorsque le déplacement est impossible.
+     *
+     * @see Layouts#neighbours(int, int)
+     */
+    public static int[][] neighbours(int rows, int columns) {
+        return Layouts.neighbours(rows, columns);
+    }
+
+    /**
+     * Lit une grille décrite par une liste de valeurs séparées par des espaces ou des
+     * virgules.
+     *
+     * @param text La description de la grille.
+     *
+     * @return Les tuiles de la grille.
+     *
+     * @throws IllegalArgumentException Si la description n'est pas valide.
+     */
+    public static int[] parse(String text) {
+        String trimmed = text.strip();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Grille vide");
+        }
+
+        String[] values = trimmed.split("[\\s,]+");
+        int[] tiles = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                tiles[i] = Integer.parseInt(values[i]);
+
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "Valeur invalide en position " + i + " : " + values[i], e);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Donne une représentation textuelle de la grille donnée, compatible avec
+     * {@link #parse(String)}.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return La représentation de la grille.
+     */
+    public static String format(int[] tiles) {
+        return Arrays.stream(tiles)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(" "));
+    }
+
+}
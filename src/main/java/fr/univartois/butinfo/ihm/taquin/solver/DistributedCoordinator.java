@@ -0,0 +1,815 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger.Level;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La classe DistributedCoordinator permet de résoudre de manière optimale une grille du
+ * Taquin en répartissant la recherche IDA* entre plusieurs {@link DistributedWorker},
+ * éventuellement exécutés sur d'autres machines.
+ *
+ * La grille est développée en une frontière dont chaque nœud constitue une unité de
+ * travail.
+ * Pour chaque seuil, les unités sont confiées aux travailleurs au fur et à mesure qu'ils
+ * en demandent.
+ * Lorsqu'il n'y a plus d'unité en attente, un travailleur inactif reçoit une copie d'une
+ * unité encore en cours chez un autre (le premier résultat l'emporte).
+ * Les unités d'un travailleur dont la connexion est perdue (ou qui ne donne plus signe de
+ * vie) sont remises en attente, et la longueur de la solution trouvée est diffusée à
+ * tous les travailleurs pour qu'ils abandonnent les unités devenues inutiles.
+ *
+ * Les messages destinés à chaque travailleur sont placés dans une file, vidée par un
+ * thread dédié : un travailleur lent ne bloque donc jamais les autres.
+ * Chaque résolution est identifiée, de sorte que les réponses tardives concernant une
+ * résolution précédente sont ignorées.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class DistributedCoordinator implements AutoCloseable {
+
+    /**
+     * Le journal dans lequel sont signalés les événements concernant les travailleurs.
+     */
+    private static final System.Logger LOGGER =
+            System.getLogger(DistributedCoordinator.class.getName());
+
+    /**
+     * Le nombre d'unités de travail visé par défaut.
+     */
+    static final int DEFAULT_NB_UNITS = 4096;
+
+    /**
+     * La profondeur maximale à laquelle la frontière est développée.
+     */
+    private static final int MAX_FRONTIER_DEPTH = 16;
+
+    /**
+     * Le message indiquant au thread d'écriture d'une connexion qu'il doit la fermer
+     * après avoir envoyé les messages précédents.
+     */
+    private static final byte[] END = new byte[0];
+
+    /**
+     * L'espace de recherche des grilles résolues.
+     */
+    private final SearchSpace space;
+
+    /**
+     * Le nombre d'unités de travail visé.
+     */
+    private final int nbUnits;
+
+    /**
+     * La socket sur laquelle les travailleurs se connectent.
+     */
+    private final ServerSocket server;
+
+    /**
+     * Le verrou protégeant l'état de la recherche.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Les connexions avec les travailleurs.
+     */
+    private final List<Connection> connections = new ArrayList<>();
+
+    /**
+     * Les indices des unités en attente d'être confiées à un travailleur.
+     */
+    private final Deque<Integer> pending = new ArrayDeque<>();
+
+    /**
+     * La durée sans message d'un travailleur au-delà de laquelle il est considéré comme
+     * perdu.
+     */
+    private volatile Duration timeout = DistributedProtocol.TIMEOUT;
+
+    /**
+     * L'identifiant de la dernière résolution lancée.
+     */
+    private int solveId;
+
+    /**
+     * Les unités de travail de la recherche en cours.
+     */
+    private List<FrontierNode> units = List.of();
+
+    /**
+     * Les indices des unités explorées pour le seuil courant.
+     */
+    private BitSet done = new BitSet();
+
+    /**
+     * Les indices des unités déjà confiées en double pour le seuil courant.
+     */
+    private BitSet duplicated = new BitSet();
+
+    /**
+     * Le nombre d'unités restant à explorer pour le seuil courant.
+     */
+    private int remaining;
+
+    /**
+     * Le seuil courant, ou {@code -1} si aucune recherche n'est en cours.
+     */
+    private int threshold = -1;
+
+    /**
+     * La meilleure borne connue pour le seuil suivant.
+     */
+    private int nextBound;
+
+    /**
+     * Les indices des déplacements de la solution, une fois trouvée.
+     */
+    private int[] found;
+
+    /**
+     * Le nombre de nœuds explorés par les travailleurs.
+     */
+    private long nbNodes;
+
+    /**
+     * Si ce coordinateur a été fermé.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Crée une nouvelle instance de DistributedCoordinator, et commence à accepter des
+     * travailleurs.
+     *
+     * @param size La taille des grilles à résoudre (en nombre de tuiles par côté).
+     * @param port Le port sur lequel écouter (ou {@code 0} pour un port quelconque).
+     *
+     * @throws IOException Si la socket ne peut pas être ouverte.
+     */
+    public DistributedCoordinator(int size, int port) throws IOException {
+        this(size, port, DEFAULT_NB_UNITS);
+    }
+
+    /**
+     * Crée une nouvelle instance de DistributedCoordinator, et commence à accepter des
+     * travailleurs.
+     *
+     * @param size La taille des grilles à résoudre (en nombre de tuiles par côté).
+     * @param port Le port sur lequel écouter (ou {@code 0} pour un port quelconque).
+     * @param nbUnits Le nombre d'unités de travail visé pour chaque seuil.
+     *
+     * @throws IOException Si la socket ne peut pas être ouverte.
+     */
+    public DistributedCoordinator(int size, int port, int nbUnits) throws IOException {
+        this(size, size, port, nbUnits);
+    }
+
+    /**
+     * Crée une nouvelle instance de DistributedCoordinator pour des grilles
+     * rectangulaires, et commence à accepter des travailleurs.
+     *
+     * @param rows Le nombre de lignes des grilles à résoudre.
+     * @param columns Le nombre de colonnes des grilles à résoudre.
+     * @param port Le port sur lequel écouter (ou {@code 0} pour un port quelconque).
+     * @param nbUnits Le nombre d'unités de travail visé pour chaque seuil.
+     *
+     * @throws IOException Si la socket ne peut pas être ouverte.
+     */
+    public DistributedCoordinator(int rows, int columns, int port, int nbUnits)
+            throws IOException {
+        this.space = new SearchSpace(rows, columns);
+        this.nbUnits = nbUnits;
+        this.server = new ServerSocket(port);
+        IdaStarSolver.daemonThreads("coordinator").newThread(this::acceptWorkers).start();
+    }
+
+    /**
+     * Modifie la durée sans message d'un travailleur au-delà de laquelle il est considéré
+     * comme perdu, et ses unités confiées à d'autres.
+     * Cette durée doit être nettement supérieure à
+     * {@link DistributedProtocol#HEARTBEAT_PERIOD}, et ne s'applique qu'aux travailleurs
+     * qui se connectent ensuite.
+     *
+     * @param timeout La durée sans message tolérée.
+     */
+    public void setTimeout(Duration timeout) {
+        if (timeout.compareTo(DistributedProtocol.HEARTBEAT_PERIOD) <= 0) {
+            throw new IllegalArgumentException("Délai trop court : " + timeout);
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Donne le port sur lequel les travailleurs peuvent se connecter.
+     *
+     * @return Le port d'écoute de ce coordinateur.
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Donne le nombre de travailleurs actuellement connectés.
+     *
+     * @return Le nombre de travailleurs.
+     */
+    public int getNbWorkers() {
+        synchronized (lock) {
+            return connections.size();
+        }
+    }
+
+    /**
+     * Résout la grille donnée en répartissant la recherche entre les travailleurs
+     * connectés.
+     * La recherche progresse dès qu'au moins un travailleur est connecté.
+     *
+     * @param tiles Les tuiles de la grille à résoudre, ligne par ligne.
+     *
+     * @return Une solution optimale pour la grille.
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         résolue.
+     * @throws InterruptedException Si la résolution a été interrompue.
+     */
+    public Solution solve(int[] tiles) throws InterruptedException {
+        space.checkLayout(tiles);
+        long start = System.nanoTime();
+        Frontier frontier = space.expand(tiles, nbUnits, MAX_FRONTIER_DEPTH);
+        if (frontier.solution() != null) {
+            return new Solution(SearchSpace.toMoves(frontier.solution()), 0,
+                    Duration.ofNanos(System.nanoTime() - start), true);
+        }
+
+        synchronized (lock) {
+            solveId++;
+            units = frontier.nodes();
+            found = null;
+            nbNodes = 0;
+            broadcast(DistributedProtocol.BOUND, Integer.MAX_VALUE);
+
+            try {
+                int bound = frontier.minF();
+                while (true) {
+                    startIteration(bound);
+                    while ((remaining > 0) && (found == null)) {
+                        lock.wait();
+                    }
+
+                    if (found != null) {
+                        broadcast(DistributedProtocol.BOUND, found.length);
+                        return new Solution(SearchSpace.toMoves(found), nbNodes,
+                                Duration.ofNanos(System.nanoTime() - start), true);
+                    }
+                    bound = nextBound;
+                }
+
+            } finally {
+                threshold = -1;
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Démarre une nouvelle itération de la recherche.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param newThreshold Le seuil de la nouvelle itération.
+     */
+    private void startIteration(int newThreshold) {
+        threshold = newThreshold;
+        done = new BitSet(units.size());
+        duplicated = new BitSet(units.size());
+        remaining = units.size();
+        nextBound = Integer.MAX_VALUE;
+        pending.clear();
+        for (int i = 0; i < units.size(); i++) {
+            pending.add(i);
+        }
+        dispatch();
+    }
+
+    /**
+     * Vérifie si une unité appartient à l'itération en cours de la résolution en cours.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param unit L'unité à vérifier.
+     *
+     * @return Si l'unité est toujours d'actualité.
+     */
+    private boolean isCurrent(Unit unit) {
+        return (unit.solve == solveId) && (unit.threshold == threshold);
+    }
+
+    /**
+     * Confie des unités de travail à tous les travailleurs pouvant en recevoir.
+     * Cette méthode doit être appelée en détenant le verrou.
+     */
+    private void dispatch() {
+        if ((threshold < 0) || (found != null)) {
+            return;
+        }
+
+        for (Connection connection : connections) {
+            while (connection.credits > 0) {
+                Integer index = pending.poll();
+                if (index == null) {
+                    index = steal(connection);
+                }
+                if (index == null) {
+                    break;
+                }
+                if (!done.get(index)) {
+                    send(connection, index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Choisit, pour un travailleur inactif, une unité encore en cours chez un autre
+     * travailleur.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param thief Le travailleur cherchant du travail.
+     *
+     * @return L'indice de l'unité choisie, ou {@code null} si aucune ne convient.
+     */
+    private Integer steal(Connection thief) {
+        if (thief.inFlight.stream().anyMatch(this::isCurrent)) {
+            // Seuls les travailleurs n'ayant plus rien à faire peuvent voler du travail.
+            return null;
+        }
+
+        for (Connection victim : connections) {
+            for (Unit unit : victim.inFlight) {
+                if (isCurrent(unit) && !done.get(unit.index) && !duplicated.get(unit.index)) {
+                    duplicated.set(unit.index);
+                    return unit.index;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Envoie une unité de travail à un travailleur.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param connection La connexion avec le travailleur.
+     * @param index L'indice de l'unité à envoyer.
+     */
+    private void send(Connection connection, int index) {
+        FrontierNode unit = units.get(index);
+        connection.credits--;
+        connection.inFlight.add(new Unit(solveId, threshold, index));
+
+        connection.enqueue(output -> {
+            output.writeByte(DistributedProtocol.WORK);
+            output.writeInt(solveId);
+            output.writeInt(index);
+            output.writeInt(threshold);
+            output.writeShort(space.columns());
+            DistributedProtocol.writeValues(output, unit.tiles());
+            DistributedProtocol.writeValues(output, unit.path());
+        });
+    }
+
+    /**
+     * Envoie un message à tous les travailleurs connectés.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param type Le type du message.
+     * @param value La valeur accompagnant le message, pour {@link DistributedProtocol#BOUND}.
+     */
+    private void broadcast(byte type, int value) {
+        for (Connection connection : connections) {
+            connection.enqueue(output -> {
+                output.writeByte(type);
+                if (type == DistributedProtocol.BOUND) {
+                    output.writeInt(solveId);
+                    output.writeInt(value);
+                }
+            });
+        }
+    }
+
+    /**
+     * Oublie un travailleur dont la connexion a été perdue, et remet ses unités en
+     * attente.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param connection La connexion perdue.
+     * @param cause La cause de la perte de connexion.
+     */
+    private void drop(Connection connection, IOException cause) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        connection.close();
+        connection.credits = 0;
+
+        if (!closed) {
+            LOGGER.log(Level.WARNING, "Travailleur perdu : " + connection.name
+                    + " (" + cause + ")");
+        }
+        for (Unit unit : connection.inFlight) {
+            if (isCurrent(unit) && !done.get(unit.index)) {
+                pending.addFirst(unit.index);
+            }
+        }
+        connection.inFlight.clear();
+        dispatch();
+    }
+
+    /**
+     * Accepte les connexions des travailleurs, jusqu'à la fermeture de ce coordinateur.
+     */
+    private void acceptWorkers() {
+        while (!closed) {
+            try {
+                Connection connection = new Connection(server.accept(), timeout);
+                synchronized (lock) {
+                    connections.add(connection);
+                }
+                IdaStarSolver.daemonThreads("coordinator-" + connection.name)
+                        .newThread(() -> serve(connection)).start();
+                IdaStarSolver.daemonThreads("coordinator-writer-" + connection.name)
+                        .newThread(() -> write(connection)).start();
+
+            } catch (IOException e) {
+                if (!closed) {
+                    LOGGER.log(Level.WARNING, "Connexion d'un travailleur impossible", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Envoie au travailleur les messages placés dans la file de sa connexion, ou un
+     * signe de vie lorsque cette file reste vide.
+     * Les écritures sont réalisées sans détenir le verrou.
+     *
+     * @param connection La connexion avec le travailleur.
+     */
+    private void write(Connection connection) {
+        long period = DistributedProtocol.HEARTBEAT_PERIOD.toMillis();
+        try {
+            while (true) {
+                byte[] message = connection.outbox.poll(period, TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    connection.output.writeByte(DistributedProtocol.HEARTBEAT);
+                } else if (message == END) {
+                    connection.output.flush();
+                    connection.close();
+                    return;
+                } else {
+                    connection.output.write(message);
+                }
+                if (connection.outbox.isEmpty()) {
+                    connection.output.flush();
+                }
+            }
+
+        } catch (IOException e) {
+            synchronized (lock) {
+                drop(connection, e);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Traite les messages envoyés par un travailleur.
+     *
+     * @param connection La connexion avec le travailleur.
+     */
+    private void serve(Connection connection) {
+        DataInputStream input = connection.input;
+        try {
+            while (true) {
+                byte type = input.readByte();
+                switch (type) {
+                    case DistributedProtocol.READY -> {
+                        int credits = input.readInt();
+                        synchronized (lock) {
+                            connection.credits += credits;
+                            dispatch();
+                        }
+                    }
+
+                    case DistributedProtocol.RESULT -> {
+                        Unit unit = readUnit(input);
+                        int bound = input.readInt();
+                        long nodes = input.readLong();
+                        synchronized (lock) {
+                            if (release(connection, unit, nodes) && !done.get(unit.index)) {
+                                nextBound = Math.min(nextBound, bound);
+                                done.set(unit.index);
+                                remaining--;
+                                if (remaining == 0) {
+                                    lock.notifyAll();
+                                }
+                            }
+                            dispatch();
+                        }
+                    }
+
+                    case DistributedProtocol.FOUND -> {
+                        Unit unit = readUnit(input);
+                        int[] path = DistributedProtocol.readValues(input);
+                        long nodes = input.readLong();
+                        synchronized (lock) {
+                            if (release(connection, unit, nodes) && (found == null)) {
+                                found = path;
+                                lock.notifyAll();
+                            }
+                        }
+                    }
+
+                    case DistributedProtocol.ABANDONED -> {
+                        Unit unit = readUnit(input);
+                        long nodes = input.readLong();
+                        synchronized (lock) {
+                            release(connection, unit, nodes);
+                            dispatch();
+                        }
+                    }
+
+                    case DistributedProtocol.HEARTBEAT -> {
+                        // Le travailleur est toujours actif : rien d'autre à faire.
+                    }
+
+                    default -> throw new IOException("Message inconnu : " + type);
+                }
+            }
+
+        } catch (IOException e) {
+            synchronized (lock) {
+                drop(connection, e);
+            }
+        }
+    }
+
+    /**
+     * Lit l'identification d'une unité dans la réponse d'un travailleur.
+     *
+     * @param input Le flux depuis lequel lire.
+     *
+     * @return L'unité lue.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture.
+     */
+    private static Unit readUnit(DataInputStream input) throws IOException {
+        int solve = input.readInt();
+        int index = input.readInt();
+        int unitThreshold = input.readInt();
+        return new Unit(solve, unitThreshold, index);
+    }
+
+    /**
+     * Enregistre la fin du traitement d'une unité par un travailleur.
+     * Cette méthode doit être appelée en détenant le verrou.
+     *
+     * @param connection La connexion avec le travailleur.
+     * @param unit L'unité traitée.
+     * @param nodes Le nombre de nœuds explorés pour cette unité.
+     *
+     * @return Si l'unité appartient à l'itération en cours de la résolution en cours, et
+     *         si son résultat doit donc être pris en compte.
+     */
+    private boolean release(Connection connection, Unit unit, long nodes) {
+        connection.inFlight.remove(unit);
+        connection.credits++;
+        if (unit.solve != solveId) {
+            return false;
+        }
+        nbNodes += nodes;
+        return unit.threshold == threshold;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        synchronized (lock) {
+            broadcast(DistributedProtocol.SHUTDOWN, 0);
+            for (Connection connection : connections) {
+                connection.outbox.add(END);
+            }
+            connections.clear();
+        }
+        server.close();
+    }
+
+    /**
+     * L'interface MessageWriter représente l'écriture du contenu d'un message.
+     */
+    @FunctionalInterface
+    private interface MessageWriter {
+
+        /**
+         * Écrit le contenu du message.
+         *
+         * @param output Le flux dans lequel écrire.
+         *
+         * @throws IOException Si une erreur se produit lors de l'écriture.
+         */
+        void write(DataOutputStream output) throws IOException;
+
+    }
+
+    /**
+     * La classe Unit identifie une unité de travail confiée à un travailleur.
+     */
+    private static final class Unit {
+
+        /**
+         * L'identifiant de la résolution à laquelle appartient l'unité.
+         */
+        private final int solve;
+
+        /**
+         * Le seuil pour lequel l'unité doit être explorée.
+         */
+        private final int threshold;
+
+        /**
+         * L'indice de l'unité dans la frontière.
+         */
+        private final int index;
+
+        /**
+         * Crée une nouvelle instance de Unit.
+         *
+         * @param solve L'identifiant de la résolution à laquelle appartient l'unité.
+         * @param threshold Le seuil pour lequel l'unité doit être explorée.
+         * @param index L'indice de l'unité dans la frontière.
+         */
+        private Unit(int solve, int threshold, int index) {
+            this.solve = solve;
+            this.threshold = threshold;
+            this.index = index;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Unit)) {
+                return false;
+            }
+            Unit other = (Unit) obj;
+            return (solve == other.solve) && (threshold == other.threshold)
+                    && (index == other.index);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(solve, threshold, index);
+        }
+
+    }
+
+    /**
+     * La classe Connection représente la connexion avec un travailleur.
+     */
+    private static final class Connection {
+
+        /**
+         * La socket connectée au travailleur.
+         */
+        private final Socket socket;
+
+        /**
+         * Le nom identifiant le travailleur.
+         */
+        private final String name;
+
+        /**
+         * Le flux permettant de lire les messages du travailleur.
+         */
+        private final DataInputStream input;
+
+        /**
+         * Le flux permettant d'envoyer des messages au travailleur, utilisé uniquement
+         * par le thread d'écriture de la connexion.
+         */
+        private final DataOutputStream output;
+
+        /**
+         * Les messages en attente d'être envoyés au travailleur.
+         */
+        private final BlockingQueue<byte[]> outbox = new LinkedBlockingQueue<>();
+
+        /**
+         * Les unités confiées au travailleur et pas encore traitées.
+         */
+        private final Set<Unit> inFlight = new LinkedHashSet<>();
+
+        /**
+         * Le nombre d'unités pouvant encore être confiées au travailleur.
+         */
+        private int credits;
+
+        /**
+         * Crée une nouvelle instance de Connection.
+         *
+         * @param socket La socket connectée au travailleur.
+         * @param timeout La durée sans message au-delà de laquelle la lecture échoue.
+         *
+         * @throws IOException Si les flux de la socket ne peuvent pas être ouverts.
+         */
+        private Connection(Socket socket, Duration timeout) throws IOException {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) timeout.toMillis());
+            this.socket = socket;
+            this.name = socket.getRemoteSocketAddress().toString();
+            this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Place un message dans la file des messages à envoyer au travailleur.
+         * Cette méthode ne bloque jamais.
+         *
+         * @param message L'écriture du contenu du message.
+         */
+        private void enqueue(MessageWriter message) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                message.write(new DataOutputStream(bytes));
+            } catch (IOException e) {
+                // L'écriture en mémoire ne peut pas échouer.
+                throw new UncheckedIOException(e);
+            }
+            outbox.add(bytes.toByteArray());
+        }
+
+        /**
+         * Ferme cette connexion.
+         */
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.DEBUG, "Fermeture impossible : " + name, e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * La classe DistributedProtocol définit les messages échangés entre un
+ * {@link DistributedCoordinator} et ses {@link DistributedWorker}.
+ *
+ * Chaque message commence par un octet donnant son type, suivi de son contenu :
+ * <ul>
+ * <li>{@link #READY} (travailleur) : nombre d'unités pouvant être traitées en même
+ * temps ;</li>
+ * <li>{@link #WORK} (coordinateur) : identifiant de la résolution, indice et seuil de
+ * l'unité, nombre de colonnes de la grille, tuiles et chemin du nœud de la frontière à
+ * explorer ;</li>
+ * <li>{@link #RESULT} (travailleur) : identifiant de la résolution, indice et seuil de
+ * l'unité, borne obtenue pour le seuil suivant et nombre de nœuds explorés ;</li>
+ * <li>{@link #FOUND} (travailleur) : identifiant de la résolution, indice et seuil de
+ * l'unité, déplacements de la solution et nombre de nœuds explorés ;</li>
+ * <li>{@link #ABANDONED} (travailleur) : identifiant de la résolution, indice et seuil
+ * d'une unité abandonnée, et nombre de nœuds explorés ;</li>
+ * <li>{@link #BOUND} (coordinateur) : identifiant de la résolution et longueur d'une
+ * solution connue, au-delà de laquelle il est inutile de chercher ;</li>
+ * <li>{@link #SHUTDOWN} (coordinateur) : fin du travail ;</li>
+ * <li>{@link #HEARTBEAT} (les deux) : signe de vie, sans contenu.</li>
+ * </ul>
+ *
+ * Chaque résolution lancée par un coordinateur reçoit un nouvel identifiant, plus grand
+ * que les précédents, que les travailleurs recopient dans leurs réponses : une réponse
+ * tardive concernant une résolution précédente est ainsi ignorée.
+ * Chaque extrémité envoie un signe de vie lorsqu'elle n'a rien envoyé depuis
+ * {@link #HEARTBEAT_PERIOD}, et considère la connexion comme perdue lorsqu'elle n'a rien
+ * reçu depuis {@link #TIMEOUT}, ce qui permet de détecter une machine arrêtée sans avoir
+ * fermé sa connexion.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class DistributedProtocol {
+
+    /**
+     * Le type du message annonçant qu'un travailleur est prêt.
+     */
+    static final byte READY = 1;
+
+    /**
+     * Le type du message confiant une unité de travail à un travailleur.
+     */
+    static final byte WORK = 2;
+
+    /**
+     * Le type du message rendant compte d'une unité explorée sans succès.
+     */
+    static final byte RESULT = 3;
+
+    /**
+     * Le type du message rendant compte d'une solution trouvée.
+     */
+    static final byte FOUND = 4;
+
+    /**
+     * Le type du message diffusant la meilleure borne connue.
+     */
+    static final byte BOUND = 5;
+
+    /**
+     * Le type du message demandant à un travailleur de s'arrêter.
+     */
+    static final byte SHUTDOWN = 6;
+
+    /**
+     * Le type du message rendant compte d'une unité abandonnée, devenue inutile.
+     */
+    static final byte ABANDONED = 7;
+
+    /**
+     * Le type du message indiquant que son expéditeur est toujours actif.
+     */
+    static final byte HEARTBEAT = 8;
+
+    /**
+     * La durée maximale sans envoi de message, au-delà de laquelle un signe de vie est
+     * envoyé.
+     */
+    static final Duration HEARTBEAT_PERIOD = Duration.ofMillis(500);
+
+    /**
+     * La durée par défaut sans réception de message au-delà de laquelle la connexion
+     * est considérée comme perdue.
+     */
+    static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Désactive l'instanciation de cette classe utilitaire.
+     */
+    private DistributedProtocol() {
+        throw new AssertionError("DistributedProtocol ne doit pas être instanciée");
+    }
+
+    /**
+     * Écrit une suite de petites valeurs (tuiles ou déplacements), précédée de sa
+     * longueur.
+     *
+     * @param output Le flux dans lequel écrire.
+     * @param values Les valeurs à écrire (entre 0 et 65535).
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    static void writeValues(DataOutputStream output, int[] values) throws IOException {
+        output.writeShort(values.length);
+        for (int value : values) {
+            output.writeShort(value);
+        }
+    }
+
+    /**
+     * Lit une suite de petites valeurs écrite par
+     * {@link #writeValues(DataOutputStream, int[])}.
+     *
+     * @param input Le flux depuis lequel lire.
+     *
+     * @return Les valeurs lues.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture.
+     */
+    static int[] readValues(DataInputStream input) throws IOException {
+        int[] values = new int[input.readUnsignedShort()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readUnsignedShort();
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,315 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La classe DistributedWorker représente un travailleur se connectant à un
+ * {@link DistributedCoordinator} pour explorer les unités de travail qu'il lui confie.
+ *
+ * Chaque unité est explorée par l'un des threads du travailleur.
+ * Le travailleur demande à recevoir un peu plus d'unités qu'il n'a de threads, afin de
+ * ne jamais attendre le coordinateur entre deux unités.
+ * Il envoie régulièrement un signe de vie au coordinateur, et s'arrête lorsque celui-ci
+ * n'en donne plus.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class DistributedWorker {
+
+    /**
+     * Le journal dans lequel sont signalées les erreurs de communication.
+     */
+    private static final System.Logger LOGGER =
+            System.getLogger(DistributedWorker.class.getName());
+
+    /**
+     * Le nombre d'unités demandées au coordinateur pour chaque thread.
+     */
+    private static final int UNITS_PER_THREAD = 2;
+
+    /**
+     * Le nom de la machine exécutant le coordinateur.
+     */
+    private final String host;
+
+    /**
+     * Le port d'écoute du coordinateur.
+     */
+    private final int port;
+
+    /**
+     * Le nombre de threads utilisés pour explorer les unités.
+     */
+    private final int nbThreads;
+
+    /**
+     * L'identifiant de la résolution la plus récente connue (dans les 32 bits de poids
+     * fort) et la longueur de la meilleure solution connue pour cette résolution (dans
+     * les 32 bits de poids faible), telles que diffusées par le coordinateur.
+     */
+    private volatile long bound = pack(0, Integer.MAX_VALUE);
+
+    /**
+     * L'espace de recherche des unités reçues.
+     */
+    private SearchSpace space;
+
+    /**
+     * Crée une nouvelle instance de DistributedWorker.
+     *
+     * @param host Le nom de la machine exécutant le coordinateur.
+     * @param port Le port d'écoute du coordinateur.
+     * @param nbThreads Le nombre de threads utilisés pour explorer les unités.
+     */
+    public DistributedWorker(String host, int port, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Au moins un thread est nécessaire");
+        }
+        this.host = host;
+        this.port = port;
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Se connecte au coordinateur et traite les unités qu'il confie, jusqu'à ce qu'il
+     * demande l'arrêt ou que la connexion soit fermée.
+     *
+     * @throws IOException Si la connexion avec le coordinateur ne peut pas être établie.
+     */
+    public void run() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                nbThreads, IdaStarSolver.daemonThreads("worker"));
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+                IdaStarSolver.daemonThreads("worker-heartbeat"));
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) DistributedProtocol.TIMEOUT.toMillis());
+            DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+
+            synchronized (output) {
+                output.writeByte(DistributedProtocol.READY);
+                output.writeInt(nbThreads * UNITS_PER_THREAD);
+                output.flush();
+            }
+            long period = DistributedProtocol.HEARTBEAT_PERIOD.toMillis();
+            heartbeat.scheduleAtFixedRate(() -> sendHeartbeat(output),
+                    period, period, TimeUnit.MILLISECONDS);
+
+            while (true) {
+                byte type = input.readByte();
+                switch (type) {
+                    case DistributedProtocol.WORK -> {
+                        int solve = input.readInt();
+                        int index = input.readInt();
+                        int threshold = input.readInt();
+                        int columns = input.readUnsignedShort();
+                        int[] tiles = DistributedProtocol.readValues(input);
+                        int[] path = DistributedProtocol.readValues(input);
+                        updateBound(solve, Integer.MAX_VALUE);
+                        SearchSpace unitSpace = spaceFor(tiles.length / columns, columns);
+                        executor.execute(() -> explore(
+                                output, unitSpace, solve, index, threshold, tiles, path));
+                    }
+
+                    case DistributedProtocol.BOUND -> {
+                        int solve = input.readInt();
+                        int length = input.readInt();
+                        updateBound(solve, length);
+                    }
+
+                    case DistributedProtocol.HEARTBEAT -> {
+                        // Le coordinateur est toujours actif : rien d'autre à faire.
+                    }
+
+                    case DistributedProtocol.SHUTDOWN -> {
+                        // Les unités en cours sont abandonnées avant de fermer la connexion.
+                        executor.shutdownNow();
+                        return;
+                    }
+
+                    default -> throw new IOException("Message inconnu : " + type);
+                }
+            }
+
+        } catch (EOFException e) {
+            // Le coordinateur a fermé la connexion.
+            LOGGER.log(Level.DEBUG, "Connexion fermée par le coordinateur", e);
+
+        } catch (SocketTimeoutException e) {
+            // Le coordinateur ne donne plus signe de vie.
+            LOGGER.log(Level.WARNING, "Coordinateur perdu", e);
+
+        } finally {
+            heartbeat.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Envoie un signe de vie au coordinateur.
+     *
+     * @param output Le flux permettant d'envoyer des messages au coordinateur.
+     */
+    private static void sendHeartbeat(DataOutputStream output) {
+        try {
+            synchronized (output) {
+                output.writeByte(DistributedProtocol.HEARTBEAT);
+                output.flush();
+            }
+
+        } catch (IOException e) {
+            LOGGER.log(Level.DEBUG, "Impossible d'envoyer un signe de vie", e);
+        }
+    }
+
+    /**
+     * Met à jour la borne diffusée par le coordinateur, à moins qu'elle ne concerne une
+     * résolution plus ancienne que la plus récente connue.
+     *
+     * @param solve L'identifiant de la résolution concernée.
+     * @param length La longueur de la meilleure solution connue pour cette résolution.
+     */
+    private synchronized void updateBound(int solve, int length) {
+        long current = bound;
+        int currentSolve = (int) (current >>> 32);
+        if (solve > currentSolve) {
+            bound = pack(solve, length);
+
+        } else if ((solve == currentSolve) && (length < (int) current)) {
+            bound = pack(solve, length);
+        }
+    }
+
+    /**
+     * Vérifie si une unité est devenue inutile, parce qu'elle appartient à une résolution
+     * plus ancienne que la plus récente connue, ou parce qu'une solution au plus aussi
+     * longue que son seuil est déjà connue.
+     *
+     * @param solve L'identifiant de la résolution à laquelle appartient l'unité.
+     * @param threshold Le seuil pour lequel l'unité est explorée.
+     *
+     * @return Si l'exploration de l'unité peut être abandonnée.
+     */
+    private boolean isUseless(int solve, int threshold) {
+        long current = bound;
+        int currentSolve = (int) (current >>> 32);
+        return (currentSolve > solve)
+                || ((currentSolve == solve) && (threshold >= (int) current));
+    }
+
+    /**
+     * Regroupe l'identifiant d'une résolution et une longueur de solution.
+     *
+     * @param solve L'identifiant de la résolution.
+     * @param length La longueur de la solution.
+     *
+     * @return La valeur regroupant les deux.
+     */
+    private static long pack(int solve, int length) {
+        return ((long) solve << 32) | (length & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Explore une unité de travail, et envoie le résultat au coordinateur.
+     *
+     * @param output Le flux permettant d'envoyer des messages au coordinateur.
+     * @param unitSpace L'espace de recherche de l'unité.
+     * @param solve L'identifiant de la résolution à laquelle appartient l'unité.
+     * @param index L'indice de l'unité.
+     * @param threshold Le seuil pour lequel l'unité doit être explorée.
+     * @param tiles Les tuiles de la grille de l'unité.
+     * @param path Les indices des déplacements menant à cette grille.
+     */
+    private void explore(DataOutputStream output, SearchSpace unitSpace, int solve,
+            int index, int threshold, int[] tiles, int[] path) {
+        SubtreeSearch search = new SubtreeSearch(unitSpace,
+                t -> isUseless(solve, t) || Thread.currentThread().isInterrupted());
+        int result = SubtreeSearch.ABORTED;
+        if (!isUseless(solve, threshold)) {
+            result = search.explore(unitSpace.node(tiles, path), threshold);
+        }
+
+        try {
+            synchronized (output) {
+                if (result == SubtreeSearch.FOUND) {
+                    output.writeByte(DistributedProtocol.FOUND);
+                    output.writeInt(solve);
+                    output.writeInt(index);
+                    output.writeInt(threshold);
+                    DistributedProtocol.writeValues(output, search.solution());
+
+                } else if (result == SubtreeSearch.ABORTED) {
+                    // Une solution au moins aussi bonne est déjà connue.
+                    output.writeByte(DistributedProtocol.ABANDONED);
+                    output.writeInt(solve);
+                    output.writeInt(index);
+                    output.writeInt(threshold);
+
+                } else {
+                    output.writeByte(DistributedProtocol.RESULT);
+                    output.writeInt(solve);
+                    output.writeInt(index);
+                    output.writeInt(threshold);
+                    output.writeInt(result);
+                }
+                output.writeLong(search.takeExplored());
+                output.flush();
+            }
+
+        } catch (IOException e) {
+            // Une fois le travailleur arrêté, le résultat n'a plus besoin d'être envoyé.
+            Level level = Thread.currentThread().isInterrupted() ? Level.DEBUG : Level.WARNING;
+            LOGGER.log(level, "Impossible d'envoyer le résultat au coordinateur", e);
+        }
+    }
+
+    /**
+     * Donne l'espace de recherche des grilles ayant la forme d'une grille reçue.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return L'espace de recherche des grilles de cette forme.
+     */
+    private SearchSpace spaceFor(int rows, int columns) {
+        if ((space == null) || (space.rows() != rows) || (space.columns() != columns)) {
+            space = new SearchSpace(rows, columns);
+        }
+        return space;
+    }
+
+}
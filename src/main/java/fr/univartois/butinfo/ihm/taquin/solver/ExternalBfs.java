@@ -0,0 +1,466 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * La classe ExternalBfs réalise un parcours en largeur complet de l'espace des grilles
+ * accessibles depuis une grille de départ, en conservant les niveaux du parcours sur
+ * le disque plutôt qu'en mémoire.
+ *
+ * Chaque niveau est stocké dans un fichier trié de grilles compactées (voir
+ * {@link PackedBoard}), ce qui limite la taille des grilles à 16 positions.
+ * Les successeurs d'un niveau sont générés par blocs tenant dans le budget mémoire,
+ * chaque bloc étant trié puis écrit dans un fichier temporaire.
+ * La détection des doublons est différée : ces fichiers sont ensuite fusionnés, en
+ * éliminant au passage les grilles répétées et celles appartenant aux deux niveaux
+ * précédents.
+ * Tous les fichiers sont lus et écrits séquentiellement, au travers de grands tampons.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class ExternalBfs {
+
+    /**
+     * Le nombre de grilles les plus éloignées conservées par défaut.
+     */
+    public static final int DEFAULT_NB_DEEPEST = 16;
+
+    /**
+     * Le budget mémoire minimal (en octets).
+     */
+    public static final long MIN_MEMORY_BUDGET = 8L << 20;
+
+    /**
+     * La taille maximale des tampons de lecture et d'écriture (en octets).
+     */
+    private static final int MAX_BUFFER_SIZE = 4 << 20;
+
+    /**
+     * La taille minimale des tampons de lecture et d'écriture (en octets).
+     */
+    private static final int MIN_BUFFER_SIZE = 64 << 10;
+
+    /**
+     * La capacité initiale du tableau dans lequel les successeurs sont triés.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    /**
+     * Le journal dans lequel est signalée la progression du parcours.
+     */
+    private static final System.Logger LOGGER = System.getLogger(ExternalBfs.class.getName());
+
+    /**
+     * Le nombre de positions des grilles parcourues.
+     */
+    private final int nbPositions;
+
+    /**
+     * La grille ordonnée.
+     */
+    private final int[] goal;
+
+    /**
+     * La table des positions des tuiles pouvant être poussées depuis chaque position.
+     */
+    private final int[][] neighbours;
+
+    /**
+     * Le répertoire dans lequel sont écrits les fichiers du parcours.
+     */
+    private final Path workDirectory;
+
+    /**
+     * Le budget mémoire (en octets), partagé entre le tri des successeurs et les
+     * tampons.
+     */
+    private final long memoryBudget;
+
+    /**
+     * Le nombre maximal de successeurs triés en mémoire à la fois.
+     */
+    private final int sortCapacity;
+
+    /**
+     * La taille des tampons du niveau lu et du fichier écrit lors du développement d'un
+     * niveau (en octets).
+     */
+    private final int streamBufferSize;
+
+    /**
+     * Le nombre maximal de fichiers fusionnés en une seule passe.
+     */
+    private final int maxFanIn;
+
+    /**
+     * Le nombre de grilles les plus éloignées à conserver.
+     */
+    private int nbDeepest = DEFAULT_NB_DEEPEST;
+
+    /**
+     * Les fichiers temporaires qui n'ont pas encore été supprimés.
+     */
+    private final List<Path> files = new ArrayList<>();
+
+    /**
+     * Crée une nouvelle instance de ExternalBfs.
+     *
+     * @param rows Le nombre de lignes des grilles à parcourir.
+     * @param columns Le nombre de colonnes des grilles à parcourir.
+     * @param workDirectory Le répertoire dans lequel sont écrits les fichiers du
+     *        parcours.
+     * @param memoryBudget Le budget mémoire (en octets).
+     *
+     * @throws IllegalArgumentException Si la forme des grilles ou le budget mémoire est
+     *         invalide.
+     */
+    public ExternalBfs(int rows, int columns, Path workDirectory, long memoryBudget) {
+        if ((rows < 2) || (columns < 2) || (rows * columns > PackedBoard.MAX_POSITIONS)) {
+            throw new IllegalArgumentException(
+                    "Forme de grille non supportée : " + rows + "x" + columns);
+        }
+        if (memoryBudget < MIN_MEMORY_BUDGET) {
+            throw new IllegalArgumentException("Le budget mémoire doit être d'au moins "
+                    + (MIN_MEMORY_BUDGET >> 20) + " Mo");
+        }
+
+        this.nbPositions = rows * columns;
+        this.goal = new int[nbPositions];
+        for (int i = 0; i < nbPositions - 1; i++) {
+            goal[i] = i + 1;
+        }
+        this.neighbours = Boards.neighbours(rows, columns);
+        this.workDirectory = workDirectory;
+        this.memoryBudget = memoryBudget;
+
+        // La moitié du budget sert au tri des successeurs, l'autre aux tampons.
+        // Le tableau de tri étant recopié lorsqu'il grandit, il ne peut occuper que les
+        // deux tiers de sa part du budget.
+        this.sortCapacity = (int) Math.min(Integer.MAX_VALUE - 8L,
+                (memoryBudget / 2) / Long.BYTES * 2 / 3);
+        this.streamBufferSize = (int) Math.max(MIN_BUFFER_SIZE,
+                Math.min(MAX_BUFFER_SIZE, (memoryBudget / 2) / 2));
+        this.maxFanIn = (int) Math.max(2, (memoryBudget / 2) / MIN_BUFFER_SIZE - 3);
+    }
+
+    /**
+     * Modifie le nombre de grilles les plus éloignées à conserver.
+     *
+     * @param nbDeepest Le nombre de grilles à conserver.
+     */
+    public void setNbDeepest(int nbDeepest) {
+        if (nbDeepest < 0) {
+            throw new IllegalArgumentException("Nombre de grilles invalide : " + nbDeepest);
+        }
+        this.nbDeepest = nbDeepest;
+    }
+
+    /**
+     * Parcourt l'espace des grilles accessibles depuis la grille ordonnée.
+     * Chaque grille est ainsi comptée à la distance de sa solution optimale.
+     *
+     * @return Le résultat du parcours.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture ou de l'écriture
+     *         des fichiers du parcours.
+     */
+    public BfsResult run() throws IOException {
+        return run(goal);
+    }
+
+    /**
+     * Parcourt l'espace des grilles accessibles depuis une grille donnée.
+     *
+     * @param start Les tuiles de la grille de départ.
+     *
+     * @return Le résultat du parcours.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture ou de l'écriture
+     *         des fichiers du parcours.
+     */
+    public BfsResult run(int[] start) throws IOException {
+        if (start.length != nbPositions) {
+            throw new IllegalArgumentException(
+                    nbPositions + " tuiles attendues (" + start.length + " données)");
+        }
+        Boards.checkPermutation(start);
+
+        long begin = System.nanoTime();
+        Files.createDirectories(workDirectory);
+        try {
+            long[] histogram = new long[PackedBoard.MAX_POSITIONS];
+            long[] sample = { PackedBoard.pack(start) };
+            int depth = 0;
+
+            Path previous = newFile("layer");
+            new StateFileWriter(previous, MIN_BUFFER_SIZE).close();
+            Path current = newFile("layer");
+            try (StateFileWriter writer = new StateFileWriter(current, MIN_BUFFER_SIZE)) {
+                writer.write(sample[0]);
+            }
+            histogram[0] = 1;
+
+            while (true) {
+                List<Path> runs = expand(current);
+                Path next = newFile("layer");
+                long[] nextSample = new long[nbDeepest];
+                long count = merge(runs, next, List.of(previous, current), nextSample);
+                delete(previous);
+                if (count == 0) {
+                    break;
+                }
+
+                depth++;
+                if (depth == histogram.length) {
+                    histogram = Arrays.copyOf(histogram, 2 * depth);
+                }
+                histogram[depth] = count;
+                sample = Arrays.copyOf(nextSample, (int) Math.min(count, nbDeepest));
+                LOGGER.log(Level.INFO, "Distance {0} : {1} grilles", depth, count);
+                previous = current;
+                current = next;
+            }
+
+            List<int[]> deepest = new ArrayList<>();
+            for (int i = 0; i < Math.min(sample.length, nbDeepest); i++) {
+                deepest.add(PackedBoard.unpack(sample[i], nbPositions));
+            }
+            return new BfsResult(Arrays.copyOf(histogram, depth + 1), deepest,
+                    Duration.ofNanos(System.nanoTime() - begin));
+
+        } finally {
+            for (Path file : new ArrayList<>(files)) {
+                delete(file);
+            }
+        }
+    }
+
+    /**
+     * Génère les successeurs des grilles d'un niveau, sous la forme de fichiers triés et
+     * sans doublons.
+     *
+     * @param layer Le fichier contenant le niveau à développer.
+     *
+     * @return Les fichiers contenant les successeurs.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture ou de l'écriture
+     *         des fichiers.
+     */
+    private List<Path> expand(Path layer) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        long[] buffer = new long[Math.min(INITIAL_CAPACITY, sortCapacity)];
+        int size = 0;
+
+        try (StateFileReader reader = new StateFileReader(layer, streamBufferSize)) {
+            while (reader.hasNext()) {
+                long state = reader.next();
+                int empty = PackedBoard.indexOfEmpty(state, nbPositions);
+                for (int position : neighbours[empty]) {
+                    if (position < 0) {
+                        continue;
+                    }
+                    if (size == buffer.length) {
+                        if (size < sortCapacity) {
+                            // Le tableau grandit jusqu'à atteindre le budget.
+                            buffer = Arrays.copyOf(buffer,
+                                    (int) Math.min(2L * size, sortCapacity));
+                        } else {
+                            runs.add(writeRun(buffer, size));
+                            size = 0;
+                        }
+                    }
+                    buffer[size++] = PackedBoard.push(state, empty, position);
+                }
+            }
+        }
+
+        if (size > 0) {
+            runs.add(writeRun(buffer, size));
+        }
+        return runs;
+    }
+
+    /**
+     * Trie des grilles, et les écrit sans doublons dans un nouveau fichier.
+     *
+     * @param buffer Le tableau contenant les grilles.
+     * @param size Le nombre de grilles dans le tableau.
+     *
+     * @return Le fichier dans lequel les grilles ont été écrites.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture du fichier.
+     */
+    private Path writeRun(long[] buffer, int size) throws IOException {
+        Arrays.sort(buffer, 0, size);
+        Path run = newFile("run");
+        try (StateFileWriter writer = new StateFileWriter(run, streamBufferSize)) {
+            for (int i = 0; i < size; i++) {
+                if ((i == 0) || (buffer[i] != buffer[i - 1])) {
+                    writer.write(buffer[i]);
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Fusionne des fichiers triés dans un nouveau fichier, en éliminant les doublons et
+     * les grilles apparaissant dans certains fichiers.
+     * Les fichiers fusionnés sont supprimés.
+     *
+     * @param runs Les fichiers triés à fusionner.
+     * @param target Le fichier dans lequel écrire le résultat de la fusion.
+     * @param excluded Les fichiers triés contenant les grilles à éliminer.
+     * @param sample Le tableau dans lequel recopier les premières grilles écrites.
+     *
+     * @return Le nombre de grilles écrites.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture ou de l'écriture
+     *         des fichiers.
+     */
+    private long merge(List<Path> runs, Path target, List<Path> excluded, long[] sample)
+            throws IOException {
+        List<Path> pending = new ArrayList<>(runs);
+        while (pending.size() > maxFanIn) {
+            // Trop de fichiers pour le budget : on en fusionne une partie au préalable.
+            List<Path> group = new ArrayList<>(pending.subList(0, maxFanIn));
+            pending.removeAll(group);
+            Path merged = newFile("run");
+            merge(group, merged, List.of(), new long[0]);
+            pending.add(merged);
+        }
+
+        int nbFiles = pending.size() + excluded.size() + 1;
+        int bufferSize = (int) Math.max(MIN_BUFFER_SIZE,
+                Math.min(MAX_BUFFER_SIZE, (memoryBudget / 2) / nbFiles));
+        List<StateFileReader> readers = new ArrayList<>();
+
+        try (StateFileWriter writer = new StateFileWriter(target, bufferSize)) {
+            PriorityQueue<StateFileReader> queue = new PriorityQueue<>(
+                    Math.max(1, pending.size()),
+                    Comparator.comparingLong(StateFileReader::peek));
+            for (Path run : pending) {
+                StateFileReader reader = new StateFileReader(run, bufferSize);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+            }
+            List<StateFileReader> exclusions = new ArrayList<>();
+            for (Path file : excluded) {
+                StateFileReader reader = new StateFileReader(file, bufferSize);
+                readers.add(reader);
+                exclusions.add(reader);
+            }
+
+            boolean first = true;
+            long last = 0;
+            while (!queue.isEmpty()) {
+                StateFileReader reader = queue.poll();
+                long state = reader.next();
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+                if (!first && (state == last)) {
+                    continue;
+                }
+                first = false;
+                last = state;
+                if (!containsAny(exclusions, state)) {
+                    if (writer.count() < sample.length) {
+                        sample[(int) writer.count()] = state;
+                    }
+                    writer.write(state);
+                }
+            }
+            return writer.count();
+
+        } finally {
+            for (StateFileReader reader : readers) {
+                reader.close();
+            }
+            for (Path run : pending) {
+                delete(run);
+            }
+        }
+    }
+
+    /**
+     * Vérifie si une grille apparaît dans l'un des fichiers triés donnés.
+     * Les grilles doivent être recherchées dans l'ordre croissant, les grilles
+     * inférieures étant consommées au passage.
+     *
+     * @param readers Les lecteurs des fichiers triés.
+     * @param state La grille recherchée.
+     *
+     * @return Si la grille apparaît dans l'un des fichiers.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture des fichiers.
+     */
+    private static boolean containsAny(List<StateFileReader> readers, long state)
+            throws IOException {
+        boolean found = false;
+        for (StateFileReader reader : readers) {
+            while (reader.hasNext() && (reader.peek() < state)) {
+                reader.next();
+            }
+            found |= reader.hasNext() && (reader.peek() == state);
+        }
+        return found;
+    }
+
+    /**
+     * Crée un nouveau fichier temporaire dans le répertoire de travail.
+     *
+     * @param prefix Le préfixe du nom du fichier.
+     *
+     * @return Le fichier créé.
+     *
+     * @throws IOException Si le fichier ne peut pas être créé.
+     */
+    private Path newFile(String prefix) throws IOException {
+        Path file = Files.createTempFile(workDirectory, prefix + "-", ".bin");
+        files.add(file);
+        return file;
+    }
+
+    /**
+     * Supprime un fichier temporaire.
+     *
+     * @param file Le fichier à supprimer.
+     *
+     * @throws IOException Si le fichier ne peut pas être supprimé.
+     */
+    private void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        files.remove(file);
+    }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.List;
+
+/**
+ * La classe Frontier représente le résultat du développement en largeur d'une grille :
+ * soit l'ensemble des nœuds d'une même profondeur, soit une solution si la grille
+ * ordonnée a été atteinte pendant le développement.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class Frontier {
+
+    /**
+     * Les nœuds de la frontière.
+     */
+    private final List<FrontierNode> nodes;
+
+    /**
+     * La profondeur des nœuds de la frontière.
+     */
+    private final int depth;
+
+    /**
+     * Les indices des déplacements de la solution trouvée, ou {@code null}.
+     */
+    private final int[] solution;
+
+    /**
+     * Crée une nouvelle instance de Frontier.
+     *
+     * @param nodes Les nœuds de la frontière.
+     * @param depth La profondeur des nœuds de la frontière.
+     * @param solution Les indices des déplacements de la solution trouvée, ou
+     *        {@code null}.
+     */
+    private Frontier(List<FrontierNode> nodes, int depth, int[] solution) {
+        this.nodes = nodes;
+        this.depth = depth;
+        this.solution = solution;
+    }
+
+    /**
+     * Crée une frontière constituée des nœuds donnés.
+     *
+     * @param nodes Les nœuds de la frontière.
+     * @param depth La profondeur des nœuds.
+     *
+     * @return La frontière créée.
+     */
+    static Frontier of(List<FrontierNode> nodes, int depth) {
+        return new Frontier(List.copyOf(nodes), depth, null);
+    }
+
+    /**
+     * Crée une frontière représentant une solution trouvée pendant le développement.
+     *
+     * @param solution Les indices des déplacements de la solution.
+     *
+     * @return La frontière créée.
+     */
+    static Frontier solved(int[] solution) {
+        return new Frontier(List.of(), solution.length, solution);
+    }
+
+    /**
+     * Donne les nœuds de la frontière.
+     *
+     * @return La liste (non modifiable) des nœuds.
+     */
+    List<FrontierNode> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Donne le nombre de nœuds de la frontière.
+     *
+     * @return La taille de la frontière.
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Donne la profondeur des nœuds de la frontière.
+     *
+     * @return La profondeur de la frontière.
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Donne la solution trouvée pendant le développement.
+     *
+     * @return Les indices des déplacements de la solution, ou {@code null}.
+     */
+    int[] solution() {
+        return solution;
+    }
+
+    /**
+     * Donne le seuil initial d'une recherche IDA* partant de cette frontière.
+     *
+     * @return La plus petite valeur estimée d'un nœud de la frontière.
+     */
+    int minF() {
+        int min = Integer.MAX_VALUE;
+        for (FrontierNode node : nodes) {
+            min = Math.min(min, node.f());
+        }
+        return min;
+    }
+
+}
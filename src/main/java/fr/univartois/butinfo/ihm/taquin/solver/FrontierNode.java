@@ -0,0 +1,127 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+/**
+ * La classe FrontierNode représente un nœud de la frontière d'une recherche, c'est-à-dire
+ * la racine d'un sous-arbre pouvant être exploré indépendamment des autres.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class FrontierNode {
+
+    /**
+     * Les tuiles de la grille associée à ce nœud.
+     */
+    private final int[] tiles;
+
+    /**
+     * La position de la tuile vide.
+     */
+    private final int empty;
+
+    /**
+     * La valeur de l'heuristique pour ce nœud.
+     */
+    private final int h;
+
+    /**
+     * Les indices des déplacements menant de la racine à ce nœud.
+     */
+    private final int[] path;
+
+    /**
+     * Crée une nouvelle instance de FrontierNode.
+     *
+     * @param tiles Les tuiles de la grille associée au nœud.
+     * @param empty La position de la tuile vide.
+     * @param h La valeur de l'heuristique pour le nœud.
+     * @param path Les indices des déplacements menant au nœud.
+     */
+    FrontierNode(int[] tiles, int empty, int h, int[] path) {
+        this.tiles = tiles;
+        this.empty = empty;
+        this.h = h;
+        this.path = path;
+    }
+
+    /**
+     * Donne les tuiles de la grille associée à ce nœud.
+     *
+     * @return Les tuiles (partagées) de la grille.
+     */
+    int[] tiles() {
+        return tiles;
+    }
+
+    /**
+     * Donne la position de la tuile vide.
+     *
+     * @return La position de la tuile vide.
+     */
+    int empty() {
+        return empty;
+    }
+
+    /**
+     * Donne la valeur de l'heuristique pour ce nœud.
+     *
+     * @return La valeur de l'heuristique.
+     */
+    int h() {
+        return h;
+    }
+
+    /**
+     * Donne les indices des déplacements menant de la racine à ce nœud.
+     *
+     * @return Les indices (partagés) des déplacements.
+     */
+    int[] path() {
+        return path;
+    }
+
+    /**
+     * Donne la profondeur de ce nœud.
+     *
+     * @return Le nombre de déplacements menant de la racine à ce nœud.
+     */
+    int depth() {
+        return path.length;
+    }
+
+    /**
+     * Donne l'indice du dernier déplacement ayant mené à ce nœud.
+     *
+     * @return L'indice du dernier déplacement, ou {@code -1} pour la racine.
+     */
+    int last() {
+        return (path.length == 0) ? -1 : path[path.length - 1];
+    }
+
+    /**
+     * Donne la valeur estimée de la meilleure solution passant par ce nœud.
+     *
+     * @return La somme de la profondeur du nœud et de son heuristique.
+     */
+    int f() {
+        return path.length + h;
+    }
+
+}
@@ -0,0 +1,561 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.univartois.butinfo.ihm.taquin.model.Grid;
+
+/**
+ * La classe IdaStarSolver permet de résoudre de manière optimale une grille du Taquin en
+ * utilisant l'algorithme IDA* guidé par la distance de Manhattan.
+ *
+ * La grille est d'abord développée en largeur jusqu'à obtenir une frontière de
+ * sous-arbres indépendants, qui sont ensuite explorés en parallèle pour chaque seuil.
+ * Avec un seul thread et sans point de reprise, la grille est explorée directement par
+ * le thread appelant, ce qui évite le coût de la frontière et des threads sur les
+ * petites grilles.
+ * Lorsqu'un fichier de reprise est configuré, l'état de la recherche y est écrit
+ * périodiquement par un thread dédié, sans jamais interrompre les threads de recherche,
+ * et une nouvelle résolution de la même grille reprend là où la précédente s'est
+ * arrêtée.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class IdaStarSolver {
+
+    /**
+     * Le journal dans lequel sont signalées les erreurs d'écriture des points de reprise.
+     */
+    private static final System.Logger LOGGER = System.getLogger(IdaStarSolver.class.getName());
+
+    /**
+     * Le nombre de sous-arbres de la frontière visé pour chaque thread de recherche.
+     */
+    private static final int SUBTREES_PER_THREAD = 64;
+
+    /**
+     * La profondeur maximale à laquelle la frontière est développée.
+     */
+    private static final int MAX_FRONTIER_DEPTH = 12;
+
+    /**
+     * L'espace de recherche des grilles résolues.
+     */
+    private final SearchSpace space;
+
+    /**
+     * Le nombre de threads utilisés pour la recherche.
+     */
+    private final int nbThreads;
+
+    /**
+     * Le fichier dans lequel les points de reprise sont écrits.
+     */
+    private Path checkpointFile;
+
+    /**
+     * La période d'écriture des points de reprise.
+     */
+    private Duration checkpointPeriod = Duration.ofMinutes(1);
+
+    /**
+     * Crée une nouvelle instance de IdaStarSolver utilisant tous les processeurs
+     * disponibles.
+     *
+     * @param size La taille des grilles à résoudre (en nombre de tuiles par côté).
+     */
+    public IdaStarSolver(int size) {
+        this(size, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crée une nouvelle instance de IdaStarSolver.
+     *
+     * @param size La taille des grilles à résoudre (en nombre de tuiles par côté).
+     * @param nbThreads Le nombre de threads utilisés pour la recherche.
+     */
+    public IdaStarSolver(int size, int nbThreads) {
+        this(size, size, nbThreads);
+    }
+
+    /**
+     * Crée une nouvelle instance de IdaStarSolver pour des grilles rectangulaires.
+     *
+     * @param rows Le nombre de lignes des grilles à résoudre.
+     * @param columns Le nombre de colonnes des grilles à résoudre.
+     * @param nbThreads Le nombre de threads utilisés pour la recherche.
+     */
+    public IdaStarSolver(int rows, int columns, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Au moins un thread est nécessaire");
+        }
+        this.space = new SearchSpace(rows, columns);
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Active l'écriture périodique de points de reprise dans le fichier donné.
+     * Si ce fichier contient déjà un point de reprise pour la grille à résoudre, la
+     * recherche reprend à partir de celui-ci.
+     *
+     * @param file Le fichier dans lequel écrire les points de reprise.
+     * @param period La période d'écriture des points de reprise.
+     */
+    public void setCheckpoint(Path file, Duration period) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Période de reprise invalide : " + period);
+        }
+        this.checkpointFile = file;
+        this.checkpointPeriod = period;
+    }
+
+    /**
+     * Résout la grille donnée, depuis son état actuel.
+     *
+     * @param grid La grille à résoudre.
+     *
+     * @return Une solution optimale pour la grille.
+     *
+     * @throws InterruptedException Si la résolution a été interrompue.
+     */
+    public Solution solve(Grid grid) throws InterruptedException {
+        return solve(grid.toArray());
+    }
+
+    /**
+     * Résout la grille donnée.
+     *
+     * @param tiles Les tuiles de la grille à résoudre, ligne par ligne.
+     *
+     * @return Une solution optimale pour la grille.
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         résolue.
+     * @throws InterruptedException Si la résolution a été interrompue.
+     */
+    public Solution solve(int[] tiles) throws InterruptedException {
+        space.checkLayout(tiles);
+        return new Search(tiles.clone()).run();
+    }
+
+    /**
+     * Crée une fabrique de threads démons.
+     *
+     * @param name Le préfixe du nom des threads créés.
+     *
+     * @return La fabrique de threads.
+     */
+    static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * La classe Iteration représente l'état partagé d'une itération de IDA*.
+     */
+    private static final class Iteration {
+
+        /**
+         * Le seuil de cette itération.
+         */
+        private final int threshold;
+
+        /**
+         * Indique, pour chaque sous-arbre de la frontière, s'il a été entièrement
+         * exploré.
+         */
+        private final AtomicIntegerArray completed;
+
+        /**
+         * La meilleure borne connue pour le seuil de l'itération suivante.
+         */
+        private final AtomicInteger nextBound;
+
+        /**
+         * L'indice du prochain sous-arbre à explorer.
+         */
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        /**
+         * Crée une nouvelle instance de Iteration.
+         *
+         * @param threshold Le seuil de l'itération.
+         * @param nbSubtrees Le nombre de sous-arbres de la frontière.
+         */
+        private Iteration(int threshold, int nbSubtrees) {
+            this.threshold = threshold;
+            this.completed = new AtomicIntegerArray(nbSubtrees);
+            this.nextBound = new AtomicInteger(Integer.MAX_VALUE);
+        }
+
+    }
+
+    /**
+     * La classe Search représente la résolution d'une grille particulière.
+     */
+    private final class Search {
+
+        /**
+         * Les tuiles de la grille à résoudre.
+         */
+        private final int[] root;
+
+        /**
+         * Le nombre de nœuds explorés.
+         */
+        private final LongAdder nbNodes = new LongAdder();
+
+        /**
+         * L'instant auquel la recherche a commencé.
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * La frontière de la recherche.
+         */
+        private Frontier frontier;
+
+        /**
+         * L'itération en cours.
+         */
+        private volatile Iteration current;
+
+        /**
+         * Les indices des déplacements de la solution, une fois trouvée.
+         */
+        private volatile int[] found;
+
+        /**
+         * Indique si la recherche a été abandonnée (par exemple, suite à une
+         * interruption), auquel cas les threads de recherche doivent s'arrêter.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Crée une nouvelle instance de Search.
+         *
+         * @param root Les tuiles de la grille à résoudre.
+         */
+        private Search(int[] root) {
+            this.root = root;
+        }
+
+        /**
+         * Exécute la recherche.
+         *
+         * @return La solution trouvée.
+         *
+         * @throws InterruptedException Si la recherche a été interrompue.
+         */
+        private Solution run() throws InterruptedException {
+            if ((nbThreads == 1) && (checkpointFile == null)) {
+                return runSequentially();
+            }
+
+            SearchCheckpoint checkpoint = loadCheckpoint();
+            if (checkpoint == null) {
+                frontier = space.expand(root, nbThreads * SUBTREES_PER_THREAD,
+                        MAX_FRONTIER_DEPTH);
+            } else {
+                frontier = space.expand(root, Integer.MAX_VALUE, checkpoint.getFrontierDepth());
+            }
+            if (frontier.solution() != null) {
+                found = frontier.solution();
+                return solution();
+            }
+
+            Iteration iteration = initialIteration(checkpoint);
+            ScheduledExecutorService checkpointer = startCheckpointer();
+            ExecutorService workers = Executors.newFixedThreadPool(
+                    nbThreads, daemonThreads("ida-star"));
+
+            try {
+                while (true) {
+                    current = iteration;
+                    runIteration(workers, iteration);
+                    if (found != null) {
+                        deleteCheckpoint();
+                        return solution();
+                    }
+
+                    // Tous les sous-arbres ont été explorés : on passe au seuil suivant.
+                    iteration = new Iteration(iteration.nextBound.get(), frontier.size());
+                    current = iteration;
+                    saveCheckpoint();
+                }
+
+            } finally {
+                cancelled = true;
+                workers.shutdownNow();
+                if (checkpointer != null) {
+                    checkpointer.shutdownNow();
+                }
+            }
+        }
+
+        /**
+         * Exécute la recherche dans le thread appelant, sans développer de frontière.
+         *
+         * @return La solution trouvée.
+         *
+         * @throws InterruptedException Si la recherche a été interrompue.
+         */
+        private Solution runSequentially() throws InterruptedException {
+            Thread caller = Thread.currentThread();
+            SubtreeSearch search = new SubtreeSearch(space, t -> caller.isInterrupted());
+            FrontierNode node = space.node(root, new int[0]);
+            int threshold = node.h();
+            while (true) {
+                int result = search.explore(node, threshold);
+                nbNodes.add(search.takeExplored());
+
+                if (result == SubtreeSearch.FOUND) {
+                    found = search.solution();
+                    return solution();
+                }
+                if (result == SubtreeSearch.ABORTED) {
+                    Thread.interrupted();
+                    throw new InterruptedException();
+                }
+                threshold = result;
+            }
+        }
+
+        /**
+         * Crée la première itération de la recherche.
+         *
+         * @param checkpoint Le point de reprise à partir duquel reprendre, ou
+         *        {@code null}.
+         *
+         * @return La première itération.
+         */
+        private Iteration initialIteration(SearchCheckpoint checkpoint) {
+            if (checkpoint == null) {
+                return new Iteration(frontier.minF(), frontier.size());
+            }
+
+            if (checkpoint.getFrontierSize() != frontier.size()) {
+                throw new IllegalStateException("Point de reprise incohérent : "
+                        + checkpointFile);
+            }
+            Iteration iteration = new Iteration(checkpoint.getThreshold(), frontier.size());
+            iteration.nextBound.set(checkpoint.getNextBound());
+            for (int i = 0; i < frontier.size(); i++) {
+                if (checkpoint.isCompleted(i)) {
+                    iteration.completed.set(i, 1);
+                }
+            }
+            nbNodes.add(checkpoint.getNbNodes());
+            return iteration;
+        }
+
+        /**
+         * Explore en parallèle tous les sous-arbres de la frontière pour une itération.
+         *
+         * @param workers Les threads de recherche.
+         * @param iteration L'itération à exécuter.
+         *
+         * @throws InterruptedException Si la recherche a été interrompue.
+         */
+        private void runIteration(ExecutorService workers, Iteration iteration)
+                throws InterruptedException {
+            List<Callable<Void>> tasks = new ArrayList<>(nbThreads);
+            for (int i = 0; i < nbThreads; i++) {
+                tasks.add(() -> {
+                    explore(iteration);
+                    return null;
+                });
+            }
+
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Échec de la recherche", e.getCause());
+                }
+            }
+        }
+
+        /**
+         * Explore les sous-arbres de la frontière restant à explorer pour l'itération
+         * donnée.
+         * Cette méthode est exécutée par chacun des threads de recherche.
+         *
+         * @param iteration L'itération en cours.
+         */
+        private void explore(Iteration iteration) {
+            SubtreeSearch search = new SubtreeSearch(space, t -> isStopped());
+            List<FrontierNode> nodes = frontier.nodes();
+            int index;
+            while (!isStopped()
+                    && ((index = iteration.cursor.getAndIncrement()) < nodes.size())) {
+                if (iteration.completed.get(index) != 0) {
+                    continue;
+                }
+
+                int result = search.explore(nodes.get(index), iteration.threshold);
+                nbNodes.add(search.takeExplored());
+
+                if (result == SubtreeSearch.FOUND) {
+                    found = search.solution();
+                    return;
+                }
+                if (result == SubtreeSearch.ABORTED) {
+                    return;
+                }
+
+                // La borne doit être publiée avant que le sous-arbre soit marqué.
+                iteration.nextBound.accumulateAndGet(result, Math::min);
+                iteration.completed.set(index, 1);
+            }
+        }
+
+        /**
+         * Vérifie si les threads de recherche doivent s'arrêter, soit parce qu'une
+         * solution a été trouvée, soit parce que la recherche a été abandonnée ou que le
+         * thread courant a été interrompu.
+         *
+         * @return Si l'exploration doit s'arrêter.
+         */
+        private boolean isStopped() {
+            return (found != null) || cancelled || Thread.currentThread().isInterrupted();
+        }
+
+        /**
+         * Construit la solution à partir des déplacements trouvés.
+         *
+         * @return La solution trouvée.
+         */
+        private Solution solution() {
+            return new Solution(SearchSpace.toMoves(found), nbNodes.sum(),
+                    Duration.ofNanos(System.nanoTime() - start), true);
+        }
+
+        /**
+         * Démarre l'écriture périodique des points de reprise, si elle a été configurée.
+         *
+         * @return Le service chargé de l'écriture, ou {@code null}.
+         */
+        private ScheduledExecutorService startCheckpointer() {
+            if (checkpointFile == null) {
+                return null;
+            }
+            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(
+                    daemonThreads("ida-star-checkpoint"));
+            long period = checkpointPeriod.toMillis();
+            service.scheduleWithFixedDelay(this::saveCheckpoint, period, period,
+                    TimeUnit.MILLISECONDS);
+            return service;
+        }
+
+        /**
+         * Lit le point de reprise de la grille en cours de résolution, s'il existe.
+         *
+         * @return Le point de reprise lu, ou {@code null}.
+         */
+        private SearchCheckpoint loadCheckpoint() {
+            if ((checkpointFile == null) || !Files.exists(checkpointFile)) {
+                return null;
+            }
+
+            try {
+                SearchCheckpoint checkpoint = SearchCheckpoint.read(checkpointFile);
+                if (!checkpoint.isFor(root, space.rows(), space.columns())) {
+                    throw new IllegalArgumentException(
+                            "Le point de reprise concerne une autre grille : " + checkpointFile);
+                }
+                return checkpoint;
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Écrit un point de reprise correspondant à l'état actuel de la recherche.
+         * Cette méthode ne fait que lire l'état partagé : les threads de recherche ne
+         * sont jamais bloqués pendant l'écriture.
+         */
+        private synchronized void saveCheckpoint() {
+            Iteration iteration = current;
+            if ((checkpointFile == null) || (iteration == null) || (found != null)) {
+                return;
+            }
+
+            // Les sous-arbres sont lus avant la borne : un sous-arbre marqué comme exploré
+            // a toujours déjà contribué à cette borne.
+            BitSet completed = new BitSet(frontier.size());
+            for (int i = 0; i < frontier.size(); i++) {
+                if (iteration.completed.get(i) != 0) {
+                    completed.set(i);
+                }
+            }
+            SearchCheckpoint checkpoint = new SearchCheckpoint(space.rows(), space.columns(),
+                    root, frontier.depth(), frontier.size(), iteration.threshold,
+                    iteration.nextBound.get(), completed, nbNodes.sum());
+
+            try {
+                checkpoint.write(checkpointFile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Impossible d'écrire le point de reprise", e);
+            }
+        }
+
+        /**
+         * Supprime le point de reprise une fois la recherche terminée.
+         */
+        private synchronized void deleteCheckpoint() {
+            if (checkpointFile == null) {
+                return;
+            }
+
+            try {
+                Files.deleteIfExists(checkpointFile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Impossible de supprimer le point de reprise", e);
+            }
+        }
+
+    }
+
+}
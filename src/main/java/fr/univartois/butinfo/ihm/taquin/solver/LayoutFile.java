@@ -0,0 +1,180 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * La classe LayoutFile permet de lire et de valider en masse des dispositions de grilles
+ * du Taquin stockées dans un fichier texte.
+ *
+ * Chaque ligne non vide du fichier décrit une disposition (valeurs séparées par des
+ * espaces ou des virgules, la tuile vide valant {@code 0}).
+ * Les lignes commençant par {@code #} sont ignorées.
+ * Les lignes sont validées en parallèle, et une disposition invalide est simplement
+ * signalée dans son rapport, sans interrompre la validation des autres lignes.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class LayoutFile {
+
+    /**
+     * Le préfixe des lignes de commentaires.
+     */
+    private static final String COMMENT = "#";
+
+    /**
+     * Désactive l'instanciation de cette classe utilitaire.
+     */
+    private LayoutFile() {
+        throw new AssertionError("LayoutFile ne doit pas être instanciée");
+    }
+
+    /**
+     * Lit et valide toutes les dispositions du fichier donné.
+     *
+     * @param file Le fichier à lire.
+     * @param size La taille attendue des grilles (en nombre de tuiles par côté).
+     *
+     * @return Les rapports de validation, dans l'ordre des lignes du fichier.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier.
+     */
+    public static List<LayoutReport> validate(Path file, int size) throws IOException {
+        return validate(file, size, size);
+    }
+
+    /**
+     * Lit et valide toutes les dispositions rectangulaires du fichier donné.
+     *
+     * @param file Le fichier à lire.
+     * @param rows Le nombre de lignes attendu des grilles.
+     * @param columns Le nombre de colonnes attendu des grilles.
+     *
+     * @return Les rapports de validation, dans l'ordre des lignes du fichier.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier.
+     */
+    public static List<LayoutReport> validate(Path file, int rows, int columns)
+            throws IOException {
+        return validate(Files.readAllLines(file), rows, columns);
+    }
+
+    /**
+     * Valide toutes les dispositions données.
+     *
+     * @param lines Les lignes décrivant les dispositions.
+     * @param size La taille attendue des grilles (en nombre de tuiles par côté).
+     *
+     * @return Les rapports de validation, dans l'ordre des lignes.
+     */
+    public static List<LayoutReport> validate(List<String> lines, int size) {
+        return validate(lines, size, size);
+    }
+
+    /**
+     * Valide toutes les dispositions rectangulaires données.
+     *
+     * @param lines Les lignes décrivant les dispositions.
+     * @param rows Le nombre de lignes attendu des grilles.
+     * @param columns Le nombre de colonnes attendu des grilles.
+     *
+     * @return Les rapports de validation, dans l'ordre des lignes.
+     */
+    public static List<LayoutReport> validate(List<String> lines, int rows, int columns) {
+        return IntStream.range(0, lines.size())
+                .parallel()
+                .filter(i -> !isIgnored(lines.get(i)))
+                .mapToObj(i -> validateLine(i + 1, lines.get(i), rows, columns))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lit toutes les dispositions valides du fichier donné, en ignorant les autres.
+     *
+     * @param file Le fichier à lire.
+     * @param size La taille attendue des grilles (en nombre de tuiles par côté).
+     *
+     * @return Les tuiles des dispositions valides, dans l'ordre du fichier.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier.
+     */
+    public static List<int[]> load(Path file, int size) throws IOException {
+        return load(file, size, size);
+    }
+
+    /**
+     * Lit toutes les dispositions rectangulaires valides du fichier donné, en ignorant
+     * les autres.
+     *
+     * @param file Le fichier à lire.
+     * @param rows Le nombre de lignes attendu des grilles.
+     * @param columns Le nombre de colonnes attendu des grilles.
+     *
+     * @return Les tuiles des dispositions valides, dans l'ordre du fichier.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier.
+     */
+    public static List<int[]> load(Path file, int rows, int columns) throws IOException {
+        return validate(file, rows, columns).stream()
+                .filter(LayoutReport::isValid)
+                .map(LayoutReport::getTiles)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Vérifie si une ligne doit être ignorée.
+     *
+     * @param line La ligne à vérifier.
+     *
+     * @return Si la ligne est vide ou est un commentaire.
+     */
+    private static boolean isIgnored(String line) {
+        String trimmed = line.strip();
+        return trimmed.isEmpty() || trimmed.startsWith(COMMENT);
+    }
+
+    /**
+     * Valide la disposition décrite par une ligne.
+     *
+     * @param lineNumber Le numéro de la ligne.
+     * @param line La ligne à valider.
+     * @param rows Le nombre de lignes attendu de la grille.
+     * @param columns Le nombre de colonnes attendu de la grille.
+     *
+     * @return Le rapport de validation de la ligne.
+     */
+    private static LayoutReport validateLine(int lineNumber, String line, int rows,
+            int columns) {
+        try {
+            int[] tiles = Boards.parse(line);
+            Boards.checkLayout(tiles, rows, columns);
+            return LayoutReport.valid(lineNumber, tiles);
+
+        } catch (IllegalArgumentException e) {
+            return LayoutReport.invalid(lineNumber, e.getMessage());
+        }
+    }
+
+}
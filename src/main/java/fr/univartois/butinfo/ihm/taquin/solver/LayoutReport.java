@@ -0,0 +1,127 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+/**
+ * La classe LayoutReport représente le résultat de la validation d'une disposition lue
+ * sur une ligne d'un fichier de grilles.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class LayoutReport {
+
+    /**
+     * Le numéro de la ligne sur laquelle la disposition a été lue.
+     */
+    private final int lineNumber;
+
+    /**
+     * Les tuiles de la disposition, si elle est valide.
+     */
+    private final int[] tiles;
+
+    /**
+     * La raison pour laquelle la disposition est invalide, le cas échéant.
+     */
+    private final String error;
+
+    /**
+     * Crée une nouvelle instance de LayoutReport.
+     *
+     * @param lineNumber Le numéro de la ligne lue.
+     * @param tiles Les tuiles de la disposition, ou {@code null} si elle est invalide.
+     * @param error La raison de l'invalidité, ou {@code null} si elle est valide.
+     */
+    private LayoutReport(int lineNumber, int[] tiles, String error) {
+        this.lineNumber = lineNumber;
+        this.tiles = tiles;
+        this.error = error;
+    }
+
+    /**
+     * Crée le rapport d'une disposition valide.
+     *
+     * @param lineNumber Le numéro de la ligne lue.
+     * @param tiles Les tuiles de la disposition.
+     *
+     * @return Le rapport créé.
+     */
+    public static LayoutReport valid(int lineNumber, int[] tiles) {
+        return new LayoutReport(lineNumber, tiles, null);
+    }
+
+    /**
+     * Crée le rapport d'une disposition invalide.
+     *
+     * @param lineNumber Le numéro de la ligne lue.
+     * @param error La raison pour laquelle la disposition est invalide.
+     *
+     * @return Le rapport créé.
+     */
+    public static LayoutReport invalid(int lineNumber, String error) {
+        return new LayoutReport(lineNumber, null, error);
+    }
+
+    /**
+     * Donne le numéro de la ligne sur laquelle la disposition a été lue.
+     *
+     * @return Le numéro de ligne (à partir de 1).
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Vérifie si la disposition lue est valide.
+     *
+     * @return Si la disposition est valide.
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Donne les tuiles de la disposition lue.
+     *
+     * @return Les tuiles de la disposition, ou {@code null} si elle est invalide.
+     */
+    public int[] getTiles() {
+        return (tiles == null) ? null : tiles.clone();
+    }
+
+    /**
+     * Donne la raison pour laquelle la disposition est invalide.
+     *
+     * @return La raison de l'invalidité, ou {@code null} si la disposition est valide.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ligne " + lineNumber + " : " + (isValid() ? Boards.format(tiles) : error);
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+/**
+ * La classe ManhattanDistance calcule la somme des distances de Manhattan des tuiles
+ * d'une grille à leur position finale.
+ * Cette heuristique est admissible, et peut être mise à jour de manière incrémentale
+ * lors d'un déplacement.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class ManhattanDistance {
+
+    /**
+     * Le nombre de positions sur la grille.
+     */
+    private final int nbPositions;
+
+    /**
+     * La table des distances, indexée par {@code tile * nbPositions + position}.
+     */
+    private final int[] table;
+
+    /**
+     * Crée une nouvelle instance de ManhattanDistance.
+     *
+     * @param size La taille de la grille (en nombre de tuiles par côté).
+     */
+    public ManhattanDistance(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Crée une nouvelle instance de ManhattanDistance pour une grille rectangulaire.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     */
+    public ManhattanDistance(int rows, int columns) {
+        this.nbPositions = rows * columns;
+        this.table = new int[nbPositions * nbPositions];
+        for (int tile = 1; tile < nbPositions; tile++) {
+            int goalRow = (tile - 1) / columns;
+            int goalColumn = (tile - 1) % columns;
+            for (int position = 0; position < nbPositions; position++) {
+                table[tile * nbPositions + position] = Math.abs(position / columns - goalRow)
+                        + Math.abs(position % columns - goalColumn);
+            }
+        }
+    }
+
+    /**
+     * Donne la distance d'une tuile à sa position finale.
+     *
+     * @param tile La valeur de la tuile.
+     * @param position La position actuelle de la tuile.
+     *
+     * @return La distance de la tuile à sa position finale.
+     */
+    public int distance(int tile, int position) {
+        return table[tile * nbPositions + position];
+    }
+
+    /**
+     * Évalue la grille donnée.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return La somme des distances de Manhattan des tuiles de la grille.
+     */
+    public int evaluate(int[] tiles) {
+        int sum = 0;
+        for (int position = 0; position < tiles.length; position++) {
+            sum += table[tiles[position] * nbPositions + position];
+        }
+        return sum;
+    }
+
+}
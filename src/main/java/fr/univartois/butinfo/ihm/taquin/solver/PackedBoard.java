@@ -0,0 +1,137 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+/**
+ * La classe PackedBoard permet de représenter une grille d'au plus 16 positions sous la
+ * forme d'un seul entier long, chaque tuile occupant 4 bits.
+ *
+ * La tuile de la position {@code p} est stockée dans les bits {@code 4p} à
+ * {@code 4p + 3}.
+ * Deux grilles de même taille sont égales si et seulement si leurs représentations le
+ * sont, ce qui permet de les trier et de les comparer directement.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class PackedBoard {
+
+    /**
+     * Le nombre maximal de positions d'une grille pouvant être représentée.
+     */
+    public static final int MAX_POSITIONS = 16;
+
+    /**
+     * Le nombre de bits utilisés pour chaque tuile.
+     */
+    private static final int BITS = 4;
+
+    /**
+     * Le masque permettant d'extraire une tuile.
+     */
+    private static final long MASK = 0xF;
+
+    /**
+     * Désactive l'instanciation de cette classe utilitaire.
+     */
+    private PackedBoard() {
+        throw new AssertionError("PackedBoard ne doit pas être instanciée");
+    }
+
+    /**
+     * Représente la grille donnée sous la forme d'un entier long.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @return La représentation de la grille.
+     *
+     * @throws IllegalArgumentException Si la grille a trop de positions.
+     */
+    public static long pack(int[] tiles) {
+        if (tiles.length > MAX_POSITIONS) {
+            throw new IllegalArgumentException(
+                    "Au plus " + MAX_POSITIONS + " positions peuvent être représentées");
+        }
+
+        long packed = 0;
+        for (int position = 0; position < tiles.length; position++) {
+            packed |= (long) tiles[position] << (BITS * position);
+        }
+        return packed;
+    }
+
+    /**
+     * Retrouve les tuiles d'une grille à partir de sa représentation.
+     *
+     * @param packed La représentation de la grille.
+     * @param nbPositions Le nombre de positions de la grille.
+     *
+     * @return Les tuiles de la grille.
+     */
+    public static int[] unpack(long packed, int nbPositions) {
+        int[] tiles = new int[nbPositions];
+        for (int position = 0; position < nbPositions; position++) {
+            tiles[position] = tileAt(packed, position);
+        }
+        return tiles;
+    }
+
+    /**
+     * Donne la tuile située à une position donnée.
+     *
+     * @param packed La représentation de la grille.
+     * @param position La position de la tuile.
+     *
+     * @return La valeur de la tuile.
+     */
+    public static int tileAt(long packed, int position) {
+        return (int) ((packed >>> (BITS * position)) & MASK);
+    }
+
+    /**
+     * Donne la position de la tuile vide.
+     *
+     * @param packed La représentation de la grille.
+     * @param nbPositions Le nombre de positions de la grille.
+     *
+     * @return La position de la tuile vide.
+     */
+    public static int indexOfEmpty(long packed, int nbPositions) {
+        for (int position = 0; position < nbPositions; position++) {
+            if (tileAt(packed, position) == 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Pousse la tuile d'une position donnée dans l'emplacement vide.
+     *
+     * @param packed La représentation de la grille.
+     * @param empty La position de la tuile vide.
+     * @param position La position de la tuile à pousser.
+     *
+     * @return La représentation de la grille obtenue.
+     */
+    public static long push(long packed, int empty, int position) {
+        long tile = (packed >>> (BITS * position)) & MASK;
+        return (packed & ~(MASK << (BITS * position))) | (tile << (BITS * empty));
+    }
+
+}
@@ -0,0 +1,320 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * La classe SearchCheckpoint représente un point de reprise d'une recherche IDA*.
+ *
+ * Elle mémorise la grille résolue (avec sa forme), la manière dont la frontière a été
+ * découpée, le seuil de l'itération en cours, les sous-arbres de la frontière déjà
+ * explorés pour ce seuil et la meilleure borne obtenue pour le seuil suivant.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class SearchCheckpoint {
+
+    /**
+     * Le nombre magique identifiant les fichiers de reprise.
+     */
+    private static final int MAGIC = 0x54514B50;
+
+    /**
+     * La version du format des fichiers de reprise.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * La version du format des fichiers de reprise ne mémorisant pas la forme de la
+     * grille, toujours carrée.
+     */
+    private static final int SQUARE_VERSION = 1;
+
+    /**
+     * Le nombre de lignes de la grille en cours de résolution.
+     */
+    private final int rows;
+
+    /**
+     * Le nombre de colonnes de la grille en cours de résolution.
+     */
+    private final int columns;
+
+    /**
+     * Les tuiles de la grille en cours de résolution.
+     */
+    private final int[] tiles;
+
+    /**
+     * La profondeur à laquelle la frontière a été développée.
+     */
+    private final int frontierDepth;
+
+    /**
+     * Le nombre de nœuds de la frontière.
+     */
+    private final int frontierSize;
+
+    /**
+     * Le seuil de l'itération en cours.
+     */
+    private final int threshold;
+
+    /**
+     * La meilleure borne connue pour le seuil de l'itération suivante.
+     */
+    private final int nextBound;
+
+    /**
+     * Les indices des sous-arbres de la frontière entièrement explorés pour le seuil
+     * courant.
+     */
+    private final BitSet completed;
+
+    /**
+     * Le nombre de nœuds explorés depuis le début de la recherche.
+     */
+    private final long nbNodes;
+
+    /**
+     * Crée une nouvelle instance de SearchCheckpoint.
+     *
+     * @param rows Le nombre de lignes de la grille en cours de résolution.
+     * @param columns Le nombre de colonnes de la grille en cours de résolution.
+     * @param tiles Les tuiles de la grille en cours de résolution.
+     * @param frontierDepth La profondeur à laquelle la frontière a été développée.
+     * @param frontierSize Le nombre de nœuds de la frontière.
+     * @param threshold Le seuil de l'itération en cours.
+     * @param nextBound La meilleure borne connue pour le seuil suivant.
+     * @param completed Les sous-arbres entièrement explorés pour le seuil courant.
+     * @param nbNodes Le nombre de nœuds explorés depuis le début de la recherche.
+     */
+    public SearchCheckpoint(int rows, int columns, int[] tiles, int frontierDepth,
+            int frontierSize, int threshold, int nextBound, BitSet completed,
+            long nbNodes) {
+        if (tiles.length != rows * columns) {
+            throw new IllegalArgumentException("Une grille de " + (rows * columns)
+                    + " tuiles est attendue (" + tiles.length + " tuiles)");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles.clone();
+        this.frontierDepth = frontierDepth;
+        this.frontierSize = frontierSize;
+        this.threshold = threshold;
+        this.nextBound = nextBound;
+        this.completed = (BitSet) completed.clone();
+        this.nbNodes = nbNodes;
+    }
+
+    /**
+     * Vérifie si ce point de reprise concerne la grille donnée.
+     * Deux grilles de formes différentes sont distinctes, même lorsque leurs tuiles
+     * sont identiques.
+     *
+     * @param other Les tuiles de la grille à comparer.
+     * @param otherRows Le nombre de lignes de la grille à comparer.
+     * @param otherColumns Le nombre de colonnes de la grille à comparer.
+     *
+     * @return Si ce point de reprise concerne la grille donnée.
+     */
+    public boolean isFor(int[] other, int otherRows, int otherColumns) {
+        return (rows == otherRows) && (columns == otherColumns)
+                && Arrays.equals(tiles, other);
+    }
+
+    /**
+     * Donne le nombre de lignes de la grille en cours de résolution.
+     *
+     * @return Le nombre de lignes de la grille.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Donne le nombre de colonnes de la grille en cours de résolution.
+     *
+     * @return Le nombre de colonnes de la grille.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Donne la profondeur à laquelle la frontière a été développée.
+     *
+     * @return La profondeur de la frontière.
+     */
+    public int getFrontierDepth() {
+        return frontierDepth;
+    }
+
+    /**
+     * Donne le nombre de nœuds de la frontière.
+     *
+     * @return La taille de la frontière.
+     */
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    /**
+     * Donne le seuil de l'itération en cours.
+     *
+     * @return Le seuil de l'itération en cours.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Donne la meilleure borne connue pour le seuil de l'itération suivante.
+     *
+     * @return La meilleure borne pour le seuil suivant.
+     */
+    public int getNextBound() {
+        return nextBound;
+    }
+
+    /**
+     * Vérifie si un sous-arbre de la frontière a été entièrement exploré pour le seuil
+     * courant.
+     *
+     * @param index L'indice du sous-arbre dans la frontière.
+     *
+     * @return Si le sous-arbre a été exploré.
+     */
+    public boolean isCompleted(int index) {
+        return completed.get(index);
+    }
+
+    /**
+     * Donne le nombre de nœuds explorés depuis le début de la recherche.
+     *
+     * @return Le nombre de nœuds explorés.
+     */
+    public long getNbNodes() {
+        return nbNodes;
+    }
+
+    /**
+     * Écrit ce point de reprise dans le fichier donné.
+     * Le fichier est d'abord écrit à côté de sa destination, puis déplacé, de sorte
+     * qu'une interruption pendant l'écriture ne corrompe jamais le point de reprise
+     * précédent.
+     *
+     * @param file Le fichier dans lequel écrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(rows);
+            output.writeInt(columns);
+            for (int tile : tiles) {
+                output.writeInt(tile);
+            }
+            output.writeInt(frontierDepth);
+            output.writeInt(frontierSize);
+            output.writeInt(threshold);
+            output.writeInt(nextBound);
+            output.writeLong(nbNodes);
+            long[] words = completed.toLongArray();
+            output.writeInt(words.length);
+            for (long word : words) {
+                output.writeLong(word);
+            }
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Lit un point de reprise depuis le fichier donné.
+     * Les points de reprise écrits dans la première version du format, qui ne
+     * concernaient que des grilles carrées, sont également acceptés.
+     *
+     * @param file Le fichier à lire.
+     *
+     * @return Le point de reprise lu.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture, ou si le fichier
+     *         n'est pas un point de reprise valide.
+     */
+    public static SearchCheckpoint read(Path file) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Format de point de reprise invalide : " + file);
+            }
+
+            int rows;
+            int columns;
+            int version = input.readInt();
+            if (version == VERSION) {
+                rows = input.readInt();
+                columns = input.readInt();
+            } else if (version == SQUARE_VERSION) {
+                rows = (int) Math.round(Math.sqrt(input.readInt()));
+                columns = rows;
+            } else {
+                throw new IOException("Format de point de reprise invalide : " + file);
+            }
+
+            int[] tiles = new int[rows * columns];
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = input.readInt();
+            }
+            int frontierDepth = input.readInt();
+            int frontierSize = input.readInt();
+            int threshold = input.readInt();
+            int nextBound = input.readInt();
+            long nbNodes = input.readLong();
+            long[] words = new long[input.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = input.readLong();
+            }
+
+            return new SearchCheckpoint(rows, columns, tiles, frontierDepth, frontierSize,
+                    threshold, nextBound, BitSet.valueOf(words), nbNodes);
+        }
+    }
+
+}
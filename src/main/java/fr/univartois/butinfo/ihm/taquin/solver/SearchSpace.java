@@ -0,0 +1,214 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.univartois.butinfo.ihm.taquin.model.Move;
+
+/**
+ * La classe SearchSpace regroupe les tables précalculées décrivant l'espace de recherche
+ * des grilles d'une forme donnée (carrée ou rectangulaire) : voisinage de chaque
+ * position et heuristique.
+ * Elle permet également de développer la frontière d'une recherche.
+ *
+ * Les instances de cette classe sont immuables, et peuvent donc être partagées entre
+ * plusieurs threads.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class SearchSpace {
+
+    /**
+     * Les déplacements possibles, dans l'ordre de leurs indices.
+     */
+    static final Move[] MOVES = Move.values();
+
+    /**
+     * Les indices des déplacements opposés à chacun des déplacements.
+     */
+    static final int[] OPPOSITES = Arrays.stream(MOVES)
+            .mapToInt(m -> m.opposite().ordinal())
+            .toArray();
+
+    /**
+     * Le nombre de lignes des grilles.
+     */
+    private final int rows;
+
+    /**
+     * Le nombre de colonnes des grilles.
+     */
+    private final int columns;
+
+    /**
+     * La table des positions des tuiles poussées par chaque déplacement.
+     */
+    private final int[][] neighbours;
+
+    /**
+     * L'heuristique utilisée pour guider la recherche.
+     */
+    private final ManhattanDistance heuristic;
+
+    /**
+     * Crée une nouvelle instance de SearchSpace.
+     *
+     * @param rows Le nombre de lignes des grilles.
+     * @param columns Le nombre de colonnes des grilles.
+     */
+    SearchSpace(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.neighbours = Boards.neighbours(rows, columns);
+        this.heuristic = new ManhattanDistance(rows, columns);
+    }
+
+    /**
+     * Donne le nombre de lignes des grilles.
+     *
+     * @return Le nombre de lignes.
+     */
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * Donne le nombre de colonnes des grilles.
+     *
+     * @return Le nombre de colonnes.
+     */
+    int columns() {
+        return columns;
+    }
+
+    /**
+     * Vérifie que les tuiles données forment une grille de cet espace pouvant être
+     * résolue.
+     *
+     * @param tiles Les tuiles de la grille.
+     *
+     * @throws IllegalArgumentException Si la grille n'est pas valide ou ne peut pas être
+     *         résolue.
+     */
+    void checkLayout(int[] tiles) {
+        Boards.checkLayout(tiles, rows, columns);
+    }
+
+    /**
+     * Donne la table des positions des tuiles poussées par chaque déplacement.
+     *
+     * @return La table {@code [position][move.ordinal()]} (partagée) des voisins.
+     */
+    int[][] neighbours() {
+        return neighbours;
+    }
+
+    /**
+     * Donne l'heuristique utilisée pour guider la recherche.
+     *
+     * @return L'heuristique utilisée.
+     */
+    ManhattanDistance heuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Crée le nœud correspondant à une grille atteinte par un chemin donné.
+     *
+     * @param tiles Les tuiles de la grille.
+     * @param path Les indices des déplacements menant à la grille.
+     *
+     * @return Le nœud créé.
+     */
+    FrontierNode node(int[] tiles, int[] path) {
+        return new FrontierNode(tiles, Boards.indexOfEmpty(tiles), heuristic.evaluate(tiles),
+                path);
+    }
+
+    /**
+     * Développe en largeur la grille donnée, jusqu'à ce que la frontière atteigne la
+     * taille ou la profondeur demandée.
+     * Le développement est déterministe : la même grille produit toujours la même
+     * frontière, dans le même ordre.
+     *
+     * @param root Les tuiles de la grille à développer.
+     * @param minNodes Le nombre de nœuds à partir duquel le développement s'arrête.
+     * @param maxDepth La profondeur à laquelle le développement s'arrête.
+     *
+     * @return La frontière obtenue.
+     */
+    Frontier expand(int[] root, int minNodes, int maxDepth) {
+        FrontierNode rootNode = node(root, new int[0]);
+        if (rootNode.h() == 0) {
+            return Frontier.solved(rootNode.path());
+        }
+
+        List<FrontierNode> layer = List.of(rootNode);
+        int depth = 0;
+        while ((layer.size() < minNodes) && (depth < maxDepth)) {
+            List<FrontierNode> next = new ArrayList<>(layer.size() * 3);
+            for (FrontierNode node : layer) {
+                int empty = node.empty();
+                for (int m = 0; m < MOVES.length; m++) {
+                    int position = neighbours[empty][m];
+                    if ((position < 0) || (OPPOSITES[m] == node.last())) {
+                        continue;
+                    }
+
+                    int tile = node.tiles()[position];
+                    int[] tiles = node.tiles().clone();
+                    tiles[empty] = tile;
+                    tiles[position] = 0;
+                    int h = node.h() - heuristic.distance(tile, position)
+                            + heuristic.distance(tile, empty);
+                    int[] path = Arrays.copyOf(node.path(), depth + 1);
+                    path[depth] = m;
+
+                    if (h == 0) {
+                        // Le développement étant fait en largeur, cette solution est optimale.
+                        return Frontier.solved(path);
+                    }
+                    next.add(new FrontierNode(tiles, position, h, path));
+                }
+            }
+            layer = next;
+            depth++;
+        }
+        return Frontier.of(layer, depth);
+    }
+
+    /**
+     * Convertit des indices de déplacements en déplacements.
+     *
+     * @param path Les indices des déplacements.
+     *
+     * @return La liste des déplacements correspondants.
+     */
+    static List<Move> toMoves(int[] path) {
+        List<Move> moves = new ArrayList<>(path.length);
+        for (int m : path) {
+            moves.add(MOVES[m]);
+        }
+        return moves;
+    }
+
+}
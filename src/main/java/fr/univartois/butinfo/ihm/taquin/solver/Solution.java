@@ -0,0 +1,149 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.time.Duration;
+import java.util.List;
+
+import fr.univartois.butinfo.ihm.taquin.model.Move;
+
+/**
+ * La classe Solution représente le résultat de la résolution d'une grille du Taquin.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class Solution {
+
+    /**
+     * Les déplacements permettant de remettre la grille dans l'ordre.
+     */
+    private final List<Move> moves;
+
+    /**
+     * Le nombre de nœuds explorés pour trouver cette solution.
+     */
+    private final long nbNodes;
+
+    /**
+     * Le temps nécessaire pour trouver cette solution.
+     */
+    private final Duration elapsed;
+
+    /**
+     * Une borne inférieure prouvée de la longueur d'une solution optimale.
+     */
+    private final int lowerBound;
+
+    /**
+     * Crée une nouvelle instance de Solution.
+     *
+     * @param moves Les déplacements permettant de remettre la grille dans l'ordre.
+     * @param nbNodes Le nombre de nœuds explorés pour trouver cette solution.
+     * @param elapsed Le temps nécessaire pour trouver cette solution.
+     * @param optimal Si cette solution est de longueur minimale.
+     */
+    public Solution(List<Move> moves, long nbNodes, Duration elapsed, boolean optimal) {
+        this(moves, nbNodes, elapsed, optimal ? moves.size() : 0);
+    }
+
+    /**
+     * Crée une nouvelle instance de Solution, dont la longueur n'est pas forcément
+     * minimale.
+     *
+     * @param moves Les déplacements permettant de remettre la grille dans l'ordre.
+     * @param nbNodes Le nombre de nœuds explorés pour trouver cette solution.
+     * @param elapsed Le temps nécessaire pour trouver cette solution.
+     * @param lowerBound Une borne inférieure prouvée de la longueur d'une solution
+     *        optimale.
+     */
+    public Solution(List<Move> moves, long nbNodes, Duration elapsed, int lowerBound) {
+        this.moves = List.copyOf(moves);
+        this.nbNodes = nbNodes;
+        this.elapsed = elapsed;
+        this.lowerBound = Math.min(lowerBound, moves.size());
+    }
+
+    /**
+     * Donne les déplacements permettant de remettre la grille dans l'ordre.
+     *
+     * @return La liste (non modifiable) des déplacements.
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Donne la longueur de cette solution.
+     *
+     * @return Le nombre de déplacements de cette solution.
+     */
+    public int length() {
+        return moves.size();
+    }
+
+    /**
+     * Donne le nombre de nœuds explorés pour trouver cette solution.
+     *
+     * @return Le nombre de nœuds explorés.
+     */
+    public long getNbNodes() {
+        return nbNodes;
+    }
+
+    /**
+     * Donne le temps nécessaire pour trouver cette solution.
+     *
+     * @return Le temps de résolution.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Vérifie si cette solution est de longueur minimale.
+     *
+     * @return Si cette solution est optimale.
+     */
+    public boolean isOptimal() {
+        return lowerBound == moves.size();
+    }
+
+    /**
+     * Donne une borne inférieure prouvée de la longueur d'une solution optimale.
+     * Lorsque cette solution est optimale, cette borne est égale à sa longueur.
+     *
+     * @return La borne inférieure de la longueur d'une solution optimale.
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        String bound = isOptimal() ? "" : ("optimum >= " + lowerBound + ", ");
+        return length() + " déplacements " + moves + " (" + bound + nbNodes + " nœuds, "
+                + elapsed.toMillis() + " ms)";
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * La classe SolverApplication permet de résoudre une grille du Taquin depuis la ligne
+ * de commande.
+ *
+ * Usage : {@code SolverApplication [--threads n] [--checkpoint fichier] [--period s]
+ * tuiles...}, où les tuiles sont données ligne par ligne, la tuile vide valant
+ * {@code 0}.
+ * La grille est supposée carrée, à moins que sa forme ne soit donnée par l'option
+ * {@code --shape lignesxcolonnes}.
+ * Lorsqu'un fichier de reprise est donné, relancer la même commande après une
+ * interruption reprend la recherche depuis le dernier point de reprise.
+ *
+ * La recherche peut également être répartie entre plusieurs processus : l'option
+ * {@code --coordinator port} résout la grille en attendant des travailleurs sur le port
+ * donné, et l'option {@code --worker machine:port} (sans tuiles) lance un travailleur
+ * se connectant au coordinateur indiqué.
+ *
+ * L'option {@code --budget ms} renvoie la meilleure solution trouvée dans le temps
+ * donné (en millisecondes), accompagnée d'une borne inférieure de la longueur optimale.
+ *
+ * Enfin, l'option {@code --bfs lignesxcolonnes} parcourt en largeur tout l'espace des
+ * grilles de la forme donnée (depuis la grille ordonnée, ou depuis les tuiles données),
+ * en stockant les niveaux dans le répertoire donné par {@code --work} et en respectant
+ * le budget mémoire (en Mo) donné par {@code --memory}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class SolverApplication {
+
+    /**
+     * Désactive l'instanciation de cette classe.
+     */
+    private SolverApplication() {
+        throw new AssertionError("SolverApplication ne doit pas être instanciée");
+    }
+
+    /**
+     * Cette méthode exécute la résolution décrite par les arguments donnés.
+     *
+     * @param args Les arguments de la ligne de commande.
+     *
+     * @throws IOException Si une erreur de communication se produit en mode réparti, ou
+     *         si les fichiers du parcours en largeur ne peuvent pas être écrits.
+     * @throws InterruptedException Si la résolution a été interrompue.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        Path checkpoint = null;
+        Duration period = Duration.ofMinutes(1);
+        int coordinatorPort = -1;
+        String coordinatorAddress = null;
+        Duration budget = null;
+        String shape = null;
+        String dimensions = null;
+        Path workDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+        long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        StringBuilder board = new StringBuilder();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> nbThreads = Integer.parseInt(args[++i]);
+                case "--checkpoint" -> checkpoint = Path.of(args[++i]);
+                case "--period" -> period = Duration.ofSeconds(Long.parseLong(args[++i]));
+                case "--coordinator" -> coordinatorPort = Integer.parseInt(args[++i]);
+                case "--worker" -> coordinatorAddress = args[++i];
+                case "--budget" -> budget = Duration.ofMillis(Long.parseLong(args[++i]));
+                case "--bfs" -> shape = args[++i];
+                case "--shape" -> dimensions = args[++i];
+                case "--work" -> workDirectory = Path.of(args[++i]);
+                case "--memory" -> memoryBudget = Long.parseLong(args[++i]) << 20;
+                default -> board.append(args[i]).append(' ');
+            }
+        }
+
+        if (coordinatorAddress != null) {
+            // Ce processus est un travailleur.
+            int separator = coordinatorAddress.lastIndexOf(':');
+            new DistributedWorker(coordinatorAddress.substring(0, separator),
+                    Integer.parseInt(coordinatorAddress.substring(separator + 1)),
+                    nbThreads).run();
+            return;
+        }
+
+        if (shape != null) {
+            // Ce processus parcourt tout l'espace des grilles d'une forme donnée.
+            int[] dimension = parseShape(shape);
+            ExternalBfs bfs = new ExternalBfs(dimension[0], dimension[1], workDirectory,
+                    memoryBudget);
+            String start = board.toString().trim();
+            System.out.println(start.isEmpty() ? bfs.run() : bfs.run(Boards.parse(start)));
+            return;
+        }
+
+        int[] tiles = Boards.parse(board.toString());
+        int rows;
+        int columns;
+        if (dimensions == null) {
+            rows = Boards.sizeOf(tiles);
+            columns = rows;
+        } else {
+            int[] dimension = parseShape(dimensions);
+            rows = dimension[0];
+            columns = dimension[1];
+        }
+
+        if (budget != null) {
+            // Ce processus cherche la meilleure solution possible dans le temps imparti.
+            System.out.println(new AnytimeSolver(rows, columns).solve(tiles, budget));
+            return;
+        }
+
+        if (coordinatorPort >= 0) {
+            // Ce processus répartit la recherche entre des travailleurs.
+            try (DistributedCoordinator coordinator = new DistributedCoordinator(rows,
+                    columns, coordinatorPort, DistributedCoordinator.DEFAULT_NB_UNITS)) {
+                System.out.println("En attente de travailleurs sur le port "
+                        + coordinator.getPort());
+                System.out.println(coordinator.solve(tiles));
+            }
+            return;
+        }
+
+        IdaStarSolver solver = new IdaStarSolver(rows, columns, nbThreads);
+        if (checkpoint != null) {
+            solver.setCheckpoint(checkpoint, period);
+        }
+        System.out.println(solver.solve(tiles));
+    }
+
+    /**
+     * Lit une forme de grille donnée sous la forme {@code lignesxcolonnes}.
+     *
+     * @param shape La forme à lire.
+     *
+     * @return Le nombre de lignes et le nombre de colonnes de la grille.
+     *
+     * @throws IllegalArgumentException Si la forme n'est pas valide.
+     */
+    private static int[] parseShape(String shape) {
+        int separator = shape.indexOf('x');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Forme de grille invalide : " + shape);
+        }
+        return new int[] { Integer.parseInt(shape.substring(0, separator)),
+                Integer.parseInt(shape.substring(separator + 1)) };
+    }
+
+}
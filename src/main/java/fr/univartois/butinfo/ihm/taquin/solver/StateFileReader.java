@@ -0,0 +1,132 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * La classe StateFileReader lit séquentiellement un fichier de grilles représentées par
+ * des entiers longs (voir {@link PackedBoard}), au travers d'un grand tampon.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class StateFileReader implements Closeable {
+
+    /**
+     * Le canal permettant de lire le fichier.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Le tampon dans lequel le fichier est lu.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * La prochaine grille à lire.
+     */
+    private long next;
+
+    /**
+     * Si une grille reste à lire.
+     */
+    private boolean hasNext;
+
+    /**
+     * Crée une nouvelle instance de StateFileReader.
+     *
+     * @param file Le fichier à lire.
+     * @param bufferSize La taille du tampon de lecture (en octets).
+     *
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    StateFileReader(Path file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize - bufferSize % Long.BYTES);
+        this.buffer.limit(0);
+        advance();
+    }
+
+    /**
+     * Vérifie si une grille reste à lire.
+     *
+     * @return Si une grille reste à lire.
+     */
+    boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Donne la prochaine grille à lire, sans la consommer.
+     *
+     * @return La prochaine grille.
+     */
+    long peek() {
+        return next;
+    }
+
+    /**
+     * Lit la prochaine grille.
+     *
+     * @return La grille lue.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture.
+     */
+    long next() throws IOException {
+        long result = next;
+        advance();
+        return result;
+    }
+
+    /**
+     * Lit la grille suivante dans le fichier.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture.
+     */
+    private void advance() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            while (buffer.hasRemaining() && (channel.read(buffer) >= 0)) {
+                // On remplit le tampon autant que possible.
+            }
+            buffer.flip();
+        }
+
+        hasNext = buffer.remaining() >= Long.BYTES;
+        if (hasNext) {
+            next = buffer.getLong();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * La classe StateFileWriter écrit séquentiellement un fichier de grilles représentées
+ * par des entiers longs (voir {@link PackedBoard}), au travers d'un grand tampon.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class StateFileWriter implements Closeable {
+
+    /**
+     * Le canal permettant d'écrire le fichier.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Le tampon dans lequel les grilles sont accumulées avant d'être écrites.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Le nombre de grilles écrites.
+     */
+    private long count;
+
+    /**
+     * Crée une nouvelle instance de StateFileWriter.
+     * Si le fichier existe déjà, son contenu est remplacé.
+     *
+     * @param file Le fichier à écrire.
+     * @param bufferSize La taille du tampon d'écriture (en octets).
+     *
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    StateFileWriter(Path file, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize - bufferSize % Long.BYTES);
+    }
+
+    /**
+     * Écrit une grille.
+     *
+     * @param state La représentation de la grille à écrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    void write(long state) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.putLong(state);
+        count++;
+    }
+
+    /**
+     * Donne le nombre de grilles écrites.
+     *
+     * @return Le nombre de grilles écrites.
+     */
+    long count() {
+        return count;
+    }
+
+    /**
+     * Écrit dans le fichier le contenu du tampon.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * La classe SubtreeSearch explore en profondeur, pour un seuil donné, le sous-arbre
+ * issu d'un nœud de la frontière, comme le fait une itération de IDA*.
+ *
+ * Une instance de cette classe conserve l'état d'exploration d'un seul thread, et ne
+ * doit donc pas être partagée.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class SubtreeSearch {
+
+    /**
+     * La valeur renvoyée lorsque la grille ordonnée a été atteinte.
+     */
+    static final int FOUND = -1;
+
+    /**
+     * La valeur renvoyée lorsque l'exploration a été interrompue.
+     */
+    static final int ABORTED = -2;
+
+    /**
+     * Le masque déterminant la fréquence à laquelle l'interruption de l'exploration est
+     * vérifiée (tous les 1024 nœuds).
+     */
+    private static final long CANCEL_CHECK_MASK = 0x3FF;
+
+    /**
+     * La table des positions des tuiles poussées par chaque déplacement.
+     */
+    private final int[][] neighbours;
+
+    /**
+     * L'heuristique utilisée pour guider la recherche.
+     */
+    private final ManhattanDistance heuristic;
+
+    /**
+     * Le test indiquant, pour un seuil donné, si l'exploration doit être interrompue.
+     */
+    private final IntPredicate cancelled;
+
+    /**
+     * Les tuiles de la grille en cours d'exploration.
+     */
+    private final int[] tiles;
+
+    /**
+     * Les indices des déplacements menant au nœud courant.
+     */
+    private int[] path = new int[0];
+
+    /**
+     * Le nombre de nœuds explorés depuis le dernier appel à {@link #takeExplored()}.
+     */
+    private long explored;
+
+    /**
+     * La longueur de la dernière solution trouvée.
+     */
+    private int length;
+
+    /**
+     * Crée une nouvelle instance de SubtreeSearch.
+     *
+     * @param space L'espace de recherche à explorer.
+     * @param cancelled Le test indiquant, pour le seuil en cours, si l'exploration doit
+     *        être interrompue.
+     */
+    SubtreeSearch(SearchSpace space, IntPredicate cancelled) {
+        this.neighbours = space.neighbours();
+        this.heuristic = space.heuristic();
+        this.cancelled = cancelled;
+        this.tiles = new int[neighbours.length];
+    }
+
+    /**
+     * Explore le sous-arbre issu du nœud donné.
+     *
+     * @param node Le nœud de la frontière à explorer.
+     * @param threshold Le seuil de l'itération en cours.
+     *
+     * @return {@link #FOUND} si la grille ordonnée a été atteinte, {@link #ABORTED} si
+     *         l'exploration a été interrompue, et sinon la plus petite valeur dépassant
+     *         le seuil.
+     */
+    int explore(FrontierNode node, int threshold) {
+        int depth = node.depth();
+        if (path.length <= Math.max(threshold, depth)) {
+            path = new int[Math.max(threshold, depth) + 1];
+        }
+        System.arraycopy(node.tiles(), 0, tiles, 0, tiles.length);
+        System.arraycopy(node.path(), 0, path, 0, depth);
+        return search(node.empty(), depth, node.h(), node.last(), threshold);
+    }
+
+    /**
+     * Donne la dernière solution trouvée par cette instance.
+     *
+     * @return Les indices des déplacements de la solution, depuis la racine.
+     */
+    int[] solution() {
+        return Arrays.copyOf(path, length);
+    }
+
+    /**
+     * Donne le nombre de nœuds explorés depuis le dernier appel, et remet ce compteur à
+     * zéro.
+     *
+     * @return Le nombre de nœuds explorés.
+     */
+    long takeExplored() {
+        long result = explored;
+        explored = 0;
+        return result;
+    }
+
+    /**
+     * Explore en profondeur le sous-arbre du nœud courant.
+     *
+     * @param empty La position de la tuile vide.
+     * @param g La profondeur du nœud courant.
+     * @param h La valeur de l'heuristique pour le nœud courant.
+     * @param last L'indice du dernier déplacement effectué.
+     * @param threshold Le seuil de l'itération en cours.
+     *
+     * @return {@link #FOUND}, {@link #ABORTED}, ou la plus petite valeur dépassant le
+     *         seuil.
+     */
+    private int search(int empty, int g, int h, int last, int threshold) {
+        explored++;
+        int f = g + h;
+        if (f > threshold) {
+            return f;
+        }
+        if (h == 0) {
+            length = g;
+            return FOUND;
+        }
+        if (((explored & CANCEL_CHECK_MASK) == 0) && cancelled.test(threshold)) {
+            return ABORTED;
+        }
+
+        int min = Integer.MAX_VALUE;
+        int[] next = neighbours[empty];
+        for (int m = 0; m < next.length; m++) {
+            int position = next[m];
+            if ((position < 0) || (SearchSpace.OPPOSITES[m] == last)) {
+                continue;
+            }
+
+            int tile = tiles[position];
+            int childH = h - heuristic.distance(tile, position)
+                    + heuristic.distance(tile, empty);
+            tiles[empty] = tile;
+            tiles[position] = 0;
+            path[g] = m;
+
+            int result = search(position, g + 1, childH, m, threshold);
+
+            tiles[position] = tile;
+            tiles[empty] = 0;
+
+            if ((result == FOUND) || (result == ABORTED)) {
+                return result;
+            }
+            min = Math.min(min, result);
+        }
+        return min;
+    }
+
+}
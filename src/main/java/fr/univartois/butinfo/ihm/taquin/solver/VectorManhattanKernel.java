@@ -0,0 +1,102 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * La classe VectorManhattanKernel évalue la distance de Manhattan d'un lot de grilles en
+ * utilisant l'API Vector.
+ *
+ * Chaque voie d'un vecteur correspond à une grille du lot.
+ * Pour chaque position, les tuiles des grilles sont converties en distances par une
+ * table de correspondance tenant dans un seul vecteur, puis ajoutées aux sommes
+ * courantes.
+ *
+ * Cette classe n'est chargée que si le module {@code jdk.incubator.vector} est
+ * disponible.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class VectorManhattanKernel {
+
+    /**
+     * L'espèce de vecteurs utilisée, correspondant à la largeur native de la machine.
+     */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    /**
+     * Les tables de distances de chaque position, sous la forme de vecteurs.
+     */
+    private final ByteVector[] tables;
+
+    /**
+     * Crée une nouvelle instance de VectorManhattanKernel.
+     *
+     * @param tables Les tables de distances de chaque position, indexées par tuile et
+     *        complétées jusqu'à la largeur des vecteurs.
+     */
+    VectorManhattanKernel(byte[][] tables) {
+        this.tables = new ByteVector[tables.length];
+        for (int position = 0; position < tables.length; position++) {
+            this.tables[position] = ByteVector.fromArray(SPECIES, tables[position], 0);
+        }
+    }
+
+    /**
+     * Donne le nombre de voies des vecteurs utilisés.
+     *
+     * @return Le nombre de grilles évaluées simultanément.
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Évalue toutes les grilles du lot donné.
+     *
+     * @param batch Le lot de grilles à évaluer.
+     * @param scores Le tableau dans lequel écrire la valeur de chaque grille.
+     */
+    void evaluate(BoardBatch batch, int[] scores) {
+        byte[] data = batch.data();
+        int capacity = batch.capacity();
+        int size = batch.size();
+        int lanes = SPECIES.length();
+        byte[] sums = new byte[lanes];
+
+        for (int first = 0; first < size; first += lanes) {
+            ByteVector sum = ByteVector.zero(SPECIES);
+            for (int position = 0; position < tables.length; position++) {
+                ByteVector tiles =
+                        ByteVector.fromArray(SPECIES, data, position * capacity + first);
+                sum = sum.add(tiles.selectFrom(tables[position]));
+            }
+
+            // Les sommes sont stockées sur des octets non signés.
+            sum.intoArray(sums, 0);
+            int count = Math.min(lanes, size - first);
+            for (int i = 0; i < count; i++) {
+                scores[first + i] = sums[i] & 0xFF;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,525 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Arrays;
+
+/**
+ * La classe WeightedSearch réalise une recherche A* pondérée, dans laquelle un nœud de
+ * profondeur {@code g} et d'heuristique {@code h} est développé selon la priorité
+ * {@code g + w * h}.
+ *
+ * Les nœuds sont stockés dans des tableaux de types primitifs (une table de hachage à
+ * adressage ouvert et un tas binaire d'entiers longs), afin qu'une recherche ne crée
+ * aucun objet par nœud : le ramasse-miettes n'a ainsi jamais à parcourir les nœuds, et
+ * ses pauses restent négligeables devant le budget de temps.
+ *
+ * Chaque tuile est stockée sur un octet (non signé), ce qui limite les grilles à
+ * {@value #MAX_POSITIONS} positions.
+ *
+ * Une instance de cette classe réutilise ses tableaux d'une recherche à l'autre, et ne
+ * doit donc pas être partagée.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class WeightedSearch {
+
+    /**
+     * La valeur renvoyée lorsque la grille ordonnée a été atteinte.
+     */
+    static final int FOUND = -1;
+
+    /**
+     * La valeur renvoyée lorsque la recherche a été interrompue.
+     */
+    static final int ABORTED = -2;
+
+    /**
+     * La valeur renvoyée lorsqu'aucune solution respectant la limite n'existe.
+     */
+    static final int EXHAUSTED = -3;
+
+    /**
+     * Le nombre maximal de positions des grilles, pour que chaque tuile tienne sur un
+     * octet.
+     */
+    static final int MAX_POSITIONS = 0x100;
+
+    /**
+     * Le nombre de bits utilisés pour l'indice d'un nœud dans une entrée du tas.
+     */
+    private static final int INDEX_BITS = 24;
+
+    /**
+     * Le nombre de bits utilisés pour l'heuristique d'un nœud dans une entrée du tas.
+     */
+    private static final int H_BITS = 16;
+
+    /**
+     * Le nombre maximal de nœuds d'une recherche.
+     */
+    static final int MAX_NODES = 1 << INDEX_BITS;
+
+    /**
+     * Le masque permettant d'extraire l'indice d'un nœud d'une entrée du tas.
+     */
+    private static final long INDEX_MASK = MAX_NODES - 1;
+
+    /**
+     * La capacité initiale des tableaux.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    /**
+     * Le masque déterminant la fréquence à laquelle l'interruption de la recherche est
+     * vérifiée (tous les 1024 nœuds).
+     */
+    private static final long STOP_CHECK_MASK = 0x3FF;
+
+    /**
+     * La table des positions des tuiles poussées par chaque déplacement.
+     */
+    private final int[][] neighbours;
+
+    /**
+     * L'heuristique utilisée pour guider la recherche.
+     */
+    private final ManhattanDistance heuristic;
+
+    /**
+     * Le nombre de positions des grilles.
+     */
+    private final int nbPositions;
+
+    /**
+     * Les tuiles des grilles des nœuds, mises bout à bout.
+     */
+    private byte[] tiles;
+
+    /**
+     * La position de la tuile vide de chaque nœud.
+     */
+    private int[] empty;
+
+    /**
+     * La profondeur de chaque nœud.
+     */
+    private int[] depth;
+
+    /**
+     * L'heuristique de chaque nœud.
+     */
+    private int[] estimate;
+
+    /**
+     * L'indice du nœud dont chaque nœud est issu.
+     */
+    private int[] parent;
+
+    /**
+     * L'indice du déplacement menant à chaque nœud.
+     */
+    private byte[] move;
+
+    /**
+     * Si chaque nœud a déjà été développé.
+     */
+    private boolean[] closed;
+
+    /**
+     * Le nombre de nœuds de la recherche en cours.
+     */
+    private int size;
+
+    /**
+     * La table de hachage (à adressage ouvert) des indices des nœuds.
+     */
+    private int[] table;
+
+    /**
+     * Le tas binaire des nœuds à développer.
+     * Chaque entrée contient la priorité, l'heuristique et l'indice d'un nœud, de sorte
+     * que l'ordre des entrées est celui des priorités, puis des heuristiques.
+     */
+    private long[] heap;
+
+    /**
+     * Le nombre d'entrées dans le tas.
+     */
+    private int heapSize;
+
+    /**
+     * Les tuiles de la grille en cours de construction.
+     */
+    private final byte[] scratch;
+
+    /**
+     * Les indices des déplacements de la dernière solution trouvée.
+     */
+    private int[] solution = new int[0];
+
+    /**
+     * Le nombre de nœuds développés depuis le dernier appel à {@link #takeExplored()}.
+     */
+    private long explored;
+
+    /**
+     * Crée une nouvelle instance de WeightedSearch.
+     *
+     * @param space L'espace de recherche des grilles à résoudre.
+     *
+     * @throws IllegalArgumentException Si les grilles ont plus de
+     *         {@value #MAX_POSITIONS} positions.
+     */
+    WeightedSearch(SearchSpace space) {
+        this.neighbours = space.neighbours();
+        this.heuristic = space.heuristic();
+        this.nbPositions = neighbours.length;
+        if (nbPositions > MAX_POSITIONS) {
+            throw new IllegalArgumentException("Les grilles ont au plus " + MAX_POSITIONS
+                    + " positions (" + nbPositions + " positions)");
+        }
+        this.scratch = new byte[nbPositions];
+        allocate(INITIAL_CAPACITY);
+        this.table = new int[2 * INITIAL_CAPACITY];
+        this.heap = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Recherche une solution depuis un nœud donné.
+     *
+     * @param root Le nœud depuis lequel rechercher une solution.
+     * @param numerator Le numérateur du poids de l'heuristique.
+     * @param denominator Le dénominateur du poids de l'heuristique (nul pour une
+     *        recherche gloutonne, ne tenant compte que de l'heuristique).
+     * @param limit La longueur à partir de laquelle les chemins sont ignorés.
+     * @param stop L'instant (en nanosecondes) auquel la recherche doit s'arrêter.
+     * @param maxNodes Le nombre maximal de nœuds mémorisés par la recherche (ramené à
+     *        {@link #MAX_NODES} au plus, pour que leurs indices tiennent dans le tas).
+     *
+     * @return {@link #FOUND} si une solution a été trouvée, {@link #ABORTED} si la
+     *         recherche a été interrompue ou a atteint le nombre maximal de nœuds, ou
+     *         {@link #EXHAUSTED} si aucune solution plus courte que {@code limit}
+     *         n'existe.
+     */
+    int search(FrontierNode root, int numerator, int denominator, int limit, long stop,
+            int maxNodes) {
+        int capacity = Math.min(maxNodes, MAX_NODES);
+        size = 0;
+        heapSize = 0;
+        Arrays.fill(table, -1);
+        for (int i = 0; i < nbPositions; i++) {
+            scratch[i] = (byte) root.tiles()[i];
+        }
+        int first = add(root.empty(), 0, root.h(), -1, -1);
+        push(first, numerator, denominator);
+
+        while (heapSize > 0) {
+            long entry = pop();
+            int node = (int) (entry & INDEX_MASK);
+            int g = depth[node];
+            int h = estimate[node];
+            if (closed[node] || (g + h >= limit)
+                    || ((entry >>> (INDEX_BITS + H_BITS)) != priority(g, h, numerator,
+                            denominator))) {
+                // Ce nœud a déjà été développé, ou a été atteint depuis par un chemin
+                // plus court.
+                continue;
+            }
+            closed[node] = true;
+            explored++;
+
+            if (h == 0) {
+                solution = path(node);
+                return FOUND;
+            }
+            if (((explored & STOP_CHECK_MASK) == 0) && (System.nanoTime() >= stop)) {
+                return ABORTED;
+            }
+
+            int hole = empty[node];
+            int[] next = neighbours[hole];
+            for (int m = 0; m < next.length; m++) {
+                int position = next[m];
+                if ((position < 0) || (SearchSpace.OPPOSITES[m] == move[node])) {
+                    continue;
+                }
+
+                int offset = node * nbPositions;
+                int tile = Byte.toUnsignedInt(tiles[offset + position]);
+                int childH = h - heuristic.distance(tile, position)
+                        + heuristic.distance(tile, hole);
+                if (g + 1 + childH >= limit) {
+                    continue;
+                }
+
+                System.arraycopy(tiles, offset, scratch, 0, nbPositions);
+                scratch[hole] = (byte) tile;
+                scratch[position] = 0;
+                int child = find();
+                if ((child < 0) && (size >= capacity)) {
+                    // Le nombre de nœuds est vérifié à chaque ajout : au-delà de MAX_NODES,
+                    // les indices ne tiendraient plus dans les entrées du tas.
+                    return ABORTED;
+
+                } else if (child < 0) {
+                    child = add(position, g + 1, childH, node, m);
+
+                } else if (depth[child] > g + 1) {
+                    // Un chemin plus court vers ce nœud a été trouvé : il est rouvert.
+                    depth[child] = g + 1;
+                    parent[child] = node;
+                    move[child] = (byte) m;
+                    closed[child] = false;
+
+                } else {
+                    continue;
+                }
+                push(child, numerator, denominator);
+            }
+        }
+        return EXHAUSTED;
+    }
+
+    /**
+     * Donne les indices des déplacements de la dernière solution trouvée.
+     *
+     * @return Les indices des déplacements de la solution.
+     */
+    int[] solution() {
+        return solution.clone();
+    }
+
+    /**
+     * Donne le nombre de nœuds développés depuis le dernier appel de cette méthode, et
+     * remet ce nombre à zéro.
+     *
+     * @return Le nombre de nœuds développés.
+     */
+    long takeExplored() {
+        long result = explored;
+        explored = 0;
+        return result;
+    }
+
+    /**
+     * Calcule la priorité d'un nœud.
+     *
+     * @param g La profondeur du nœud.
+     * @param h L'heuristique du nœud.
+     * @param numerator Le numérateur du poids de l'heuristique.
+     * @param denominator Le dénominateur du poids de l'heuristique.
+     *
+     * @return La priorité du nœud (les plus petites priorités sont développées en
+     *         premier).
+     */
+    private static long priority(int g, int h, int numerator, int denominator) {
+        if (denominator == 0) {
+            return h;
+        }
+        return (long) g * denominator + (long) h * numerator;
+    }
+
+    /**
+     * Reconstruit les indices des déplacements menant à un nœud.
+     *
+     * @param node L'indice du nœud.
+     *
+     * @return Les indices des déplacements.
+     */
+    private int[] path(int node) {
+        int[] path = new int[depth[node]];
+        for (int current = node; parent[current] >= 0; current = parent[current]) {
+            path[depth[current] - 1] = move[current];
+        }
+        return path;
+    }
+
+    /**
+     * Ajoute un nœud dont la grille est celle en cours de construction.
+     *
+     * @param hole La position de la tuile vide.
+     * @param g La profondeur du nœud.
+     * @param h L'heuristique du nœud.
+     * @param from L'indice du nœud dont celui-ci est issu.
+     * @param m L'indice du déplacement menant à ce nœud.
+     *
+     * @return L'indice du nœud ajouté.
+     */
+    private int add(int hole, int g, int h, int from, int m) {
+        if (size == depth.length) {
+            allocate(2 * size);
+        }
+        if (2 * (size + 1) > table.length) {
+            rehash(2 * table.length);
+        }
+
+        int node = size++;
+        System.arraycopy(scratch, 0, tiles, node * nbPositions, nbPositions);
+        empty[node] = hole;
+        depth[node] = g;
+        estimate[node] = h;
+        parent[node] = from;
+        move[node] = (byte) m;
+        closed[node] = false;
+        insert(node, hash(tiles, node * nbPositions));
+        return node;
+    }
+
+    /**
+     * Cherche le nœud dont la grille est celle en cours de construction.
+     *
+     * @return L'indice du nœud, ou {@code -1} s'il n'existe pas.
+     */
+    private int find() {
+        int mask = table.length - 1;
+        for (int slot = hash(scratch, 0) & mask; table[slot] >= 0; slot = (slot + 1) & mask) {
+            if (Arrays.equals(tiles, table[slot] * nbPositions,
+                    (table[slot] + 1) * nbPositions, scratch, 0, nbPositions)) {
+                return table[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Insère un nœud dans la table de hachage.
+     *
+     * @param node L'indice du nœud.
+     * @param hash Le code de hachage de sa grille.
+     */
+    private void insert(int node, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = node;
+    }
+
+    /**
+     * Agrandit la table de hachage.
+     *
+     * @param capacity La nouvelle taille de la table.
+     */
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, -1);
+        for (int node = 0; node < size; node++) {
+            insert(node, hash(tiles, node * nbPositions));
+        }
+    }
+
+    /**
+     * Calcule le code de hachage d'une grille.
+     *
+     * @param values Le tableau contenant la grille.
+     * @param offset La position de la grille dans ce tableau.
+     *
+     * @return Le code de hachage de la grille.
+     */
+    private int hash(byte[] values, int offset) {
+        long hash = 0;
+        for (int i = offset; i < offset + nbPositions; i++) {
+            hash = hash * 31 + values[i];
+        }
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Agrandit les tableaux décrivant les nœuds.
+     *
+     * @param capacity Le nouveau nombre maximal de nœuds.
+     */
+    private void allocate(int capacity) {
+        if (tiles == null) {
+            tiles = new byte[capacity * nbPositions];
+            empty = new int[capacity];
+            depth = new int[capacity];
+            estimate = new int[capacity];
+            parent = new int[capacity];
+            move = new byte[capacity];
+            closed = new boolean[capacity];
+
+        } else {
+            tiles = Arrays.copyOf(tiles, capacity * nbPositions);
+            empty = Arrays.copyOf(empty, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            estimate = Arrays.copyOf(estimate, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            move = Arrays.copyOf(move, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+        }
+    }
+
+    /**
+     * Ajoute un nœud au tas des nœuds à développer.
+     *
+     * @param node L'indice du nœud.
+     * @param numerator Le numérateur du poids de l'heuristique.
+     * @param denominator Le dénominateur du poids de l'heuristique.
+     */
+    private void push(int node, int numerator, int denominator) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heapSize);
+        }
+
+        long entry = (priority(depth[node], estimate[node], numerator, denominator)
+                << (INDEX_BITS + H_BITS)) | ((long) estimate[node] << INDEX_BITS) | node;
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) {
+                break;
+            }
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+    }
+
+    /**
+     * Retire du tas l'entrée de plus petite priorité.
+     *
+     * @return L'entrée retirée.
+     */
+    private long pop() {
+        long result = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if ((child + 1 < heapSize) && (heap[child + 1] < heap[child])) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return result;
+    }
+
+}
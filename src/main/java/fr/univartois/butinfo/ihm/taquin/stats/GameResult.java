@@ -0,0 +1,145 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+/**
+ * La classe GameResult représente le résultat d'une partie terminée du Taquin.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class GameResult {
+
+    /**
+     * Le nombre de lignes de la grille sur laquelle la partie a été jouée.
+     */
+    private final int rows;
+
+    /**
+     * Le nombre de colonnes de la grille sur laquelle la partie a été jouée.
+     */
+    private final int columns;
+
+    /**
+     * Le code de hachage de la disposition initiale des tuiles.
+     */
+    private final long layout;
+
+    /**
+     * Le nombre de déplacements réalisés pour remettre la grille dans l'ordre.
+     */
+    private final int nbMoves;
+
+    /**
+     * L'instant auquel la partie s'est terminée (en millisecondes depuis l'époque Unix).
+     */
+    private final long timestamp;
+
+    /**
+     * L'ordre d'enregistrement de ce résultat, permettant de départager deux résultats
+     * identiques.
+     */
+    private final long order;
+
+    /**
+     * Crée une nouvelle instance de GameResult.
+     *
+     * @param rows Le nombre de lignes de la grille sur laquelle la partie a été jouée.
+     * @param columns Le nombre de colonnes de cette grille.
+     * @param layout Le code de hachage de la disposition initiale des tuiles.
+     * @param nbMoves Le nombre de déplacements réalisés.
+     * @param timestamp L'instant auquel la partie s'est terminée.
+     * @param order L'ordre d'enregistrement de ce résultat.
+     */
+    GameResult(int rows, int columns, long layout, int nbMoves, long timestamp, long order) {
+        this.rows = rows;
+        this.columns = columns;
+        this.layout = layout;
+        this.nbMoves = nbMoves;
+        this.timestamp = timestamp;
+        this.order = order;
+    }
+
+    /**
+     * Donne le nombre de lignes de la grille sur laquelle la partie a été jouée.
+     *
+     * @return Le nombre de lignes de la grille.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Donne le nombre de colonnes de la grille sur laquelle la partie a été jouée.
+     *
+     * @return Le nombre de colonnes de la grille.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Donne le code de hachage de la disposition initiale des tuiles.
+     *
+     * @return Le code de hachage de la disposition initiale.
+     *
+     * @see fr.univartois.butinfo.ihm.taquin.model.Grid#getHash()
+     */
+    public long getLayout() {
+        return layout;
+    }
+
+    /**
+     * Donne le nombre de déplacements réalisés pour remettre la grille dans l'ordre.
+     *
+     * @return Le nombre de déplacements réalisés.
+     */
+    public int getNbMoves() {
+        return nbMoves;
+    }
+
+    /**
+     * Donne l'instant auquel la partie s'est terminée.
+     *
+     * @return L'instant de fin de la partie (en millisecondes depuis l'époque Unix).
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Donne l'ordre d'enregistrement de ce résultat.
+     *
+     * @return L'ordre d'enregistrement.
+     */
+    long getOrder() {
+        return order;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return nbMoves + " déplacements (" + rows + "x" + columns + ", "
+                + Long.toHexString(layout) + ")";
+    }
+
+}
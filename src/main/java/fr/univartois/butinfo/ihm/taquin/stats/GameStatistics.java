@@ -0,0 +1,531 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La classe GameStatistics conserve les résultats des parties terminées, et permet
+ * de consulter le classement et les statistiques des parties pour chaque forme de
+ * grille.
+ *
+ * Les résultats sont enregistrés dans un index en mémoire, mis à jour sans verrou, de
+ * sorte que les consultations ne sont jamais bloquées par les enregistrements.
+ * Ils sont aussi ajoutés à un journal binaire (voir {@link StatisticsLog}), écrit par
+ * lots par un unique fil d'exécution, puis relu à la création de l'instance suivante.
+ * Ce journal est périodiquement compacté : les résultats qu'il contient sont remplacés
+ * par l'histogramme des nombres de déplacements et par le classement de chaque forme.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class GameStatistics implements AutoCloseable {
+
+    /**
+     * Le nombre de résultats conservés par défaut dans le classement de chaque forme.
+     */
+    public static final int DEFAULT_LEADERBOARD_SIZE = 100;
+
+    /**
+     * La période par défaut entre deux compactages du journal.
+     */
+    public static final Duration DEFAULT_COMPACTION_PERIOD = Duration.ofMinutes(10);
+
+    /**
+     * Le logger de cette classe.
+     */
+    private static final System.Logger LOGGER =
+            System.getLogger(GameStatistics.class.getName());
+
+    /**
+     * La taille (en octets) du tampon d'écriture du journal.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Le marqueur demandant le compactage du journal.
+     */
+    private static final GameResult COMPACT = new GameResult(0, 0, 0, 0, 0, -1);
+
+    /**
+     * Le marqueur demandant l'arrêt de l'écriture du journal.
+     */
+    private static final GameResult CLOSE = new GameResult(0, 0, 0, 0, 0, -1);
+
+    /**
+     * Le fichier contenant le journal.
+     */
+    private final Path file;
+
+    /**
+     * La période entre deux compactages du journal.
+     */
+    private final Duration compactionPeriod;
+
+    /**
+     * L'index des statistiques.
+     */
+    private final StatisticsIndex index;
+
+    /**
+     * Les résultats en attente d'écriture dans le journal.
+     */
+    private final BlockingQueue<GameResult> pending = new LinkedTransferQueue<>();
+
+    /**
+     * Le fil d'exécution écrivant le journal.
+     */
+    private final Thread writer;
+
+    /**
+     * Le canal permettant d'écrire le journal (utilisé uniquement par {@link #writer}).
+     */
+    private FileChannel channel;
+
+    /**
+     * Si cette instance a été fermée.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Crée une nouvelle instance de GameStatistics, utilisant les paramètres par
+     * défaut.
+     *
+     * @param file Le fichier contenant le journal (créé s'il n'existe pas).
+     *
+     * @throws IOException Si le journal ne peut pas être ouvert ou relu.
+     */
+    public GameStatistics(Path file) throws IOException {
+        this(file, DEFAULT_COMPACTION_PERIOD, DEFAULT_LEADERBOARD_SIZE);
+    }
+
+    /**
+     * Crée une nouvelle instance de GameStatistics.
+     *
+     * @param file Le fichier contenant le journal (créé s'il n'existe pas).
+     * @param compactionPeriod La période entre deux compactages du journal.
+     * @param leaderboardSize Le nombre de résultats conservés dans le classement de
+     *        chaque forme de grille.
+     *
+     * @throws IOException Si le journal ne peut pas être ouvert ou relu.
+     * @throws IllegalArgumentException Si la période ou la taille du classement n'est
+     *         pas strictement positive.
+     */
+    public GameStatistics(Path file, Duration compactionPeriod, int leaderboardSize)
+            throws IOException {
+        if (compactionPeriod.isNegative() || compactionPeriod.isZero()) {
+            throw new IllegalArgumentException("Période de compactage invalide");
+        }
+        if (leaderboardSize <= 0) {
+            throw new IllegalArgumentException("Taille de classement invalide");
+        }
+
+        this.file = file;
+        this.compactionPeriod = compactionPeriod;
+        this.index = new StatisticsIndex(leaderboardSize);
+        this.channel = open(file, index);
+        this.writer = new Thread(this::writeLog, "statistics-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Ouvre le journal, et enregistre son contenu dans un index.
+     * Un journal vide reçoit son en-tête, et un enregistrement incomplet en fin de
+     * journal est supprimé.
+     * Un journal de la version précédente est réécrit dans le format courant.
+     *
+     * @param file Le fichier contenant le journal.
+     * @param index L'index dans lequel enregistrer le contenu du journal.
+     *
+     * @return Le canal permettant d'ajouter des enregistrements au journal.
+     *
+     * @throws IOException Si le journal ne peut pas être ouvert ou relu.
+     */
+    private static FileChannel open(Path file, StatisticsIndex index) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(StatisticsLog.HEADER_SIZE);
+                StatisticsLog.putHeader(header);
+                header.flip();
+                StatisticsLog.drain(channel, header);
+
+            } else if (StatisticsLog.isLegacy(channel)) {
+                StatisticsLog.replay(channel, index);
+                channel.close();
+                rewrite(file, index);
+                channel = FileChannel.open(file, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                channel.position(channel.size());
+
+            } else {
+                long valid = StatisticsLog.replay(channel, index);
+                channel.truncate(valid);
+                channel.position(valid);
+            }
+            return channel;
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Enregistre le résultat d'une partie terminée maintenant sur une grille carrée.
+     *
+     * @param size La taille de la grille sur laquelle la partie a été jouée.
+     * @param layout Le code de hachage de la disposition initiale des tuiles.
+     * @param nbMoves Le nombre de déplacements réalisés pour remettre la grille dans
+     *        l'ordre.
+     *
+     * @return Le résultat enregistré.
+     *
+     * @throws IllegalStateException Si cette instance a été fermée.
+     */
+    public GameResult record(int size, long layout, int nbMoves) {
+        return record(size, size, layout, nbMoves);
+    }
+
+    /**
+     * Enregistre le résultat d'une partie terminée maintenant.
+     *
+     * @param rows Le nombre de lignes de la grille sur laquelle la partie a été jouée.
+     * @param columns Le nombre de colonnes de cette grille.
+     * @param layout Le code de hachage de la disposition initiale des tuiles.
+     * @param nbMoves Le nombre de déplacements réalisés pour remettre la grille dans
+     *        l'ordre.
+     *
+     * @return Le résultat enregistré.
+     *
+     * @throws IllegalStateException Si cette instance a été fermée.
+     */
+    public GameResult record(int rows, int columns, long layout, int nbMoves) {
+        if (closed) {
+            throw new IllegalStateException("Statistiques fermées");
+        }
+        GameResult result = index.newResult(
+                rows, columns, layout, nbMoves, System.currentTimeMillis());
+        index.add(result);
+        pending.offer(result);
+        return result;
+    }
+
+    /**
+     * Donne le nombre de parties terminées sur une grille carrée de taille donnée.
+     *
+     * @param size La taille de la grille.
+     *
+     * @return Le nombre de parties terminées.
+     */
+    public long getNbGames(int size) {
+        return getNbGames(size, size);
+    }
+
+    /**
+     * Donne le nombre de parties terminées sur une grille de forme donnée.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return Le nombre de parties terminées.
+     */
+    public long getNbGames(int rows, int columns) {
+        ShapeStatistics statistics = index.get(rows, columns);
+        return (statistics == null) ? 0 : statistics.getNbGames();
+    }
+
+    /**
+     * Donne le plus petit nombre de déplacements avec lequel une partie a été terminée
+     * sur une grille carrée de taille donnée.
+     *
+     * @param size La taille de la grille.
+     *
+     * @return Le meilleur score, ou {@code -1} si aucune partie n'a été terminée.
+     */
+    public int getBestScore(int size) {
+        return getBestScore(size, size);
+    }
+
+    /**
+     * Donne le plus petit nombre de déplacements avec lequel une partie a été terminée
+     * sur une grille de forme donnée.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return Le meilleur score, ou {@code -1} si aucune partie n'a été terminée.
+     */
+    public int getBestScore(int rows, int columns) {
+        ShapeStatistics statistics = index.get(rows, columns);
+        return (statistics == null) ? -1 : statistics.getBest();
+    }
+
+    /**
+     * Donne le nombre moyen de déplacements des parties terminées sur une grille carrée
+     * de taille donnée.
+     *
+     * @param size La taille de la grille.
+     *
+     * @return Le nombre moyen de déplacements, ou {@code 0} si aucune partie n'a été
+     *         terminée.
+     */
+    public double getAverageMoves(int size) {
+        return getAverageMoves(size, size);
+    }
+
+    /**
+     * Donne le nombre moyen de déplacements des parties terminées sur une grille de
+     * forme donnée.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return Le nombre moyen de déplacements, ou {@code 0} si aucune partie n'a été
+     *         terminée.
+     */
+    public double getAverageMoves(int rows, int columns) {
+        ShapeStatistics statistics = index.get(rows, columns);
+        return (statistics == null) ? 0 : statistics.getAverage();
+    }
+
+    /**
+     * Donne un centile du nombre de déplacements des parties terminées sur une grille
+     * carrée de taille donnée.
+     *
+     * @param size La taille de la grille.
+     * @param percentile Le centile recherché (entre {@code 0} et {@code 100}).
+     *
+     * @return Le centile recherché, ou {@code -1} si aucune partie n'a été terminée.
+     *
+     * @throws IllegalArgumentException Si le centile n'est pas compris entre {@code 0}
+     *         et {@code 100}.
+     *
+     * @see #getPercentile(int, int, double)
+     */
+    public int getPercentile(int size, double percentile) {
+        return getPercentile(size, size, percentile);
+    }
+
+    /**
+     * Donne un centile du nombre de déplacements des parties terminées sur une grille de
+     * forme donnée.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     * @param percentile Le centile recherché (entre {@code 0} et {@code 100}).
+     *
+     * @return Le plus petit nombre de déplacements tel que le pourcentage donné des
+     *         parties ont été terminées en au plus ce nombre de déplacements, ou
+     *         {@code -1} si aucune partie n'a été terminée.
+     *
+     * @throws IllegalArgumentException Si le centile n'est pas compris entre {@code 0}
+     *         et {@code 100}.
+     */
+    public int getPercentile(int rows, int columns, double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("Centile invalide : " + percentile);
+        }
+        ShapeStatistics statistics = index.get(rows, columns);
+        return (statistics == null) ? -1 : statistics.getPercentile(percentile);
+    }
+
+    /**
+     * Donne les meilleurs résultats obtenus sur une grille carrée de taille donnée.
+     *
+     * @param size La taille de la grille.
+     * @param n Le nombre de résultats souhaités (au plus la taille du classement).
+     *
+     * @return La liste (non modifiable) des meilleurs résultats, du meilleur au moins
+     *         bon.
+     */
+    public List<GameResult> getTopScores(int size, int n) {
+        return getTopScores(size, size, n);
+    }
+
+    /**
+     * Donne les meilleurs résultats obtenus sur une grille de forme donnée.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     * @param n Le nombre de résultats souhaités (au plus la taille du classement).
+     *
+     * @return La liste (non modifiable) des meilleurs résultats, du meilleur au moins
+     *         bon.
+     */
+    public List<GameResult> getTopScores(int rows, int columns, int n) {
+        ShapeStatistics statistics = index.get(rows, columns);
+        return (statistics == null) ? List.of() : statistics.getTop(n);
+    }
+
+    /**
+     * Demande le compactage du journal, sans attendre la fin de celui-ci.
+     */
+    public void compact() {
+        if (!closed) {
+            pending.offer(COMPACT);
+        }
+    }
+
+    /**
+     * Écrit le journal, jusqu'à la fermeture de cette instance.
+     * Les résultats en attente sont écrits par lots, dès que plus aucun résultat n'est
+     * en attente ou que le tampon est plein.
+     */
+    private void writeLog() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long period = compactionPeriod.toNanos();
+        long nextCompaction = System.nanoTime() + period;
+
+        while (true) {
+            try {
+                long delay = Math.max(0, nextCompaction - System.nanoTime());
+                GameResult result = pending.poll(delay, TimeUnit.NANOSECONDS);
+
+                if (result == CLOSE) {
+                    flush(buffer);
+                    channel.force(false);
+                    return;
+                }
+
+                if (result == COMPACT) {
+                    nextCompaction = System.nanoTime();
+                } else if (result != null) {
+                    StatisticsLog.put(buffer, StatisticsLog.RESULT, result);
+                    if ((buffer.remaining() < StatisticsLog.RECORD_SIZE)
+                            || pending.isEmpty()) {
+                        flush(buffer);
+                    }
+                }
+
+                if (System.nanoTime() >= nextCompaction) {
+                    flush(buffer);
+                    compactLog();
+                    nextCompaction = System.nanoTime() + period;
+                }
+
+            } catch (IOException e) {
+                // Les résultats restent disponibles dans l'index jusqu'à la fermeture.
+                LOGGER.log(Level.WARNING,
+                        "Échec de l'écriture du journal de statistiques", e);
+                buffer.clear();
+                nextCompaction = System.nanoTime() + period;
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Écrit dans le journal le contenu du tampon.
+     *
+     * @param buffer Le tampon à écrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    private void flush(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        try {
+            StatisticsLog.drain(channel, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Compacte le journal.
+     * Celui-ci est relu dans un nouvel index (l'index courant pouvant contenir des
+     * résultats pas encore écrits), dont le contenu est écrit dans un fichier temporaire
+     * remplaçant ensuite le journal.
+     *
+     * @throws IOException Si une erreur se produit lors du compactage.
+     */
+    private void compactLog() throws IOException {
+        StatisticsIndex compacted = new StatisticsIndex(index.leaderboardCapacity());
+        StatisticsLog.replay(channel, compacted);
+
+        channel.close();
+        try {
+            rewrite(file, compacted);
+        } finally {
+            channel = FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    /**
+     * Remplace le journal par un journal compact décrivant le contenu d'un index.
+     * Ce journal est écrit dans un fichier temporaire, qui remplace ensuite le journal.
+     *
+     * @param file Le fichier contenant le journal.
+     * @param contents L'index décrivant le contenu du journal.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    private static void rewrite(Path file, StatisticsIndex contents) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        StatisticsLog.writeSnapshot(tmp, contents);
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        pending.offer(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * La classe ShapeStatistics maintient, sans verrou, les statistiques des parties jouées
+ * sur les grilles d'une forme (nombre de lignes et de colonnes) donnée.
+ *
+ * Toutes ses méthodes peuvent être appelées simultanément par plusieurs threads.
+ * Les consultations reflètent les résultats enregistrés avant leur appel, et
+ * éventuellement une partie de ceux enregistrés pendant.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class ShapeStatistics {
+
+    /**
+     * L'ordre des résultats dans le classement : les moins de déplacements d'abord, puis
+     * les plus anciens.
+     */
+    private static final Comparator<GameResult> RANKING = Comparator
+            .comparingInt(GameResult::getNbMoves)
+            .thenComparingLong(GameResult::getTimestamp)
+            .thenComparingLong(GameResult::getOrder);
+
+    /**
+     * Le nombre de parties terminées.
+     */
+    private final LongAdder nbGames = new LongAdder();
+
+    /**
+     * Le nombre total de déplacements de ces parties.
+     */
+    private final LongAdder totalMoves = new LongAdder();
+
+    /**
+     * Le plus petit nombre de déplacements d'une partie.
+     */
+    private final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+
+    /**
+     * Le nombre de parties terminées en chaque nombre de déplacements.
+     */
+    private final ConcurrentNavigableMap<Integer, LongAdder> histogram =
+            new ConcurrentSkipListMap<>();
+
+    /**
+     * Les meilleurs résultats, dans l'ordre du classement.
+     */
+    private final ConcurrentNavigableMap<GameResult, Boolean> leaderboard =
+            new ConcurrentSkipListMap<>(RANKING);
+
+    /**
+     * Le nombre de résultats dans le classement.
+     */
+    private final AtomicInteger leaderboardSize = new AtomicInteger();
+
+    /**
+     * Le nombre maximal de résultats conservés dans le classement.
+     */
+    private final int leaderboardCapacity;
+
+    /**
+     * Crée une nouvelle instance de ShapeStatistics.
+     *
+     * @param leaderboardCapacity Le nombre maximal de résultats conservés dans le
+     *        classement.
+     */
+    ShapeStatistics(int leaderboardCapacity) {
+        this.leaderboardCapacity = leaderboardCapacity;
+    }
+
+    /**
+     * Enregistre le résultat d'une partie.
+     *
+     * @param result Le résultat à enregistrer.
+     */
+    void add(GameResult result) {
+        addGames(result.getNbMoves(), 1);
+        rank(result);
+    }
+
+    /**
+     * Enregistre un nombre de parties terminées en un même nombre de déplacements, sans
+     * les faire apparaître dans le classement.
+     *
+     * @param nbMoves Le nombre de déplacements de ces parties.
+     * @param count Le nombre de parties.
+     */
+    void addGames(int nbMoves, long count) {
+        nbGames.add(count);
+        totalMoves.add(nbMoves * count);
+        if (nbMoves < best.get()) {
+            best.accumulateAndGet(nbMoves, Math::min);
+        }
+
+        LongAdder counter = histogram.get(nbMoves);
+        if (counter == null) {
+            counter = histogram.computeIfAbsent(nbMoves, k -> new LongAdder());
+        }
+        counter.add(count);
+    }
+
+    /**
+     * Fait apparaître un résultat dans le classement, s'il fait partie des meilleurs.
+     *
+     * @param result Le résultat à classer.
+     */
+    void rank(GameResult result) {
+        if (leaderboardSize.get() >= leaderboardCapacity) {
+            Map.Entry<GameResult, Boolean> worst = leaderboard.lastEntry();
+            if ((worst != null) && (RANKING.compare(result, worst.getKey()) >= 0)) {
+                // Ce résultat n'entre pas dans le classement.
+                return;
+            }
+        }
+
+        if ((leaderboard.putIfAbsent(result, Boolean.TRUE) == null)
+                && (leaderboardSize.incrementAndGet() > leaderboardCapacity)
+                && (leaderboard.pollLastEntry() != null)) {
+            leaderboardSize.decrementAndGet();
+        }
+    }
+
+    /**
+     * Donne le nombre de parties terminées.
+     *
+     * @return Le nombre de parties terminées.
+     */
+    long getNbGames() {
+        return nbGames.sum();
+    }
+
+    /**
+     * Donne le nombre moyen de déplacements des parties terminées.
+     *
+     * @return Le nombre moyen de déplacements, ou {@code 0} si aucune partie n'est
+     *         terminée.
+     */
+    double getAverage() {
+        long games = nbGames.sum();
+        return (games == 0) ? 0 : ((double) totalMoves.sum() / games);
+    }
+
+    /**
+     * Donne le plus petit nombre de déplacements d'une partie.
+     *
+     * @return Le meilleur score, ou {@code -1} si aucune partie n'est terminée.
+     */
+    int getBest() {
+        int value = best.get();
+        return (value == Integer.MAX_VALUE) ? -1 : value;
+    }
+
+    /**
+     * Donne un percentile du nombre de déplacements des parties terminées.
+     *
+     * @param percentile Le percentile recherché (entre {@code 0} et {@code 100}).
+     *
+     * @return Le plus petit nombre de déplacements tel qu'au moins {@code percentile}
+     *         pour cent des parties ont été terminées en ce nombre de déplacements ou
+     *         moins, ou {@code -1} si aucune partie n'est terminée.
+     */
+    int getPercentile(double percentile) {
+        long total = 0;
+        for (LongAdder counter : histogram.values()) {
+            total += counter.sum();
+        }
+        if (total == 0) {
+            return -1;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (Map.Entry<Integer, LongAdder> entry : histogram.entrySet()) {
+            seen += entry.getValue().sum();
+            if (seen >= rank) {
+                return entry.getKey();
+            }
+        }
+        return histogram.lastKey();
+    }
+
+    /**
+     * Donne les meilleurs résultats du classement.
+     *
+     * @param n Le nombre maximal de résultats à donner.
+     *
+     * @return Les {@code n} meilleurs résultats (au plus), du meilleur au moins bon.
+     */
+    List<GameResult> getTop(int n) {
+        List<GameResult> top = new ArrayList<>(Math.min(n, leaderboardCapacity));
+        for (GameResult result : leaderboard.keySet()) {
+            if (top.size() == n) {
+                break;
+            }
+            top.add(result);
+        }
+        return top;
+    }
+
+    /**
+     * Donne le nombre de parties terminées en chaque nombre de déplacements.
+     *
+     * @return La table (partagée) associant à chaque nombre de déplacements son nombre
+     *         de parties.
+     */
+    Map<Integer, LongAdder> histogram() {
+        return histogram;
+    }
+
+}
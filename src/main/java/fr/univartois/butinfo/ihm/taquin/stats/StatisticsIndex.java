@@ -0,0 +1,191 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * La classe StatisticsIndex maintient en mémoire, sans verrou, les statistiques des
+ * parties pour chaque forme de grille.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class StatisticsIndex {
+
+    /**
+     * Les statistiques associées à chaque forme de grille (voir {@link #shape(int, int)}).
+     */
+    private final ConcurrentMap<Integer, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * Le compteur permettant d'attribuer un ordre d'enregistrement aux résultats.
+     */
+    private final AtomicLong order = new AtomicLong();
+
+    /**
+     * Le nombre maximal de résultats conservés dans le classement de chaque forme.
+     */
+    private final int leaderboardCapacity;
+
+    /**
+     * Crée une nouvelle instance de StatisticsIndex.
+     *
+     * @param leaderboardCapacity Le nombre maximal de résultats conservés dans le
+     *        classement de chaque forme.
+     */
+    StatisticsIndex(int leaderboardCapacity) {
+        this.leaderboardCapacity = leaderboardCapacity;
+    }
+
+    /**
+     * Donne la clé identifiant une forme de grille.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return La clé de la forme.
+     */
+    static int shape(int rows, int columns) {
+        return (rows << Byte.SIZE) | columns;
+    }
+
+    /**
+     * Donne le nombre de lignes d'une forme de grille.
+     *
+     * @param shape La clé de la forme.
+     *
+     * @return Le nombre de lignes.
+     */
+    static int rows(int shape) {
+        return shape >>> Byte.SIZE;
+    }
+
+    /**
+     * Donne le nombre de colonnes d'une forme de grille.
+     *
+     * @param shape La clé de la forme.
+     *
+     * @return Le nombre de colonnes.
+     */
+    static int columns(int shape) {
+        return shape & 0xff;
+    }
+
+    /**
+     * Crée un nouveau résultat, en lui attribuant son ordre d'enregistrement.
+     *
+     * @param rows Le nombre de lignes de la grille sur laquelle la partie a été jouée.
+     * @param columns Le nombre de colonnes de cette grille.
+     * @param layout Le code de hachage de la disposition initiale des tuiles.
+     * @param nbMoves Le nombre de déplacements réalisés.
+     * @param timestamp L'instant auquel la partie s'est terminée.
+     *
+     * @return Le résultat créé.
+     */
+    GameResult newResult(int rows, int columns, long layout, int nbMoves, long timestamp) {
+        return new GameResult(rows, columns, layout, nbMoves, timestamp,
+                order.getAndIncrement());
+    }
+
+    /**
+     * Enregistre le résultat d'une partie.
+     *
+     * @param result Le résultat à enregistrer.
+     */
+    void add(GameResult result) {
+        forShape(shape(result.getRows(), result.getColumns())).add(result);
+    }
+
+    /**
+     * Enregistre un nombre de parties terminées en un même nombre de déplacements, sans
+     * les faire apparaître dans le classement.
+     *
+     * @param rows Le nombre de lignes de la grille sur laquelle les parties ont été
+     *        jouées.
+     * @param columns Le nombre de colonnes de cette grille.
+     * @param nbMoves Le nombre de déplacements de ces parties.
+     * @param count Le nombre de parties.
+     */
+    void addGames(int rows, int columns, int nbMoves, long count) {
+        forShape(shape(rows, columns)).addGames(nbMoves, count);
+    }
+
+    /**
+     * Fait apparaître un résultat dans le classement, s'il fait partie des meilleurs.
+     *
+     * @param result Le résultat à classer.
+     */
+    void rank(GameResult result) {
+        forShape(shape(result.getRows(), result.getColumns())).rank(result);
+    }
+
+    /**
+     * Donne les statistiques associées à une forme de grille.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     *
+     * @return Les statistiques de cette forme, ou {@code null} si aucune partie n'a été
+     *         jouée sur une grille de cette forme.
+     */
+    ShapeStatistics get(int rows, int columns) {
+        return shapes.get(shape(rows, columns));
+    }
+
+    /**
+     * Donne les statistiques associées à chaque forme de grille.
+     *
+     * @return La table (partagée) des statistiques de chaque forme, indexée par la clé de
+     *         la forme.
+     */
+    Map<Integer, ShapeStatistics> shapes() {
+        return shapes;
+    }
+
+    /**
+     * Donne le nombre maximal de résultats conservés dans le classement de chaque
+     * forme.
+     *
+     * @return La taille des classements.
+     */
+    int leaderboardCapacity() {
+        return leaderboardCapacity;
+    }
+
+    /**
+     * Donne les statistiques associées à une forme de grille, en les créant si
+     * nécessaire.
+     *
+     * @param shape La clé de la forme.
+     *
+     * @return Les statistiques de cette forme.
+     */
+    private ShapeStatistics forShape(int shape) {
+        ShapeStatistics statistics = shapes.get(shape);
+        if (statistics == null) {
+            statistics = shapes.computeIfAbsent(
+                    shape, s -> new ShapeStatistics(leaderboardCapacity));
+        }
+        return statistics;
+    }
+
+}
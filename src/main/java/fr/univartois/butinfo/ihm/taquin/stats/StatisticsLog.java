@@ -0,0 +1,334 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * La classe StatisticsLog définit le format du journal binaire des statistiques, et
+ * permet de le lire et de l'écrire.
+ *
+ * Le journal commence par un en-tête (un nombre magique et une version), suivi
+ * d'enregistrements de taille fixe.
+ * Chaque enregistrement contient son type, le nombre de lignes et de colonnes de la
+ * grille, un nombre de déplacements, le code de hachage d'une disposition et une valeur
+ * dont le sens dépend du type :
+ * <ul>
+ * <li>{@link #RESULT} : le résultat d'une partie, la valeur étant l'instant de sa fin ;</li>
+ * <li>{@link #GAMES} : un nombre de parties (la valeur) terminées en un même nombre de
+ * déplacements, produit par le compactage ;</li>
+ * <li>{@link #RANKED} : un résultat du classement, produit par le compactage, dont la
+ * partie est déjà comptée par un enregistrement {@link #GAMES}.</li>
+ * </ul>
+ *
+ * Les journaux de la version précédente, dont les enregistrements ne contiennent que la
+ * taille des grilles (toutes carrées), peuvent encore être relus.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class StatisticsLog {
+
+    /**
+     * Le type des enregistrements décrivant le résultat d'une partie.
+     */
+    static final byte RESULT = 1;
+
+    /**
+     * Le type des enregistrements décrivant un nombre de parties.
+     */
+    static final byte GAMES = 2;
+
+    /**
+     * Le type des enregistrements décrivant un résultat du classement.
+     */
+    static final byte RANKED = 3;
+
+    /**
+     * La taille (en octets) d'un enregistrement.
+     */
+    static final int RECORD_SIZE = 3 * Byte.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * La taille (en octets) d'un enregistrement de la version précédente.
+     */
+    private static final int LEGACY_RECORD_SIZE = 2 * Byte.BYTES + Integer.BYTES
+            + 2 * Long.BYTES;
+
+    /**
+     * La taille (en octets) de l'en-tête du journal.
+     */
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Le nombre magique identifiant les journaux de statistiques.
+     */
+    private static final int MAGIC = 0x54515354;
+
+    /**
+     * La version du format des journaux.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * La version précédente du format des journaux, dans laquelle toutes les grilles
+     * étaient carrées.
+     */
+    private static final int LEGACY_VERSION = 1;
+
+    /**
+     * La taille (en octets) des tampons de lecture et d'écriture.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Désactive l'instanciation de cette classe utilitaire.
+     */
+    private StatisticsLog() {
+        throw new AssertionError("StatisticsLog ne doit pas être instanciée");
+    }
+
+    /**
+     * Écrit l'en-tête du journal dans un tampon.
+     *
+     * @param buffer Le tampon dans lequel écrire.
+     */
+    static void putHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+    }
+
+    /**
+     * Écrit un enregistrement dans un tampon.
+     *
+     * @param buffer Le tampon dans lequel écrire.
+     * @param type Le type de l'enregistrement.
+     * @param result Le résultat décrit par l'enregistrement.
+     */
+    static void put(ByteBuffer buffer, byte type, GameResult result) {
+        put(buffer, type, result.getRows(), result.getColumns(), result.getNbMoves(),
+                result.getLayout(), result.getTimestamp());
+    }
+
+    /**
+     * Écrit un enregistrement dans un tampon.
+     *
+     * @param buffer Le tampon dans lequel écrire.
+     * @param type Le type de l'enregistrement.
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     * @param nbMoves Le nombre de déplacements.
+     * @param layout Le code de hachage d'une disposition.
+     * @param value La valeur associée à l'enregistrement.
+     */
+    static void put(ByteBuffer buffer, byte type, int rows, int columns, int nbMoves,
+            long layout, long value) {
+        buffer.put(type);
+        buffer.put((byte) rows);
+        buffer.put((byte) columns);
+        buffer.putInt(nbMoves);
+        buffer.putLong(layout);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Écrit tout le contenu d'un tampon dans un canal.
+     *
+     * @param channel Le canal dans lequel écrire.
+     * @param buffer Le tampon à écrire (prêt à être écrit).
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Lit la version du journal accessible par un canal.
+     *
+     * @param channel Le canal permettant de lire le journal.
+     *
+     * @return La version du format du journal.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture, ou si le canal ne
+     *         contient pas un journal valide.
+     */
+    private static int version(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Journal de statistiques tronqué");
+            }
+        }
+        header.flip();
+
+        int version = (header.getInt() == MAGIC) ? header.getInt() : -1;
+        if ((version != VERSION) && (version != LEGACY_VERSION)) {
+            throw new IOException("Format de journal de statistiques invalide");
+        }
+        return version;
+    }
+
+    /**
+     * Vérifie si le journal accessible par un canal est au format de la version
+     * précédente, et doit donc être réécrit avant de recevoir de nouveaux
+     * enregistrements.
+     *
+     * @param channel Le canal permettant de lire le journal.
+     *
+     * @return Si le journal est au format de la version précédente.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture, ou si le canal ne
+     *         contient pas un journal valide.
+     */
+    static boolean isLegacy(FileChannel channel) throws IOException {
+        return version(channel) == LEGACY_VERSION;
+    }
+
+    /**
+     * Relit un journal, et enregistre son contenu dans un index.
+     * Un enregistrement incomplet à la fin du journal (suite par exemple à un arrêt
+     * brutal) est ignoré.
+     * Dans un journal de la version précédente, chaque grille de taille {@code n} est
+     * lue comme une grille de {@code n} lignes et {@code n} colonnes.
+     *
+     * @param channel Le canal permettant de lire le journal.
+     * @param index L'index dans lequel enregistrer le contenu du journal.
+     *
+     * @return La taille de la partie valide du journal (en octets).
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture, ou si le canal ne
+     *         contient pas un journal valide.
+     */
+    static long replay(FileChannel channel, StatisticsIndex index) throws IOException {
+        boolean legacy = version(channel) == LEGACY_VERSION;
+        int recordSize = legacy ? LEGACY_RECORD_SIZE : RECORD_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long position = HEADER_SIZE;
+        long valid = HEADER_SIZE;
+        while (true) {
+            int read = channel.read(buffer, position);
+            if (read > 0) {
+                position += read;
+            }
+            buffer.flip();
+
+            while (buffer.remaining() >= recordSize) {
+                apply(buffer, index, legacy);
+                valid += recordSize;
+            }
+            buffer.compact();
+
+            if (read < 0) {
+                // Un éventuel enregistrement incomplet en fin de journal est ignoré.
+                return valid;
+            }
+        }
+    }
+
+    /**
+     * Lit un enregistrement, et l'enregistre dans un index.
+     *
+     * @param buffer Le tampon contenant l'enregistrement.
+     * @param index L'index dans lequel enregistrer son contenu.
+     * @param legacy Si l'enregistrement est au format de la version précédente.
+     *
+     * @throws IOException Si l'enregistrement n'est pas valide.
+     */
+    private static void apply(ByteBuffer buffer, StatisticsIndex index, boolean legacy)
+            throws IOException {
+        byte type = buffer.get();
+        int rows = Byte.toUnsignedInt(buffer.get());
+        int columns = legacy ? rows : Byte.toUnsignedInt(buffer.get());
+        int nbMoves = buffer.getInt();
+        long layout = buffer.getLong();
+        long value = buffer.getLong();
+
+        switch (type) {
+            case RESULT -> index.add(index.newResult(rows, columns, layout, nbMoves, value));
+            case GAMES -> index.addGames(rows, columns, nbMoves, value);
+            case RANKED -> index.rank(index.newResult(rows, columns, layout, nbMoves, value));
+            default -> throw new IOException("Enregistrement de type inconnu : " + type);
+        }
+    }
+
+    /**
+     * Écrit dans un nouveau fichier un journal compact décrivant le contenu d'un index.
+     *
+     * @param file Le fichier dans lequel écrire le journal.
+     * @param index L'index à décrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    static void writeSnapshot(Path file, StatisticsIndex index) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            putHeader(buffer);
+
+            for (Map.Entry<Integer, ShapeStatistics> entry : index.shapes().entrySet()) {
+                int rows = StatisticsIndex.rows(entry.getKey());
+                int columns = StatisticsIndex.columns(entry.getKey());
+                ShapeStatistics statistics = entry.getValue();
+                for (Map.Entry<Integer, LongAdder> games : statistics.histogram().entrySet()) {
+                    buffer = ensureRoom(channel, buffer);
+                    put(buffer, GAMES, rows, columns, games.getKey(), 0,
+                            games.getValue().sum());
+                }
+                for (GameResult result : statistics.getTop(index.leaderboardCapacity())) {
+                    buffer = ensureRoom(channel, buffer);
+                    put(buffer, RANKED, result);
+                }
+            }
+
+            buffer.flip();
+            drain(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * S'assure qu'un tampon peut recevoir un enregistrement, en écrivant son contenu si
+     * nécessaire.
+     *
+     * @param channel Le canal dans lequel écrire le contenu du tampon.
+     * @param buffer Le tampon à vérifier.
+     *
+     * @return Le tampon, prêt à recevoir un enregistrement.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture.
+     */
+    private static ByteBuffer ensureRoom(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            buffer.flip();
+            drain(channel, buffer);
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+}
@@ -0,0 +1,209 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * La classe InstanceSet représente un ensemble de grilles de référence, sur lesquelles
+ * les solveurs sont comparés d'une version à l'autre.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class InstanceSet {
+
+    /**
+     * La ressource contenant les 100 instances de Korf.
+     */
+    private static final String KORF_100 = "korf100.txt";
+
+    /**
+     * Le préfixe des lignes de commentaires des fichiers d'instances.
+     */
+    private static final String COMMENT = "#";
+
+    /**
+     * Le séparateur entre une grille et sa longueur optimale connue.
+     */
+    private static final String LENGTH_SEPARATOR = ";";
+
+    /**
+     * La valeur indiquant qu'aucune longueur optimale n'est connue pour une grille.
+     */
+    static final int UNKNOWN_LENGTH = -1;
+
+    /**
+     * Le nom de cet ensemble.
+     */
+    private final String name;
+
+    /**
+     * La taille des grilles de cet ensemble (en nombre de tuiles par côté).
+     */
+    private final int size;
+
+    /**
+     * Les grilles de cet ensemble.
+     */
+    private final List<int[]> instances;
+
+    /**
+     * Les longueurs optimales connues des grilles de cet ensemble.
+     */
+    private final int[] optimalLengths;
+
+    /**
+     * Crée une nouvelle instance de InstanceSet.
+     *
+     * @param name Le nom de l'ensemble.
+     * @param size La taille des grilles.
+     * @param instances Les grilles de l'ensemble.
+     * @param optimalLengths Les longueurs optimales connues des grilles.
+     */
+    private InstanceSet(String name, int size, List<int[]> instances, int[] optimalLengths) {
+        this.name = name;
+        this.size = size;
+        this.instances = Collections.unmodifiableList(instances);
+        this.optimalLengths = optimalLengths;
+    }
+
+    /**
+     * Crée l'ensemble des 100 instances 4x4 de Korf, dont les longueurs optimales sont
+     * connues.
+     *
+     * @return L'ensemble des instances de Korf.
+     */
+    static InstanceSet korf100() {
+        List<int[]> instances = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+
+        try (InputStream stream = InstanceSet.class.getResourceAsStream(KORF_100);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith(COMMENT)) {
+                    continue;
+                }
+
+                String[] fields = line.split(LENGTH_SEPARATOR);
+                int[] tiles = Boards.parse(fields[0]);
+                Boards.checkLayout(tiles, 4);
+                instances.add(tiles);
+                lengths.add(Integer.parseInt(fields[1].strip()));
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new InstanceSet("korf100", 4, instances,
+                lengths.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Crée un ensemble de grilles obtenues par des marches aléatoires (reproductibles)
+     * depuis la grille ordonnée.
+     * Une marche ne revient jamais immédiatement sur ses pas, mais la longueur optimale
+     * d'une grille peut être inférieure à celle de sa marche.
+     *
+     * @param size La taille des grilles (en nombre de tuiles par côté).
+     * @param count Le nombre de grilles de l'ensemble.
+     * @param walkLength Le nombre de déplacements de chaque marche.
+     * @param seed La graine du générateur aléatoire.
+     *
+     * @return L'ensemble des grilles.
+     */
+    static InstanceSet seeded(int size, int count, int walkLength, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] neighbours = Boards.neighbours(size);
+        List<int[]> instances = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            int[] tiles = Boards.goal(size);
+            int empty = tiles.length - 1;
+            int previous = -1;
+            for (int step = 0; step < walkLength; step++) {
+                int next;
+                do {
+                    next = neighbours[empty][random.nextInt(neighbours[empty].length)];
+                } while ((next < 0) || (next == previous));
+                tiles[empty] = tiles[next];
+                tiles[next] = 0;
+                previous = empty;
+                empty = next;
+            }
+            instances.add(tiles);
+        }
+
+        int[] lengths = new int[count];
+        Arrays.fill(lengths, UNKNOWN_LENGTH);
+        return new InstanceSet("seeded" + size + "x" + size, size, instances, lengths);
+    }
+
+    /**
+     * Donne le nom de cet ensemble.
+     *
+     * @return Le nom de cet ensemble.
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Donne la taille des grilles de cet ensemble.
+     *
+     * @return La taille des grilles (en nombre de tuiles par côté).
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Donne les grilles de cet ensemble.
+     *
+     * @return La liste (non modifiable) des grilles.
+     */
+    List<int[]> getInstances() {
+        return instances;
+    }
+
+    /**
+     * Donne la longueur optimale connue d'une grille de cet ensemble.
+     *
+     * @param index L'indice de la grille.
+     *
+     * @return La longueur optimale de la grille, ou {@link #UNKNOWN_LENGTH} si elle
+     *         n'est pas connue.
+     */
+    int getOptimalLength(int index) {
+        return optimalLengths[index];
+    }
+
+}
@@ -0,0 +1,281 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * La classe RegressionBaseline représente les mesures de référence de la suite de
+ * régression, auxquelles sont comparées les mesures d'une nouvelle exécution.
+ *
+ * Les mesures sont comparées par ensemble de grilles et par mode de résolution, sur les
+ * grilles mesurées à la fois dans la référence et dans la nouvelle exécution.
+ * Une régression est signalée lorsque :
+ * <ul>
+ * <li>une solution optimale n'a plus la même longueur (ce qui révèle une erreur) ;</li>
+ * <li>le nombre total de nœuds, le temps total ou l'occupation maximale du tas dépasse
+ * la référence de plus du seuil donné ;</li>
+ * <li>le débit (en nœuds par seconde) est inférieur à la référence de plus du seuil
+ * donné ;</li>
+ * <li>pour les modes limités dans le temps, où seuls le débit et la qualité des
+ * solutions sont significatifs, la longueur totale des solutions dépasse la référence
+ * de plus du seuil donné.</li>
+ * </ul>
+ * Les temps trop courts pour être mesurés de manière fiable, et les occupations du tas
+ * trop faibles, ne sont pas comparés.
+ * Les temps et les débits ne sont pas non plus comparés lorsque les mesures n'ont pas
+ * été obtenues avec le même nombre de processeurs et la même machine virtuelle que la
+ * référence, pas plus que les nombres de nœuds des modes dont le nombre de threads
+ * dépend du nombre de processeurs.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class RegressionBaseline {
+
+    /**
+     * Le temps total (en millisecondes) en dessous duquel les temps ne sont pas
+     * comparés.
+     */
+    private static final double MIN_WALL_MILLIS = 1000;
+
+    /**
+     * L'occupation du tas (en mégaoctets) en dessous de laquelle elle n'est pas
+     * comparée.
+     */
+    private static final double MIN_PEAK_HEAP = 64;
+
+    /**
+     * Les mesures de référence, indexées par leur clé.
+     */
+    private final Map<String, RegressionRecord> records;
+
+    /**
+     * Crée une nouvelle instance de RegressionBaseline.
+     *
+     * @param records Les mesures de référence, indexées par leur clé.
+     */
+    private RegressionBaseline(Map<String, RegressionRecord> records) {
+        this.records = records;
+    }
+
+    /**
+     * Lit les mesures de référence depuis un fichier CSV.
+     *
+     * @param file Le fichier à lire.
+     *
+     * @return Les mesures de référence.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier.
+     */
+    static RegressionBaseline load(Path file) throws IOException {
+        Map<String, RegressionRecord> records = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank() && !line.equals(RegressionRecord.HEADER)) {
+                RegressionRecord record = RegressionRecord.parse(line.strip());
+                records.put(record.key(), record);
+            }
+        }
+        return new RegressionBaseline(records);
+    }
+
+    /**
+     * Écrit des mesures dans un fichier CSV.
+     *
+     * @param file Le fichier à écrire.
+     * @param results Les mesures à écrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture du fichier.
+     */
+    static void write(Path file, List<RegressionRecord> results) throws IOException {
+        List<String> lines = new ArrayList<>(results.size() + 1);
+        lines.add(RegressionRecord.HEADER);
+        for (RegressionRecord record : results) {
+            lines.add(record.toString());
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, lines);
+    }
+
+    /**
+     * Compare des mesures à la référence.
+     *
+     * @param results Les mesures à comparer.
+     * @param threshold La dégradation tolérée (par exemple {@code 0.1} pour 10 %).
+     *
+     * @return La description des régressions constatées (vide s'il n'y en a aucune).
+     */
+    List<String> compare(List<RegressionRecord> results, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        Map<String, Total[]> totals = new LinkedHashMap<>();
+        Map<String, Boolean> sameEnvironment = new LinkedHashMap<>();
+
+        for (RegressionRecord current : results) {
+            RegressionRecord reference = records.get(current.key());
+            if (reference == null) {
+                continue;
+            }
+
+            boolean exact = !current.getMode().isBudgeted() && current.isOptimal()
+                    && reference.isOptimal();
+            if (exact && (current.getLength() != reference.getLength())) {
+                regressions.add(String.format("%s : longueur optimale %d au lieu de %d",
+                        current.key(), current.getLength(), reference.getLength()));
+            }
+
+            String name = current.getSet() + "," + current.getMode();
+            Total[] total = totals.computeIfAbsent(name,
+                    k -> new Total[] { new Total(), new Total() });
+            total[0].add(current);
+            total[1].add(reference);
+            sameEnvironment.merge(name, current.hasSameEnvironment(reference),
+                    Boolean::logicalAnd);
+        }
+
+        for (Map.Entry<String, Total[]> entry : totals.entrySet()) {
+            compare(entry.getKey(), entry.getValue()[0], entry.getValue()[1],
+                    sameEnvironment.get(entry.getKey()), threshold, regressions);
+        }
+        return regressions;
+    }
+
+    /**
+     * Compare les mesures cumulées d'un ensemble de grilles pour un mode de résolution.
+     *
+     * @param name Le nom de l'ensemble et du mode.
+     * @param current Les mesures cumulées de la nouvelle exécution.
+     * @param reference Les mesures cumulées de référence.
+     * @param sameEnvironment Si toutes les mesures ont été obtenues dans le même
+     *        environnement que leur référence.
+     * @param threshold La dégradation tolérée.
+     * @param regressions La liste à laquelle ajouter les régressions constatées.
+     */
+    private static void compare(String name, Total current, Total reference,
+            boolean sameEnvironment, double threshold, List<String> regressions) {
+        boolean budgeted = current.mode.isBudgeted();
+        boolean timed = sameEnvironment && (reference.wallMillis >= MIN_WALL_MILLIS);
+
+        if (budgeted) {
+            check(name, "longueur totale", current.length, reference.length,
+                    1 + threshold, regressions);
+        } else {
+            if (sameEnvironment || !current.mode.isParallel()) {
+                check(name, "nœuds", current.nbNodes, reference.nbNodes, 1 + threshold,
+                        regressions);
+            }
+            if (timed) {
+                check(name, "temps (ms)", current.wallMillis, reference.wallMillis,
+                        1 + threshold, regressions);
+            }
+        }
+
+        if (timed && (current.throughput() < reference.throughput() * (1 - threshold))) {
+            regressions.add(String.format(Locale.ROOT,
+                    "%s : débit de %.0f nœuds/s au lieu de %.0f", name,
+                    current.throughput(), reference.throughput()));
+        }
+
+        check(name, "tas maximal (Mo)", current.peakHeap,
+                Math.max(reference.peakHeap, MIN_PEAK_HEAP), 1 + threshold, regressions);
+    }
+
+    /**
+     * Vérifie qu'une mesure ne dépasse pas sa référence de plus d'un facteur donné.
+     *
+     * @param name Le nom de l'ensemble et du mode.
+     * @param metric Le nom de la mesure.
+     * @param current La valeur mesurée.
+     * @param reference La valeur de référence.
+     * @param factor Le facteur toléré.
+     * @param regressions La liste à laquelle ajouter la régression éventuelle.
+     */
+    private static void check(String name, String metric, double current,
+            double reference, double factor, List<String> regressions) {
+        if (current > reference * factor) {
+            regressions.add(String.format(Locale.ROOT,
+                    "%s : %s %.1f au lieu de %.1f (+%.1f %%)", name, metric, current,
+                    reference, 100 * (current / reference - 1)));
+        }
+    }
+
+    /**
+     * La classe Total cumule les mesures d'un ensemble de grilles pour un mode de
+     * résolution.
+     */
+    private static final class Total {
+
+        /**
+         * Le mode de résolution des mesures.
+         */
+        private SolverMode mode;
+
+        /**
+         * La longueur totale des solutions.
+         */
+        private long length;
+
+        /**
+         * Le nombre total de nœuds explorés.
+         */
+        private long nbNodes;
+
+        /**
+         * Le temps total des résolutions (en millisecondes).
+         */
+        private double wallMillis;
+
+        /**
+         * L'occupation maximale du tas (en mégaoctets).
+         */
+        private double peakHeap;
+
+        /**
+         * Ajoute une mesure au total.
+         *
+         * @param record La mesure à ajouter.
+         */
+        void add(RegressionRecord record) {
+            mode = record.getMode();
+            length += record.getLength();
+            nbNodes += record.getNbNodes();
+            wallMillis += record.getWallMillis();
+            peakHeap = Math.max(peakHeap, record.getPeakHeap());
+        }
+
+        /**
+         * Donne le débit cumulé des résolutions.
+         *
+         * @return Le nombre de nœuds explorés par seconde.
+         */
+        double throughput() {
+            return (wallMillis <= 0) ? 0 : (nbNodes * 1000 / wallMillis);
+        }
+
+    }
+
+}
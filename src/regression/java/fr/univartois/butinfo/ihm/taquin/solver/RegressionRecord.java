@@ -0,0 +1,298 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Locale;
+
+/**
+ * La classe RegressionRecord représente la mesure de la résolution d'une grille de
+ * référence par un mode de résolution, telle qu'elle apparaît dans les fichiers CSV de
+ * la suite de régression.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class RegressionRecord {
+
+    /**
+     * L'en-tête des fichiers CSV.
+     */
+    static final String HEADER = "set,instance,mode,length,optimal,nodes,nodes_per_sec,"
+            + "wall_ms,peak_heap_mb,cpus,jvm";
+
+    /**
+     * Le nombre de champs d'une ligne des fichiers CSV.
+     */
+    private static final int NB_FIELDS = 11;
+
+    /**
+     * Le nombre de champs d'une ligne des fichiers CSV écrits avant que le nombre de
+     * processeurs et la version de la machine virtuelle n'y figurent.
+     */
+    private static final int NB_LEGACY_FIELDS = 9;
+
+    /**
+     * Le nombre d'octets dans un mégaoctet.
+     */
+    private static final double MEGABYTE = 1 << 20;
+
+    /**
+     * Le nom de l'ensemble contenant la grille.
+     */
+    private final String set;
+
+    /**
+     * Le numéro de la grille dans son ensemble (à partir de 1).
+     */
+    private final int instance;
+
+    /**
+     * Le mode de résolution utilisé.
+     */
+    private final SolverMode mode;
+
+    /**
+     * La longueur de la solution trouvée.
+     */
+    private final int length;
+
+    /**
+     * Si la solution trouvée est prouvée optimale.
+     */
+    private final boolean optimal;
+
+    /**
+     * Le nombre de nœuds explorés.
+     */
+    private final long nbNodes;
+
+    /**
+     * Le temps de la résolution (en millisecondes).
+     */
+    private final double wallMillis;
+
+    /**
+     * L'occupation maximale du tas pendant la résolution (en mégaoctets).
+     */
+    private final double peakHeap;
+
+    /**
+     * Le nombre de processeurs disponibles pendant la résolution (ou {@code 0} s'il est
+     * inconnu).
+     */
+    private final int nbProcessors;
+
+    /**
+     * La version de la machine virtuelle ayant réalisé la résolution (vide si elle est
+     * inconnue).
+     */
+    private final String jvm;
+
+    /**
+     * Crée une nouvelle instance de RegressionRecord.
+     *
+     * @param set Le nom de l'ensemble contenant la grille.
+     * @param instance Le numéro de la grille dans son ensemble.
+     * @param mode Le mode de résolution utilisé.
+     * @param length La longueur de la solution trouvée.
+     * @param optimal Si la solution trouvée est prouvée optimale.
+     * @param nbNodes Le nombre de nœuds explorés.
+     * @param wallMillis Le temps de la résolution (en millisecondes).
+     * @param peakHeap L'occupation maximale du tas (en mégaoctets).
+     * @param nbProcessors Le nombre de processeurs disponibles pendant la résolution.
+     * @param jvm La version de la machine virtuelle ayant réalisé la résolution.
+     */
+    RegressionRecord(String set, int instance, SolverMode mode, int length,
+            boolean optimal, long nbNodes, double wallMillis, double peakHeap,
+            int nbProcessors, String jvm) {
+        this.set = set;
+        this.instance = instance;
+        this.mode = mode;
+        this.length = length;
+        this.optimal = optimal;
+        this.nbNodes = nbNodes;
+        this.wallMillis = wallMillis;
+        this.peakHeap = peakHeap;
+        this.nbProcessors = nbProcessors;
+        this.jvm = jvm;
+    }
+
+    /**
+     * Crée la mesure correspondant à une solution trouvée par la machine virtuelle
+     * courante.
+     *
+     * @param set Le nom de l'ensemble contenant la grille.
+     * @param instance Le numéro de la grille dans son ensemble.
+     * @param mode Le mode de résolution utilisé.
+     * @param solution La solution trouvée.
+     * @param wallNanos Le temps de la résolution (en nanosecondes).
+     * @param peakHeapBytes L'occupation maximale du tas (en octets).
+     *
+     * @return La mesure de la résolution.
+     */
+    static RegressionRecord of(String set, int instance, SolverMode mode, Solution solution,
+            long wallNanos, long peakHeapBytes) {
+        return new RegressionRecord(set, instance, mode, solution.length(),
+                solution.isOptimal(), solution.getNbNodes(), wallNanos / 1e6,
+                peakHeapBytes / MEGABYTE, Runtime.getRuntime().availableProcessors(),
+                Runtime.version().toString());
+    }
+
+    /**
+     * Lit une mesure depuis une ligne d'un fichier CSV.
+     * Le nombre de processeurs et la version de la machine virtuelle sont inconnus pour
+     * les lignes écrites avant qu'ils n'y figurent.
+     *
+     * @param line La ligne à lire.
+     *
+     * @return La mesure lue.
+     *
+     * @throws IllegalArgumentException Si la ligne n'est pas valide.
+     */
+    static RegressionRecord parse(String line) {
+        String[] fields = line.split(",");
+        if ((fields.length != NB_FIELDS) && (fields.length != NB_LEGACY_FIELDS)) {
+            throw new IllegalArgumentException("Ligne invalide : " + line);
+        }
+        boolean legacy = fields.length == NB_LEGACY_FIELDS;
+        return new RegressionRecord(fields[0], Integer.parseInt(fields[1]),
+                SolverMode.valueOf(fields[2].toUpperCase(Locale.ROOT)),
+                Integer.parseInt(fields[3]), Boolean.parseBoolean(fields[4]),
+                Long.parseLong(fields[5]), Double.parseDouble(fields[7]),
+                Double.parseDouble(fields[8]), legacy ? 0 : Integer.parseInt(fields[9]),
+                legacy ? "" : fields[10]);
+    }
+
+    /**
+     * Donne la clé identifiant la grille et le mode de résolution de cette mesure.
+     *
+     * @return La clé de cette mesure.
+     */
+    String key() {
+        return set + "," + instance + "," + mode;
+    }
+
+    /**
+     * Donne le nom de l'ensemble contenant la grille.
+     *
+     * @return Le nom de l'ensemble.
+     */
+    String getSet() {
+        return set;
+    }
+
+    /**
+     * Donne le numéro de la grille dans son ensemble.
+     *
+     * @return Le numéro de la grille (à partir de 1).
+     */
+    int getInstance() {
+        return instance;
+    }
+
+    /**
+     * Donne le mode de résolution utilisé.
+     *
+     * @return Le mode de résolution.
+     */
+    SolverMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Donne la longueur de la solution trouvée.
+     *
+     * @return La longueur de la solution.
+     */
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Vérifie si la solution trouvée est prouvée optimale.
+     *
+     * @return Si la solution est optimale.
+     */
+    boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Donne le nombre de nœuds explorés.
+     *
+     * @return Le nombre de nœuds.
+     */
+    long getNbNodes() {
+        return nbNodes;
+    }
+
+    /**
+     * Donne le temps de la résolution.
+     *
+     * @return Le temps de la résolution (en millisecondes).
+     */
+    double getWallMillis() {
+        return wallMillis;
+    }
+
+    /**
+     * Donne l'occupation maximale du tas pendant la résolution.
+     *
+     * @return L'occupation maximale du tas (en mégaoctets).
+     */
+    double getPeakHeap() {
+        return peakHeap;
+    }
+
+    /**
+     * Vérifie si cette mesure a été obtenue dans le même environnement qu'une autre,
+     * c'est-à-dire avec le même nombre de processeurs et la même machine virtuelle.
+     * Les temps de deux mesures ne sont comparables que dans ce cas.
+     *
+     * @param other La mesure à laquelle comparer cette mesure.
+     *
+     * @return Si les deux mesures ont été obtenues dans un environnement connu et
+     *         identique.
+     */
+    boolean hasSameEnvironment(RegressionRecord other) {
+        return (nbProcessors > 0) && (nbProcessors == other.nbProcessors)
+                && jvm.equals(other.jvm);
+    }
+
+    /**
+     * Donne le nombre de nœuds explorés par seconde.
+     *
+     * @return Le débit de la résolution.
+     */
+    long getNodesPerSecond() {
+        return (wallMillis <= 0) ? 0 : (long) (nbNodes * 1000 / wallMillis);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s,%d,%s,%d,%b,%d,%d,%.3f,%.1f,%d,%s", set,
+                instance, mode.name().toLowerCase(Locale.ROOT), length, optimal, nbNodes,
+                getNodesPerSecond(), wallMillis, peakHeap, nbProcessors, jvm);
+    }
+
+}
@@ -0,0 +1,264 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * La classe RegressionSuite résout un ensemble fixe de grilles de référence avec chacun
+ * des modes de résolution, et compare les mesures obtenues à celles d'une exécution de
+ * référence.
+ *
+ * Les grilles de référence sont les 100 instances 4x4 de Korf, ainsi que des grilles
+ * 3x3 et 5x5 obtenues par des marches aléatoires de graine fixée.
+ * Pour chaque grille et chaque mode, la suite mesure la longueur de la solution, le
+ * nombre de nœuds explorés, le débit, le temps de résolution et l'occupation maximale
+ * du tas, et écrit ces mesures dans un fichier CSV.
+ * L'exécution échoue si une solution optimale n'a pas la longueur attendue, ou si une
+ * mesure se dégrade au-delà du seuil donné par rapport à la référence (voir
+ * {@link RegressionBaseline}).
+ *
+ * Usage : {@code RegressionSuite [--baseline fichier] [--output fichier]
+ * [--threshold pourcentage] [--modes ida,parallel,distributed,anytime]
+ * [--sets korf100,seeded3x3,seeded5x5] [--limit n] [--budget ms] [--update-baseline]}.
+ * L'option {@code --limit} ne résout que les premières grilles de chaque ensemble, et
+ * l'option {@code --update-baseline} remplace la référence par les nouvelles mesures.
+ *
+ * Lancement : {@code gradle regression}.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class RegressionSuite {
+
+    /**
+     * La dégradation tolérée par défaut (en pourcentage).
+     */
+    private static final double DEFAULT_THRESHOLD = 15;
+
+    /**
+     * Le temps accordé par défaut à chaque résolution limitée dans le temps.
+     */
+    private static final Duration DEFAULT_BUDGET = Duration.ofMillis(200);
+
+    /**
+     * Le nombre de grilles 3x3 de référence.
+     */
+    private static final int NB_SMALL = 100;
+
+    /**
+     * Le nombre de déplacements des marches aléatoires produisant les grilles 3x3.
+     */
+    private static final int SMALL_WALK = 200;
+
+    /**
+     * Le nombre de grilles 5x5 de référence.
+     */
+    private static final int NB_LARGE = 20;
+
+    /**
+     * Le nombre de déplacements des marches aléatoires produisant les grilles 5x5.
+     */
+    private static final int LARGE_WALK = 50;
+
+    /**
+     * La graine des marches aléatoires.
+     */
+    private static final long SEED = 2023;
+
+    /**
+     * Désactive l'instanciation de cette classe.
+     */
+    private RegressionSuite() {
+        throw new AssertionError("RegressionSuite ne doit pas être instanciée");
+    }
+
+    /**
+     * Cette méthode exécute la suite de régression décrite par les arguments donnés.
+     *
+     * @param args Les arguments de la ligne de commande.
+     *
+     * @throws IOException Si les fichiers de mesures ne peuvent pas être lus ou écrits.
+     * @throws InterruptedException Si une résolution a été interrompue.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path baseline = null;
+        Path output = Path.of("regression.csv");
+        double threshold = DEFAULT_THRESHOLD;
+        Set<SolverMode> modes = EnumSet.allOf(SolverMode.class);
+        List<String> setNames = List.of("korf100", "seeded3x3", "seeded5x5");
+        int limit = Integer.MAX_VALUE;
+        Duration budget = DEFAULT_BUDGET;
+        boolean updateBaseline = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--output" -> output = Path.of(args[++i]);
+                case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+                case "--modes" -> modes = parseModes(args[++i]);
+                case "--sets" -> setNames = List.of(args[++i].split(","));
+                case "--limit" -> limit = Integer.parseInt(args[++i]);
+                case "--budget" -> budget = Duration.ofMillis(Long.parseLong(args[++i]));
+                case "--update-baseline" -> updateBaseline = true;
+                default -> throw new IllegalArgumentException("Option inconnue : " + args[i]);
+            }
+        }
+
+        List<RegressionRecord> results = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (String name : setNames) {
+            InstanceSet set = instanceSet(name);
+            for (SolverMode mode : modes) {
+                run(set, mode, limit, budget, results, failures);
+            }
+        }
+
+        RegressionBaseline.write(output, results);
+        System.out.println("Mesures écrites dans " + output);
+
+        if ((baseline != null) && updateBaseline) {
+            RegressionBaseline.write(baseline, results);
+            System.out.println("Référence mise à jour : " + baseline);
+
+        } else if ((baseline != null) && Files.exists(baseline)) {
+            RegressionBaseline reference = RegressionBaseline.load(baseline);
+            failures.addAll(reference.compare(results, threshold / 100));
+        }
+
+        if (!failures.isEmpty()) {
+            failures.forEach(System.err::println);
+            System.exit(1);
+        }
+        System.out.println("Aucune régression constatée");
+    }
+
+    /**
+     * Lit la liste des modes de résolution à évaluer.
+     *
+     * @param text Les noms des modes, séparés par des virgules.
+     *
+     * @return Les modes de résolution.
+     */
+    private static Set<SolverMode> parseModes(String text) {
+        Set<SolverMode> modes = EnumSet.noneOf(SolverMode.class);
+        for (String name : text.split(",")) {
+            modes.add(SolverMode.valueOf(name.strip().toUpperCase(Locale.ROOT)));
+        }
+        return modes;
+    }
+
+    /**
+     * Crée l'ensemble de grilles de référence ayant le nom donné.
+     *
+     * @param name Le nom de l'ensemble.
+     *
+     * @return L'ensemble de grilles.
+     *
+     * @throws IllegalArgumentException Si aucun ensemble n'a ce nom.
+     */
+    private static InstanceSet instanceSet(String name) {
+        return switch (name) {
+            case "korf100" -> InstanceSet.korf100();
+            case "seeded3x3" -> InstanceSet.seeded(3, NB_SMALL, SMALL_WALK, SEED);
+            case "seeded5x5" -> InstanceSet.seeded(5, NB_LARGE, LARGE_WALK, SEED);
+            default -> throw new IllegalArgumentException("Ensemble inconnu : " + name);
+        };
+    }
+
+    /**
+     * Résout les grilles d'un ensemble avec un mode de résolution donné.
+     *
+     * @param set L'ensemble de grilles.
+     * @param mode Le mode de résolution.
+     * @param limit Le nombre maximal de grilles à résoudre.
+     * @param budget Le temps accordé à chaque résolution limitée dans le temps.
+     * @param results La liste à laquelle ajouter les mesures.
+     * @param failures La liste à laquelle ajouter les solutions incorrectes.
+     *
+     * @throws IOException Si le mode de résolution ne peut pas être préparé.
+     * @throws InterruptedException Si une résolution a été interrompue.
+     */
+    private static void run(InstanceSet set, SolverMode mode, int limit, Duration budget,
+            List<RegressionRecord> results, List<String> failures)
+            throws IOException, InterruptedException {
+        List<int[]> instances = set.getInstances();
+        int count = Math.min(limit, instances.size());
+
+        try (SolverMode.Solver solver = mode.open(set.getSize(), budget)) {
+            for (int i = 0; i < count; i++) {
+                System.gc();
+                resetPeakHeap();
+                long start = System.nanoTime();
+                Solution solution = solver.solve(instances.get(i).clone());
+                long wallNanos = System.nanoTime() - start;
+
+                RegressionRecord record = RegressionRecord.of(set.getName(), i + 1, mode,
+                        solution, wallNanos, peakHeap());
+                results.add(record);
+                System.out.println(record);
+
+                int expected = set.getOptimalLength(i);
+                if (!mode.isBudgeted() && (expected != InstanceSet.UNKNOWN_LENGTH)
+                        && (solution.length() != expected)) {
+                    failures.add(String.format("%s : longueur %d au lieu de %d",
+                            record.key(), solution.length(), expected));
+                }
+            }
+        }
+    }
+
+    /**
+     * Réinitialise l'occupation maximale mesurée des zones du tas.
+     */
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Donne l'occupation maximale du tas depuis la dernière réinitialisation, comme la
+     * somme des occupations maximales de ses zones.
+     *
+     * @return L'occupation maximale du tas (en octets).
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+}
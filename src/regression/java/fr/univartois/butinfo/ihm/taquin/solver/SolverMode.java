@@ -0,0 +1,203 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * L'énumération SolverMode recense les manières de résoudre une grille évaluées par la
+ * suite de régression.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+enum SolverMode {
+
+    /**
+     * La recherche IDA* séquentielle (un seul thread).
+     */
+    IDA(false, false) {
+
+        @Override
+        Solver open(int size, Duration budget) {
+            IdaStarSolver solver = new IdaStarSolver(size, 1);
+            return solver::solve;
+        }
+
+    },
+
+    /**
+     * La recherche IDA* parallèle (un thread par processeur).
+     */
+    PARALLEL(false, true) {
+
+        @Override
+        Solver open(int size, Duration budget) {
+            IdaStarSolver solver = new IdaStarSolver(
+                    size, Runtime.getRuntime().availableProcessors());
+            return solver::solve;
+        }
+
+    },
+
+    /**
+     * La recherche IDA* répartie, entre un coordinateur et un travailleur exécuté dans
+     * le même processus et connecté par la boucle locale.
+     * Chaque grille est résolue par un nouveau coordinateur et un nouveau travailleur,
+     * afin qu'aucun état (borne, compteurs, connexions) ne soit partagé entre deux
+     * résolutions.
+     */
+    DISTRIBUTED(false, true) {
+
+        @Override
+        Solver open(int size, Duration budget) {
+            return tiles -> solveDistributed(size, tiles);
+        }
+
+    },
+
+    /**
+     * La recherche dans un temps limité, dont la solution n'est pas toujours optimale.
+     */
+    ANYTIME(true, false) {
+
+        @Override
+        Solver open(int size, Duration budget) {
+            AnytimeSolver solver = new AnytimeSolver(size);
+            return tiles -> solver.solve(tiles, budget);
+        }
+
+    };
+
+    /**
+     * Si les résolutions de ce mode sont limitées dans le temps.
+     */
+    private final boolean budgeted;
+
+    /**
+     * Si ce mode utilise un thread par processeur disponible.
+     */
+    private final boolean parallel;
+
+    /**
+     * Crée une nouvelle instance de SolverMode.
+     *
+     * @param budgeted Si les résolutions de ce mode sont limitées dans le temps.
+     * @param parallel Si ce mode utilise un thread par processeur disponible.
+     */
+    SolverMode(boolean budgeted, boolean parallel) {
+        this.budgeted = budgeted;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Vérifie si les résolutions de ce mode sont limitées dans le temps.
+     * Leur durée est alors fixée par le budget, et leur nombre de nœuds et la longueur
+     * de leurs solutions dépendent de la vitesse de la machine.
+     *
+     * @return Si les résolutions de ce mode sont limitées dans le temps.
+     */
+    boolean isBudgeted() {
+        return budgeted;
+    }
+
+    /**
+     * Vérifie si ce mode utilise un thread par processeur disponible.
+     * Le nombre de nœuds explorés par ses résolutions dépend alors du nombre de
+     * processeurs de la machine.
+     *
+     * @return Si ce mode utilise un thread par processeur disponible.
+     */
+    boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Résout une grille avec un coordinateur et un travailleur créés pour l'occasion,
+     * puis les arrête.
+     *
+     * @param size La taille de la grille (en nombre de tuiles par côté).
+     * @param tiles Les tuiles de la grille à résoudre.
+     *
+     * @return La solution trouvée.
+     *
+     * @throws InterruptedException Si la résolution a été interrompue.
+     */
+    private static Solution solveDistributed(int size, int[] tiles)
+            throws InterruptedException {
+        try (DistributedCoordinator coordinator = new DistributedCoordinator(size, 0)) {
+            DistributedWorker worker = new DistributedWorker("localhost",
+                    coordinator.getPort(), Runtime.getRuntime().availableProcessors());
+            IdaStarSolver.daemonThreads("regression-worker").newThread(() -> {
+                try {
+                    worker.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).start();
+            return coordinator.solve(tiles);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Prépare les solveurs de ce mode, pour résoudre des grilles d'une taille donnée.
+     *
+     * @param size La taille des grilles à résoudre (en nombre de tuiles par côté).
+     * @param budget Le temps accordé à chaque résolution limitée dans le temps.
+     *
+     * @return Le solveur préparé.
+     *
+     * @throws IOException Si le solveur ne peut pas être préparé.
+     */
+    abstract Solver open(int size, Duration budget) throws IOException;
+
+    /**
+     * L'interface Solver représente un solveur préparé par un mode de résolution.
+     */
+    @FunctionalInterface
+    interface Solver extends AutoCloseable {
+
+        /**
+         * Résout une grille.
+         *
+         * @param tiles Les tuiles de la grille à résoudre.
+         *
+         * @return La solution trouvée.
+         *
+         * @throws InterruptedException Si la résolution a été interrompue.
+         */
+        Solution solve(int[] tiles) throws InterruptedException;
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.AutoCloseable#close()
+         */
+        @Override
+        default void close() throws IOException {
+            // Aucune ressource à libérer par défaut.
+        }
+
+    }
+
+}
@@ -0,0 +1,510 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * La classe MoveEventPublisherTest teste la diffusion des déplacements : politiques de
+ * contre-pression, prise en compte des demandes, absence de blocage des publications et
+ * fin de la diffusion après la fermeture de l'éditeur.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+final class MoveEventPublisherTest {
+
+    /**
+     * Le temps laissé aux threads de l'éditeur pour traiter les signaux en cours (en
+     * millisecondes).
+     */
+    private static final long SETTLE_MILLIS = 200;
+
+    /**
+     * Le nombre d'emplacements du tampon circulaire des éditeurs testés.
+     */
+    private static final int RING_CAPACITY = 8;
+
+    /**
+     * Vérifie qu'un abonné ayant choisi {@link BackpressurePolicy#DROP} ne reçoit que les
+     * événements publiés après sa demande, même lorsque le tampon circulaire a été
+     * entièrement réécrit entre-temps.
+     */
+    @Test
+    void dropDiscardsUnrequestedEvents() {
+        ManualExecutor executor = new ManualExecutor();
+        MoveEventPublisher publisher = new MoveEventPublisher(RING_CAPACITY, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber, BackpressurePolicy.DROP);
+        publish(publisher, 1, 3 * RING_CAPACITY);
+        executor.runAll();
+
+        subscriber.subscription.request(2);
+        executor.runAll();
+        assertTrue(subscriber.events.isEmpty());
+
+        publish(publisher, 3 * RING_CAPACITY + 1, 3 * RING_CAPACITY + 3);
+        executor.runAll();
+        assertEquals(List.of(3 * RING_CAPACITY + 1, 3 * RING_CAPACITY + 2),
+                subscriber.moveCounts());
+        assertNull(subscriber.error);
+    }
+
+    /**
+     * Vérifie qu'un abonné ayant choisi {@link BackpressurePolicy#LATEST} reçoit le
+     * dernier des événements qu'il n'a pas demandés, même lorsque le tampon circulaire a
+     * été entièrement réécrit entre-temps.
+     */
+    @Test
+    void latestKeepsOnlyTheLastEvent() {
+        ManualExecutor executor = new ManualExecutor();
+        MoveEventPublisher publisher = new MoveEventPublisher(RING_CAPACITY, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber, BackpressurePolicy.LATEST);
+        publish(publisher, 1, 3 * RING_CAPACITY);
+        executor.runAll();
+
+        subscriber.subscription.request(1);
+        executor.runAll();
+        assertEquals(List.of(3 * RING_CAPACITY), subscriber.moveCounts());
+
+        subscriber.subscription.request(1);
+        executor.runAll();
+        publish(publisher, 3 * RING_CAPACITY + 1, 3 * RING_CAPACITY + 1);
+        executor.runAll();
+        assertEquals(List.of(3 * RING_CAPACITY, 3 * RING_CAPACITY + 1),
+                subscriber.moveCounts());
+        assertNull(subscriber.error);
+    }
+
+    /**
+     * Vérifie qu'un abonné ayant choisi {@link BackpressurePolicy#BUFFER} reçoit tous
+     * les événements, y compris ceux écrasés depuis dans le tampon circulaire, tant que
+     * son propre tampon ne déborde pas.
+     */
+    @Test
+    void bufferKeepsEveryEventUntilItOverflows() {
+        ManualExecutor executor = new ManualExecutor();
+        MoveEventPublisher publisher = new MoveEventPublisher(RING_CAPACITY, executor);
+        RecordingSubscriber kept = new RecordingSubscriber();
+        publisher.subscribe(kept, BackpressurePolicy.BUFFER, 3 * RING_CAPACITY);
+        RecordingSubscriber overflowed = new RecordingSubscriber();
+        publisher.subscribe(overflowed, BackpressurePolicy.BUFFER, RING_CAPACITY);
+        for (int i = 1; i <= 3 * RING_CAPACITY; i++) {
+            publish(publisher, i, i);
+            executor.runAll();
+        }
+
+        kept.subscription.request(Long.MAX_VALUE);
+        executor.runAll();
+        assertNull(kept.error);
+        assertEquals(3 * RING_CAPACITY, kept.events.size());
+        for (int i = 0; i < kept.events.size(); i++) {
+            assertEquals(i + 1, kept.events.get(i).getMoveCount());
+        }
+        assertNull(kept.error);
+        assertTrue(overflowed.error instanceof IllegalStateException,
+                String.valueOf(overflowed.error));
+        assertTrue(overflowed.events.isEmpty());
+    }
+
+    /**
+     * Vérifie qu'un abonné ayant choisi {@link BackpressurePolicy#BUFFER} est informé
+     * de la perte d'événements écrasés dans le tampon circulaire avant d'avoir pu être
+     * conservés pour lui.
+     */
+    @Test
+    void bufferReportsOverwrittenEvents() {
+        ManualExecutor executor = new ManualExecutor();
+        MoveEventPublisher publisher = new MoveEventPublisher(RING_CAPACITY, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber, BackpressurePolicy.BUFFER, 4 * RING_CAPACITY);
+        publish(publisher, 1, 2 * RING_CAPACITY);
+        executor.runAll();
+
+        assertTrue(subscriber.error instanceof IllegalStateException,
+                String.valueOf(subscriber.error));
+        assertEquals(0, publisher.getNbSubscribers());
+    }
+
+    /**
+     * Vérifie que l'abonné ne reçoit jamais plus d'événements qu'il n'en a demandés, et
+     * qu'une demande invalide termine l'abonnement sur une erreur.
+     */
+    @Test
+    void demandIsAccounted() {
+        ManualExecutor executor = new ManualExecutor();
+        MoveEventPublisher publisher = new MoveEventPublisher(RING_CAPACITY, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber, BackpressurePolicy.BUFFER);
+
+        subscriber.subscription.request(3);
+        publish(publisher, 1, 5);
+        executor.runAll();
+        assertEquals(List.of(1, 2, 3), subscriber.moveCounts());
+
+        subscriber.subscription.request(1);
+        executor.runAll();
+        assertEquals(List.of(1, 2, 3, 4), subscriber.moveCounts());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        executor.runAll();
+        publish(publisher, 6, 7);
+        executor.runAll();
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), subscriber.moveCounts());
+        assertNull(subscriber.error);
+
+        subscriber.subscription.request(0);
+        executor.runAll();
+        assertTrue(subscriber.error instanceof IllegalArgumentException,
+                String.valueOf(subscriber.error));
+        assertEquals(0, publisher.getNbSubscribers());
+    }
+
+    /**
+     * Vérifie que les publications se terminent aussitôt, alors qu'un abonné est bloqué
+     * dans {@link Flow.Subscriber#onNext(Object)}.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void publishDoesNotWaitForSlowSubscribers() throws InterruptedException {
+        MoveEventPublisher publisher = new MoveEventPublisher();
+        BlockingSubscriber slow = new BlockingSubscriber();
+        publisher.subscribe(slow, BackpressurePolicy.BUFFER, 4 * RING_CAPACITY);
+        publisher.publish(Move.UP, 1, 1);
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        publish(publisher, 2, RING_CAPACITY);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed < SETTLE_MILLIS, elapsed + " ms");
+
+        slow.release.countDown();
+        publisher.close();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(RING_CAPACITY, slow.events.size());
+    }
+
+    /**
+     * Vérifie que lorsque l'exécuteur est saturé, l'abonné qu'il refuse de servir est
+     * informé par une erreur, plutôt que d'être servi par le thread ayant publié
+     * l'événement.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void saturatedExecutorNeverServesOnThePublishingThread()
+            throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        try {
+            MoveEventPublisher publisher = new MoveEventPublisher(RING_CAPACITY, executor);
+            BlockingSubscriber first = new BlockingSubscriber();
+            publisher.subscribe(first, BackpressurePolicy.BUFFER);
+            publisher.publish(Move.UP, 1, 1);
+            assertTrue(first.entered.await(5, TimeUnit.SECONDS));
+
+            BlockingSubscriber second = new BlockingSubscriber();
+            publisher.subscribe(second, BackpressurePolicy.BUFFER);
+            publisher.publish(Move.DOWN, 2, 2);
+
+            assertFalse(second.threads.contains(Thread.currentThread()));
+            assertTrue(second.error instanceof RejectedExecutionException,
+                    String.valueOf(second.error));
+            first.release.countDown();
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Vérifie qu'un abonné qui demande des événements après la fermeture reçoit ceux
+     * qui ont été conservés pour lui, puis la fin de la diffusion.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void bufferedEventsAreDrainedAfterClose() throws InterruptedException {
+        MoveEventPublisher publisher = new MoveEventPublisher();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber, BackpressurePolicy.BUFFER);
+        for (int i = 1; i <= 10; i++) {
+            publisher.publish(Move.UP, i, i);
+        }
+        publisher.close();
+
+        // La demande est faite une fois les signaux de la fermeture traités.
+        Thread.sleep(SETTLE_MILLIS);
+        subscriber.subscription.request(100);
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(10, subscriber.events.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, subscriber.events.get(i).getMoveCount());
+        }
+        assertEquals(0, publisher.getNbSubscribers());
+    }
+
+    /**
+     * Vérifie qu'un abonné ajouté après la fermeture reçoit la fin de la diffusion,
+     * une fois tous les abonnements précédents terminés.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void subscriberAddedAfterCloseIsCompleted() throws InterruptedException {
+        MoveEventPublisher publisher = new MoveEventPublisher();
+        RecordingSubscriber first = new RecordingSubscriber();
+        publisher.subscribe(first);
+        first.subscription.request(1);
+        publisher.close();
+        assertTrue(first.completed.await(5, TimeUnit.SECONDS));
+
+        RecordingSubscriber late = new RecordingSubscriber();
+        publisher.subscribe(late);
+        assertTrue(late.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(late.events.isEmpty());
+        assertNull(late.error);
+    }
+
+    /**
+     * Vérifie que la fin de la diffusion est signalée même lorsque l'exécuteur fourni a
+     * été arrêté.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void stoppedExecutorStillCompletes() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        MoveEventPublisher publisher = new MoveEventPublisher(16, executor);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        publisher.publish(Move.LEFT, 1, 1);
+        Thread.sleep(SETTLE_MILLIS);
+        executor.shutdown();
+        publisher.close();
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, subscriber.events.size());
+    }
+
+    /**
+     * Publie des déplacements numérotés consécutivement.
+     *
+     * @param publisher L'éditeur publiant les déplacements.
+     * @param first Le numéro du premier déplacement.
+     * @param last Le numéro du dernier déplacement.
+     */
+    private static void publish(MoveEventPublisher publisher, int first, int last) {
+        for (int i = first; i <= last; i++) {
+            publisher.publish(Move.UP, i, i);
+        }
+    }
+
+    /**
+     * La classe ManualExecutor conserve les tâches qui lui sont soumises jusqu'à ce
+     * qu'on lui demande de les exécuter, ce qui rend les tests déterministes.
+     */
+    private static final class ManualExecutor implements Executor {
+
+        /**
+         * Les tâches en attente.
+         */
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+         */
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        /**
+         * Exécute les tâches en attente, y compris celles soumises entre-temps.
+         */
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+
+    }
+
+    /**
+     * La classe RecordingSubscriber enregistre les signaux qu'elle reçoit, sans rien
+     * demander d'elle-même.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<MoveEvent> {
+
+        /**
+         * Les événements reçus.
+         */
+        final List<MoveEvent> events = new CopyOnWriteArrayList<>();
+
+        /**
+         * Le verrou libéré à la fin de la diffusion.
+         */
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        /**
+         * L'abonnement reçu.
+         */
+        volatile Flow.Subscription subscription;
+
+        /**
+         * L'erreur reçue, le cas échéant.
+         */
+        volatile Throwable error;
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Flow.Subscriber#onSubscribe(java.util.concurrent.Flow.
+         * Subscription)
+         */
+        @Override
+        public void onSubscribe(Flow.Subscription newSubscription) {
+            this.subscription = newSubscription;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Flow.Subscriber#onNext(java.lang.Object)
+         */
+        @Override
+        public void onNext(MoveEvent event) {
+            events.add(event);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Flow.Subscriber#onError(java.lang.Throwable)
+         */
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.Flow.Subscriber#onComplete()
+         */
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        /**
+         * Donne le nombre de déplacements associé à chaque événement reçu.
+         *
+         * @return Les nombres de déplacements des événements reçus.
+         */
+        List<Integer> moveCounts() {
+            return events.stream().map(MoveEvent::getMoveCount).toList();
+        }
+
+    }
+
+    /**
+     * La classe BlockingSubscriber demande tous les événements dès son abonnement, et
+     * bloque dans {@link #onNext(MoveEvent)} jusqu'à ce qu'on l'autorise à continuer.
+     */
+    private static final class BlockingSubscriber extends RecordingSubscriber {
+
+        /**
+         * Le verrou libéré lorsque le premier événement est reçu.
+         */
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        /**
+         * Le verrou autorisant l'abonné à continuer.
+         */
+        final CountDownLatch release = new CountDownLatch(1);
+
+        /**
+         * Les threads ayant transmis des événements à l'abonné.
+         */
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see fr.univartois.butinfo.ihm.taquin.model.MoveEventPublisherTest.
+         * RecordingSubscriber#onSubscribe(java.util.concurrent.Flow.Subscription)
+         */
+        @Override
+        public void onSubscribe(Flow.Subscription newSubscription) {
+            super.onSubscribe(newSubscription);
+            newSubscription.request(Long.MAX_VALUE);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see fr.univartois.butinfo.ihm.taquin.model.MoveEventPublisherTest.
+         * RecordingSubscriber#onNext(fr.univartois.butinfo.ihm.taquin.model.MoveEvent)
+         */
+        @Override
+        public void onNext(MoveEvent event) {
+            threads.add(Thread.currentThread());
+            super.onNext(event);
+            entered.countDown();
+            try {
+                release.await();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * La classe AnytimeSolverTest teste le respect du budget de temps par la résolution
+ * anytime.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+final class AnytimeSolverTest {
+
+    /**
+     * Le budget de temps accordé à chaque résolution.
+     */
+    private static final Duration BUDGET = Duration.ofMillis(50);
+
+    /**
+     * La marge tolérée au-delà du budget, qui couvre les pauses de la machine de test.
+     */
+    private static final Duration MARGIN = Duration.ofMillis(450);
+
+    /**
+     * Vérifie que le budget est respecté sur des grilles pour lesquelles la recherche
+     * pondérée ne trouve souvent aucune solution dans ce délai, et que la solution
+     * renvoyée est toujours valide.
+     */
+    @Test
+    void budgetIsRespectedOnLargeGrids() {
+        for (int size = 5; size <= 6; size++) {
+            AnytimeSolver solver = new AnytimeSolver(size);
+            for (int seed = 0; seed < 20; seed++) {
+                int[] tiles = TestBoards.walk(size, size, 1000, seed);
+                long start = System.nanoTime();
+                Solution solution = solver.solve(tiles, BUDGET);
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+                assertTrue(TestBoards.solves(tiles, size, size, solution),
+                        Boards.format(tiles));
+                assertTrue(elapsed.compareTo(BUDGET.plus(MARGIN)) <= 0,
+                        elapsed.toMillis() + " ms pour " + Boards.format(tiles));
+                assertTrue(solution.getLowerBound() <= solution.length());
+            }
+        }
+    }
+
+    /**
+     * Vérifie qu'une solution est renvoyée même lorsqu'aucun temps n'est accordé.
+     */
+    @Test
+    void solutionIsReturnedWithoutBudget() {
+        AnytimeSolver solver = new AnytimeSolver(8, 9);
+        for (int seed = 0; seed < 10; seed++) {
+            int[] tiles = TestBoards.walk(8, 9, 2000, seed);
+            Solution solution = solver.solve(tiles, Duration.ZERO);
+            assertTrue(TestBoards.solves(tiles, 8, 9, solution), Boards.format(tiles));
+        }
+    }
+
+    /**
+     * Vérifie que les grilles dont les tuiles ne tiennent pas sur un octet signé, ou
+     * dépassent les capacités de la recherche pondérée, sont résolues.
+     */
+    @Test
+    void largeGridsAreSolved() {
+        int[][] shapes = { { 11, 12 }, { 12, 12 }, { 16, 16 }, { 16, 17 } };
+        for (int[] shape : shapes) {
+            int rows = shape[0];
+            int columns = shape[1];
+            AnytimeSolver solver = new AnytimeSolver(rows, columns);
+            int[] tiles = TestBoards.walk(rows, columns, 5000, rows * columns);
+            Solution solution = solver.solve(tiles, BUDGET);
+            assertTrue(TestBoards.solves(tiles, rows, columns, solution),
+                    rows + "x" + columns);
+        }
+    }
+
+    /**
+     * Vérifie qu'une solution optimale est trouvée lorsque le budget le permet.
+     */
+    @Test
+    void optimalSolutionIsFoundWithEnoughTime() {
+        AnytimeSolver solver = new AnytimeSolver(4);
+        Solution solution = solver.solve(TestBoards.MEDIUM_4X4, Duration.ofSeconds(30));
+        assertTrue(solution.isOptimal());
+        assertEquals(TestBoards.MEDIUM_4X4_LENGTH, solution.length());
+        assertTrue(TestBoards.solves(TestBoards.MEDIUM_4X4, 4, 4, solution));
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * La classe BatchHeuristicTest vérifie que l'évaluation d'un lot de grilles donne, avec ou
+ * sans vectorisation, la distance de Manhattan de chacune d'elles.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class BatchHeuristicTest {
+
+    /**
+     * Le nombre de grilles de chaque lot, qui n'est multiple d'aucune largeur de vecteur.
+     */
+    private static final int NB_BOARDS = 101;
+
+    /**
+     * Vérifie que les évaluations vectorisée et scalaire coïncident avec la distance de
+     * Manhattan sur des lots aléatoires, y compris sur les dernières grilles d'un lot
+     * incomplet.
+     */
+    @Test
+    void vectorAndScalarScoresMatch() {
+        int[][] shapes = { { 3, 3 }, { 2, 5 }, { 4, 4 }, { 5, 5 } };
+        for (int[] shape : shapes) {
+            int rows = shape[0];
+            int columns = shape[1];
+            ManhattanDistance distance = new ManhattanDistance(rows, columns);
+            BatchHeuristic vector = new BatchHeuristic(rows, columns, true);
+            BatchHeuristic scalar = new BatchHeuristic(rows, columns, false);
+            assertFalse(scalar.isVectorized());
+
+            BoardBatch batch = new BoardBatch(rows, columns, NB_BOARDS);
+            int[] expected = new int[NB_BOARDS];
+            for (int i = 0; i < NB_BOARDS; i++) {
+                int[] tiles = TestBoards.walk(rows, columns, 200, i);
+                expected[i] = distance.evaluate(tiles);
+                batch.add(tiles);
+            }
+
+            int[] vectorScores = new int[NB_BOARDS];
+            int[] scalarScores = new int[NB_BOARDS];
+            vector.evaluate(batch, vectorScores);
+            scalar.evaluate(batch, scalarScores);
+            assertArrayEquals(expected, vectorScores, rows + "x" + columns);
+            assertArrayEquals(expected, scalarScores, rows + "x" + columns);
+        }
+    }
+
+    /**
+     * Vérifie que les tuiles dépassant 127 sont correctement stockées et évaluées.
+     */
+    @Test
+    void largeBoardsAreEvaluated() {
+        for (int size : new int[] { 12, 16 }) {
+            ManhattanDistance distance = new ManhattanDistance(size);
+            BatchHeuristic heuristic = new BatchHeuristic(size);
+            BoardBatch batch = new BoardBatch(size, 3);
+            int[] expected = new int[3];
+            for (int i = 0; i < expected.length; i++) {
+                int[] tiles = TestBoards.walk(size, size, 5000, i);
+                expected[i] = distance.evaluate(tiles);
+                assertArrayEquals(tiles, batch.get(batch.add(tiles)));
+            }
+
+            int[] scores = new int[expected.length];
+            heuristic.evaluate(batch, scores);
+            assertArrayEquals(expected, scores);
+        }
+    }
+
+    /**
+     * Vérifie que les formes et les grilles incompatibles avec un lot sont refusées.
+     */
+    @Test
+    void invalidBoardsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BoardBatch(16, 17, 1));
+        BoardBatch batch = new BoardBatch(3, 3, 1);
+        assertThrows(IllegalArgumentException.class, () -> batch.add(Boards.goal(4)));
+        batch.add(Boards.goal(3));
+        assertEquals(1, batch.size());
+    }
+
+}
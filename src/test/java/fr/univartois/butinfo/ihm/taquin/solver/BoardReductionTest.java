@@ -0,0 +1,70 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * La classe BoardReductionTest teste la construction directe de solutions.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+final class BoardReductionTest {
+
+    /**
+     * Vérifie que les solutions construites remettent dans l'ordre des grilles bien
+     * mélangées, carrées et rectangulaires.
+     */
+    @Test
+    void everyShapeIsSolved() {
+        for (int rows = 2; rows <= 7; rows++) {
+            for (int columns = 2; columns <= 7; columns++) {
+                SearchSpace space = new SearchSpace(rows, columns);
+                for (int seed = 0; seed < 50; seed++) {
+                    int[] tiles = TestBoards.walk(rows, columns, 1000, seed);
+                    int[] path = BoardReduction.solve(space, tiles);
+                    Solution solution = new Solution(
+                            SearchSpace.toMoves(path), 0, Duration.ZERO, false);
+
+                    assertTrue(TestBoards.solves(tiles, rows, columns, solution),
+                            rows + "x" + columns + " : " + Boards.format(tiles));
+                }
+            }
+        }
+    }
+
+    /**
+     * Vérifie qu'aucun déplacement n'est construit pour la grille ordonnée.
+     */
+    @Test
+    void orderedGridNeedsNoMove() {
+        SearchSpace space = new SearchSpace(3, 4);
+        assertEquals(0, BoardReduction.solve(space, Boards.goal(3, 4)).length);
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * La classe DistributedCoordinatorTest teste la résolution répartie entre plusieurs
+ * travailleurs exécutés dans la même machine virtuelle.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 120, unit = TimeUnit.SECONDS)
+final class DistributedCoordinatorTest {
+
+    /**
+     * Le nombre d'unités de travail utilisé : il est petit pour que les unités soient
+     * rapidement traitées, et que les réponses tardives soient nombreuses.
+     */
+    private static final int NB_UNITS = 64;
+
+    /**
+     * Les threads exécutant les travailleurs.
+     */
+    private ExecutorService workers;
+
+    /**
+     * Prépare l'exécution des travailleurs.
+     */
+    @BeforeEach
+    void startWorkers() {
+        workers = Executors.newCachedThreadPool(IdaStarSolver.daemonThreads("test-worker"));
+    }
+
+    /**
+     * Arrête les travailleurs encore actifs.
+     */
+    @AfterEach
+    void stopWorkers() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Vérifie que chaque solution renvoyée par un même coordinateur, réutilisé pour de
+     * nombreuses grilles, résout bien sa grille et est optimale.
+     *
+     * @throws Exception Ne doit pas se produire.
+     */
+    @Test
+    void everySolutionSolvesItsBoard() throws Exception {
+        int[][] shapes = { { 3, 3 }, { 2, 5 } };
+        for (int[] shape : shapes) {
+            IdaStarSolver sequential = new IdaStarSolver(shape[0], shape[1], 1);
+            try (DistributedCoordinator coordinator =
+                    new DistributedCoordinator(shape[0], shape[1], 0, NB_UNITS)) {
+                for (int i = 0; i < 3; i++) {
+                    connect(coordinator, 3);
+                }
+                awaitWorkers(coordinator, 3);
+
+                for (int seed = 0; seed < 1000; seed++) {
+                    int[] tiles = TestBoards.walk(shape[0], shape[1], 40, seed);
+                    Solution expected = sequential.solve(tiles);
+                    Solution actual = coordinator.solve(tiles);
+
+                    assertTrue(TestBoards.solves(tiles, shape[0], shape[1], actual),
+                            Boards.format(tiles));
+                    assertEquals(expected.length(), actual.length(), Boards.format(tiles));
+                }
+            }
+        }
+    }
+
+    /**
+     * Vérifie qu'un travailleur ne donnant plus signe de vie est oublié, tandis que ceux
+     * qui restent actifs sans recevoir de travail sont conservés.
+     *
+     * @throws Exception Ne doit pas se produire.
+     */
+    @Test
+    void silentWorkerIsDropped() throws Exception {
+        try (DistributedCoordinator coordinator = new DistributedCoordinator(3, 0, NB_UNITS)) {
+            coordinator.setTimeout(Duration.ofSeconds(2));
+
+            // Ce travailleur demande du travail, puis ne répond plus jamais.
+            Socket silent = new Socket("localhost", coordinator.getPort());
+            DataOutputStream output = new DataOutputStream(silent.getOutputStream());
+            output.writeByte(DistributedProtocol.READY);
+            output.writeInt(8);
+            output.flush();
+            awaitWorkers(coordinator, 1);
+
+            connect(coordinator, 2);
+            awaitWorkers(coordinator, 2);
+
+            int[] tiles = TestBoards.walk(3, 3, 40, 0);
+            Solution solution = coordinator.solve(tiles);
+            assertTrue(TestBoards.solves(tiles, 3, 3, solution));
+
+            // Après le délai, seul le travailleur silencieux doit avoir été oublié.
+            Thread.sleep(4000);
+            assertEquals(1, coordinator.getNbWorkers());
+            tiles = TestBoards.walk(3, 3, 40, 1);
+            solution = coordinator.solve(tiles);
+            assertTrue(TestBoards.solves(tiles, 3, 3, solution));
+            silent.close();
+        }
+    }
+
+    /**
+     * Connecte un nouveau travailleur au coordinateur donné.
+     *
+     * @param coordinator Le coordinateur auquel se connecter.
+     * @param nbThreads Le nombre de threads du travailleur.
+     */
+    private void connect(DistributedCoordinator coordinator, int nbThreads) {
+        DistributedWorker worker =
+                new DistributedWorker("localhost", coordinator.getPort(), nbThreads);
+        workers.execute(() -> {
+            try {
+                worker.run();
+
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    /**
+     * Attend que le nombre donné de travailleurs soient connectés au coordinateur.
+     *
+     * @param coordinator Le coordinateur à surveiller.
+     * @param nbWorkers Le nombre de travailleurs attendu.
+     *
+     * @throws InterruptedException Si l'attente est interrompue.
+     */
+    private static void awaitWorkers(DistributedCoordinator coordinator, int nbWorkers)
+            throws InterruptedException {
+        while (coordinator.getNbWorkers() < nbWorkers) {
+            Thread.sleep(10);
+        }
+    }
+
+}
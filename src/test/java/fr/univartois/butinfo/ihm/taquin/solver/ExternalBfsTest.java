@@ -0,0 +1,113 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * La classe ExternalBfsTest teste le parcours en largeur sur disque de l'espace des
+ * grilles.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class ExternalBfsTest {
+
+    /**
+     * Le répertoire dans lequel sont écrits les fichiers du parcours.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Vérifie le parcours complet des grilles 2x3.
+     *
+     * @throws IOException Si les fichiers du parcours ne peuvent pas être écrits.
+     */
+    @Test
+    void exploresAll2x3Boards() throws IOException {
+        BfsResult result = new ExternalBfs(2, 3, directory, ExternalBfs.MIN_MEMORY_BUDGET)
+                .run();
+
+        assertEquals(360, result.getNbStates());
+        assertEquals(21, result.getMaxDepth());
+        assertEquals(1, result.getCount(0));
+        assertEquals(1, result.getCount(21));
+        assertNoFileLeft();
+    }
+
+    /**
+     * Vérifie le parcours complet des grilles 3x3, et les deux grilles les plus
+     * éloignées de la grille ordonnée.
+     *
+     * @throws IOException Si les fichiers du parcours ne peuvent pas être écrits.
+     */
+    @Test
+    void exploresAll3x3Boards() throws IOException {
+        BfsResult result = new ExternalBfs(3, 3, directory, ExternalBfs.MIN_MEMORY_BUDGET)
+                .run();
+
+        assertEquals(181_440, result.getNbStates());
+        assertEquals(31, result.getMaxDepth());
+        assertEquals(2, result.getCount(31));
+        assertEquals(2, result.getDeepest().size());
+        for (int[] tiles : result.getDeepest()) {
+            assertTrue(Arrays.equals(Boards.parse("8 6 7 2 5 4 3 0 1"), tiles)
+                    || Arrays.equals(Boards.parse("6 4 7 8 5 0 3 2 1"), tiles),
+                    Boards.format(tiles));
+        }
+        assertNoFileLeft();
+    }
+
+    /**
+     * Vérifie qu'une grille compactée est retrouvée à l'identique.
+     */
+    @Test
+    void packedBoardsRoundTrip() {
+        for (long seed = 0; seed < 100; seed++) {
+            int[] tiles = TestBoards.walk(4, 4, 200, seed);
+            long packed = PackedBoard.pack(tiles);
+            assertArrayEquals(tiles, PackedBoard.unpack(packed, tiles.length));
+            assertEquals(Boards.indexOfEmpty(tiles),
+                    PackedBoard.indexOfEmpty(packed, tiles.length));
+        }
+    }
+
+    /**
+     * Vérifie que tous les fichiers temporaires du parcours ont été supprimés.
+     *
+     * @throws IOException Si le répertoire ne peut pas être lu.
+     */
+    private void assertNoFileLeft() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+}
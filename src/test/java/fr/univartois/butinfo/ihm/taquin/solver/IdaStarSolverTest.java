@@ -0,0 +1,241 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * La classe IdaStarSolverTest teste la résolution parallèle, l'interruption et la reprise
+ * de la recherche IDA*.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+final class IdaStarSolverTest {
+
+    /**
+     * Le nom des threads de recherche créés par le solveur.
+     */
+    private static final String THREAD_PREFIX = "ida-star-";
+
+    /**
+     * Le répertoire temporaire dans lequel écrire les points de reprise.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Vérifie que les résolutions séquentielle et parallèle donnent des solutions
+     * valides de même longueur, sur des grilles carrées et rectangulaires.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void parallelSolutionsMatchSequentialOnes() throws InterruptedException {
+        int[][] shapes = { { 3, 3 }, { 4, 4 }, { 3, 5 }, { 2, 6 } };
+        for (int[] shape : shapes) {
+            IdaStarSolver sequential = new IdaStarSolver(shape[0], shape[1], 1);
+            IdaStarSolver parallel = new IdaStarSolver(shape[0], shape[1], 4);
+            for (int seed = 0; seed < 20; seed++) {
+                int[] tiles = TestBoards.walk(shape[0], shape[1], 40, seed);
+                Solution expected = sequential.solve(tiles);
+                Solution actual = parallel.solve(tiles);
+
+                assertTrue(TestBoards.solves(tiles, shape[0], shape[1], expected));
+                assertTrue(TestBoards.solves(tiles, shape[0], shape[1], actual));
+                assertEquals(expected.length(), actual.length(), Boards.format(tiles));
+                assertTrue(actual.isOptimal());
+            }
+        }
+    }
+
+    /**
+     * Vérifie qu'une grille déjà ordonnée est résolue sans aucun déplacement.
+     *
+     * @throws InterruptedException Ne doit pas se produire.
+     */
+    @Test
+    void orderedGridNeedsNoMove() throws InterruptedException {
+        assertEquals(0, new IdaStarSolver(3, 4, 4).solve(Boards.goal(3, 4)).length());
+        assertEquals(0, new IdaStarSolver(3, 4, 1).solve(Boards.goal(3, 4)).length());
+    }
+
+    /**
+     * Vérifie qu'interrompre une résolution parallèle arrête aussi tous les threads de
+     * recherche, sans attendre la fin de l'itération en cours.
+     *
+     * @throws Exception Si le test échoue.
+     */
+    @Test
+    void interruptionStopsSearchThreads() throws Exception {
+        IdaStarSolver solver = new IdaStarSolver(4, 4);
+        assertInterruptible(solver);
+    }
+
+    /**
+     * Vérifie qu'interrompre une résolution séquentielle l'arrête.
+     *
+     * @throws Exception Si le test échoue.
+     */
+    @Test
+    void interruptionStopsSequentialSearch() throws Exception {
+        assertInterruptible(new IdaStarSolver(4, 4, 1));
+    }
+
+    /**
+     * Vérifie qu'une résolution interrompue reprend depuis son point de reprise, et
+     * trouve une solution optimale.
+     *
+     * @throws Exception Si le test échoue.
+     */
+    @Test
+    void checkpointIsResumed() throws Exception {
+        Path file = directory.resolve("search.ckpt");
+        IdaStarSolver solver = new IdaStarSolver(4, 4, 2);
+        solver.setCheckpoint(file, Duration.ofMillis(20));
+
+        // On attend qu'un point de reprise soit écrit avant d'interrompre la recherche.
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Solution> future = caller.submit(() -> solver.solve(TestBoards.MEDIUM_4X4));
+            while (!Files.exists(file)) {
+                assertFalse(future.isDone());
+                Thread.sleep(5);
+            }
+            future.cancel(true);
+        } finally {
+            caller.shutdownNow();
+            assertTrue(caller.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        SearchCheckpoint checkpoint = SearchCheckpoint.read(file);
+        assertTrue(checkpoint.isFor(TestBoards.MEDIUM_4X4, 4, 4));
+        assertFalse(checkpoint.isFor(TestBoards.MEDIUM_4X4, 2, 8));
+
+        Solution solution = solver.solve(TestBoards.MEDIUM_4X4);
+        assertEquals(TestBoards.MEDIUM_4X4_LENGTH, solution.length());
+        assertTrue(TestBoards.solves(TestBoards.MEDIUM_4X4, 4, 4, solution));
+        assertTrue(solution.getNbNodes() >= checkpoint.getNbNodes());
+        assertFalse(Files.exists(file));
+    }
+
+    /**
+     * Vérifie qu'un point de reprise survit à son écriture et à sa relecture.
+     *
+     * @throws Exception Si le test échoue.
+     */
+    @Test
+    void checkpointRoundTrip() throws Exception {
+        int[] tiles = TestBoards.walk(2, 8, 30, 5);
+        BitSet completed = new BitSet();
+        completed.set(3);
+        completed.set(70);
+        Path file = directory.resolve("round-trip.ckpt");
+        new SearchCheckpoint(2, 8, tiles, 6, 96, 30, 32, completed, 12345).write(file);
+
+        SearchCheckpoint checkpoint = SearchCheckpoint.read(file);
+        assertEquals(2, checkpoint.getRows());
+        assertEquals(8, checkpoint.getColumns());
+        assertTrue(checkpoint.isFor(tiles, 2, 8));
+        assertEquals(6, checkpoint.getFrontierDepth());
+        assertEquals(96, checkpoint.getFrontierSize());
+        assertEquals(30, checkpoint.getThreshold());
+        assertEquals(32, checkpoint.getNextBound());
+        assertEquals(12345, checkpoint.getNbNodes());
+        for (int i = 0; i < 96; i++) {
+            assertEquals(completed.get(i), checkpoint.isCompleted(i));
+        }
+    }
+
+    /**
+     * Vérifie qu'un point de reprise ne peut pas être repris pour une grille de même
+     * nombre de tuiles mais de forme différente.
+     *
+     * @throws Exception Si le test échoue.
+     */
+    @Test
+    void checkpointOfAnotherShapeIsRejected() throws Exception {
+        int[] tiles = TestBoards.walk(3, 4, 30, 3);
+        Path file = directory.resolve("shape.ckpt");
+        new SearchCheckpoint(3, 4, tiles, 2, 10, 20, 22, new BitSet(), 0)
+                .write(file);
+
+        IdaStarSolver solver = new IdaStarSolver(4, 3, 2);
+        solver.setCheckpoint(file, Duration.ofMinutes(1));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(tiles));
+    }
+
+    /**
+     * Interrompt une résolution longue, et vérifie qu'elle s'arrête rapidement, ainsi
+     * que tous ses threads de recherche (sans attendre la fin de l'itération en cours).
+     *
+     * @param solver Le solveur à interrompre.
+     *
+     * @throws Exception Si le test échoue.
+     */
+    private static void assertInterruptible(IdaStarSolver solver) throws Exception {
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Solution> future = caller.submit(() -> solver.solve(TestBoards.HARD_4X4));
+            // Les dernières itérations durent plusieurs secondes : on interrompt la
+            // recherche au cours de l'une d'elles.
+            Thread.sleep(2000);
+            assertFalse(future.isDone());
+            future.cancel(true);
+        } finally {
+            caller.shutdownNow();
+            assertTrue(caller.awaitTermination(1, TimeUnit.SECONDS));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        while (countSearchThreads() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Des threads de recherche tournent");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Compte les threads de recherche encore actifs.
+     *
+     * @return Le nombre de threads de recherche vivants.
+     */
+    private static long countSearchThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith(THREAD_PREFIX) && t.isAlive())
+                .count();
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * La classe LayoutFileTest teste la validation en masse des dispositions de grilles.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class LayoutFileTest {
+
+    /**
+     * Vérifie que chaque disposition est validée indépendamment, et que les
+     * commentaires et les lignes vides sont ignorés.
+     */
+    @Test
+    void reportsEachLayout() {
+        List<LayoutReport> reports = LayoutFile.validate(List.of(
+                "# Des grilles 3x3", "1 2 3 4 5 6 7 8 0", "", "1 2 3 4 5 6 8 7 0",
+                "1 2 3 4 5 6 7 x 0", "1, 2, 3, 4, 5, 6, 0, 7, 8"), 3);
+
+        assertEquals(4, reports.size());
+        assertTrue(reports.get(0).isValid());
+        assertEquals(2, reports.get(0).getLineNumber());
+        assertArrayEquals(Boards.goal(3), reports.get(0).getTiles());
+        assertFalse(reports.get(1).isValid());
+        assertEquals(4, reports.get(1).getLineNumber());
+        assertEquals("Valeur invalide en position 7 : x", reports.get(2).getError());
+        assertTrue(reports.get(3).isValid());
+    }
+
+    /**
+     * Vérifie que les dispositions sont validées selon la forme rectangulaire demandée.
+     */
+    @Test
+    void validatesRectangularLayouts() {
+        List<LayoutReport> reports = LayoutFile.validate(List.of(
+                Boards.format(Boards.goal(2, 3)), Boards.format(Boards.goal(3))), 2, 3);
+
+        assertEquals(2, reports.size());
+        assertTrue(reports.get(0).isValid());
+        assertArrayEquals(Boards.goal(2, 3), reports.get(0).getTiles());
+        assertFalse(reports.get(1).isValid());
+    }
+
+    /**
+     * Vérifie que les erreurs ne désignent que la tuile fautive, même sur une grande
+     * grille.
+     */
+    @Test
+    void errorsNameOnlyTheOffendingTile() {
+        int[] tiles = Boards.goal(32);
+        tiles[500] = tiles[10];
+        String duplicate = Boards.format(tiles);
+        tiles[500] = 5000;
+        String invalid = Boards.format(tiles);
+        tiles[500] = 502;
+        tiles[501] = 501;
+        String unsolvable = Boards.format(tiles);
+
+        List<LayoutReport> reports = LayoutFile.validate(
+                List.of(duplicate, invalid, unsolvable), 32);
+        assertEquals("Valeur de tuile répétée en position 500 : 11 (déjà en position 10)",
+                reports.get(0).getError());
+        assertEquals("Valeur de tuile invalide en position 500 : 5000",
+                reports.get(1).getError());
+        assertEquals("Grille insoluble (1 inversions, tuile vide en ligne 31)",
+                reports.get(2).getError());
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.solver;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import fr.univartois.butinfo.ihm.taquin.model.Move;
+
+/**
+ * La classe TestBoards fournit aux tests des grilles du Taquin pouvant être résolues, et
+ * permet de vérifier les solutions renvoyées par les solveurs.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class TestBoards {
+
+    /**
+     * L'instance numéro 88 de Korf, l'une des plus difficiles (65 déplacements).
+     */
+    static final int[] HARD_4X4 = Boards.parse("12 10 6 0 9 8 13 15 11 7 3 2 5 4 14 1");
+
+    /**
+     * L'instance numéro 1 de Korf, résolue en quelques secondes.
+     */
+    static final int[] MEDIUM_4X4 = Boards.parse("13 6 8 12 15 14 0 10 11 7 4 5 9 1 3 2");
+
+    /**
+     * La longueur de la solution optimale de {@link #MEDIUM_4X4}.
+     */
+    static final int MEDIUM_4X4_LENGTH = 57;
+
+    /**
+     * Désactive l'instanciation de cette classe.
+     */
+    private TestBoards() {
+        throw new AssertionError("TestBoards ne doit pas être instanciée");
+    }
+
+    /**
+     * Mélange la grille ordonnée par une marche aléatoire, sans retour immédiat en
+     * arrière.
+     *
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     * @param length Le nombre de déplacements de la marche.
+     * @param seed La graine du générateur aléatoire.
+     *
+     * @return Les tuiles de la grille mélangée.
+     */
+    static int[] walk(int rows, int columns, int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] neighbours = Boards.neighbours(rows, columns);
+        int[] tiles = Boards.goal(rows, columns);
+        int empty = tiles.length - 1;
+        int previous = -1;
+        for (int i = 0; i < length;) {
+            int next = neighbours[empty][random.nextInt(neighbours[empty].length)];
+            if ((next >= 0) && (next != previous)) {
+                tiles[empty] = tiles[next];
+                tiles[next] = 0;
+                previous = empty;
+                empty = next;
+                i++;
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Vérifie qu'une solution remet effectivement la grille donnée dans l'ordre.
+     *
+     * @param tiles Les tuiles de la grille initiale.
+     * @param rows Le nombre de lignes de la grille.
+     * @param columns Le nombre de colonnes de la grille.
+     * @param solution La solution à vérifier.
+     *
+     * @return Si tous les déplacements de la solution sont possibles et mènent à la
+     *         grille ordonnée.
+     */
+    static boolean solves(int[] tiles, int rows, int columns, Solution solution) {
+        int[] board = tiles.clone();
+        int empty = Boards.indexOfEmpty(board);
+        for (Move move : solution.getMoves()) {
+            int row = empty / columns + move.getDeltaRow();
+            int column = empty % columns + move.getDeltaColumn();
+            if ((row < 0) || (row >= rows) || (column < 0) || (column >= columns)) {
+                return false;
+            }
+            int next = row * columns + column;
+            board[empty] = board[next];
+            board[next] = 0;
+            empty = next;
+        }
+        return Arrays.equals(board, Boards.goal(rows, columns));
+    }
+
+}
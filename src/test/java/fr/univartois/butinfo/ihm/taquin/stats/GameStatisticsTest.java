@@ -0,0 +1,220 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * La classe GameStatisticsTest teste l'enregistrement et la consultation des résultats
+ * des parties, ainsi que leur conservation dans le journal.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+final class GameStatisticsTest {
+
+    /**
+     * Le répertoire temporaire dans lequel écrire les journaux.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Vérifie les centiles extrêmes et médian, ainsi que les centiles invalides.
+     *
+     * @throws IOException Ne doit pas se produire.
+     */
+    @Test
+    void percentilesHandleBoundaries() throws IOException {
+        try (GameStatistics statistics = open()) {
+            assertEquals(-1, statistics.getPercentile(4, 50));
+            for (int nbMoves = 100; nbMoves >= 10; nbMoves -= 10) {
+                statistics.record(4, layoutOf(nbMoves), nbMoves);
+            }
+
+            assertEquals(10, statistics.getPercentile(4, 0));
+            assertEquals(50, statistics.getPercentile(4, 50));
+            assertEquals(100, statistics.getPercentile(4, 100));
+            assertEquals(-1, statistics.getPercentile(3, 4, 50));
+            assertThrows(IllegalArgumentException.class,
+                    () -> statistics.getPercentile(4, -1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> statistics.getPercentile(4, 100.5));
+        }
+    }
+
+    /**
+     * Vérifie que le classement est ordonné par nombre de déplacements, puis par ordre
+     * d'arrivée, et qu'il ne dépasse pas sa capacité.
+     *
+     * @throws IOException Ne doit pas se produire.
+     */
+    @Test
+    void topScoresAreOrderedAndBounded() throws IOException {
+        Path file = directory.resolve("statistics.log");
+        try (GameStatistics statistics = new GameStatistics(
+                file, GameStatistics.DEFAULT_COMPACTION_PERIOD, 5)) {
+            int[] moves = { 50, 30, 40, 10, 20, 60, 10, 70 };
+            for (int i = 0; i < moves.length; i++) {
+                statistics.record(4, i, moves[i]);
+            }
+
+            List<GameResult> top = statistics.getTopScores(4, 10);
+            assertEquals(List.of(10, 10, 20, 30, 40), nbMovesOf(top));
+            assertEquals(3, top.get(0).getLayout());
+            assertEquals(6, top.get(1).getLayout());
+            assertEquals(List.of(10, 10, 20), nbMovesOf(statistics.getTopScores(4, 3)));
+            assertEquals(List.of(), statistics.getTopScores(5, 10));
+            assertEquals(8, statistics.getNbGames(4));
+        }
+    }
+
+    /**
+     * Vérifie qu'un journal compacté puis relu donne les mêmes statistiques.
+     *
+     * @throws IOException Ne doit pas se produire.
+     */
+    @Test
+    void compactionPreservesStatistics() throws IOException {
+        Path file = directory.resolve("statistics.log");
+        int nbGames = 2000;
+        long[] counts = new long[2];
+        int[] best = new int[2];
+        double[] averages = new double[2];
+        List<List<Integer>> tops = List.of(List.of(), List.of());
+        List<Integer> percentiles = List.of();
+
+        try (GameStatistics statistics = new GameStatistics(
+                file, GameStatistics.DEFAULT_COMPACTION_PERIOD, 10)) {
+            SplittableRandom random = new SplittableRandom(2023);
+            for (int i = 0; i < nbGames; i++) {
+                int rows = 3 + (i & 1);
+                statistics.record(rows, 4, random.nextLong(), 20 + random.nextInt(200));
+            }
+            for (int shape = 0; shape < 2; shape++) {
+                counts[shape] = statistics.getNbGames(3 + shape, 4);
+                best[shape] = statistics.getBestScore(3 + shape, 4);
+                averages[shape] = statistics.getAverageMoves(3 + shape, 4);
+            }
+            tops = List.of(nbMovesOf(statistics.getTopScores(3, 4, 10)),
+                    nbMovesOf(statistics.getTopScores(4, 4, 10)));
+            percentiles = List.of(statistics.getPercentile(3, 4, 25),
+                    statistics.getPercentile(4, 4, 90));
+            statistics.compact();
+        }
+
+        // Le journal compacté ne contient plus un enregistrement par partie.
+        long logSize = StatisticsLog.HEADER_SIZE + (long) nbGames * StatisticsLog.RECORD_SIZE;
+        assertTrue(Files.size(file) < logSize, Files.size(file) + " octets");
+
+        try (GameStatistics statistics = new GameStatistics(
+                file, GameStatistics.DEFAULT_COMPACTION_PERIOD, 10)) {
+            for (int shape = 0; shape < 2; shape++) {
+                assertEquals(counts[shape], statistics.getNbGames(3 + shape, 4));
+                assertEquals(best[shape], statistics.getBestScore(3 + shape, 4));
+                assertEquals(averages[shape], statistics.getAverageMoves(3 + shape, 4),
+                        1e-9);
+                assertEquals(tops.get(shape),
+                        nbMovesOf(statistics.getTopScores(3 + shape, 4, 10)));
+            }
+            assertEquals(percentiles, List.of(statistics.getPercentile(3, 4, 25),
+                    statistics.getPercentile(4, 4, 90)));
+        }
+    }
+
+    /**
+     * Vérifie qu'un enregistrement incomplet en fin de journal est ignoré à la relecture,
+     * et que les enregistrements suivants restent lisibles.
+     *
+     * @throws IOException Ne doit pas se produire.
+     */
+    @Test
+    void truncatedRecordIsDropped() throws IOException {
+        Path file = directory.resolve("statistics.log");
+        try (GameStatistics statistics = new GameStatistics(file)) {
+            statistics.record(4, 1, 30);
+            statistics.record(4, 2, 20);
+            statistics.record(4, 3, 40);
+        }
+        long size = Files.size(file);
+        Files.write(file, new byte[StatisticsLog.RECORD_SIZE / 2],
+                StandardOpenOption.APPEND);
+
+        try (GameStatistics statistics = new GameStatistics(file)) {
+            assertEquals(3, statistics.getNbGames(4));
+            assertEquals(20, statistics.getBestScore(4));
+            assertEquals(size, Files.size(file));
+            statistics.record(4, 4, 10);
+        }
+
+        try (GameStatistics statistics = new GameStatistics(file)) {
+            assertEquals(4, statistics.getNbGames(4));
+            assertEquals(10, statistics.getBestScore(4));
+            assertEquals(25, statistics.getAverageMoves(4), 1e-9);
+        }
+    }
+
+    /**
+     * Ouvre des statistiques dans le répertoire temporaire.
+     *
+     * @return Les statistiques ouvertes.
+     *
+     * @throws IOException Si le journal ne peut pas être ouvert.
+     */
+    private GameStatistics open() throws IOException {
+        return new GameStatistics(directory.resolve("statistics.log"));
+    }
+
+    /**
+     * Donne un code de hachage arbitraire pour une disposition.
+     *
+     * @param seed La valeur à partir de laquelle calculer le code.
+     *
+     * @return Le code de hachage.
+     */
+    private static long layoutOf(int seed) {
+        return seed * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Donne le nombre de déplacements de chacun des résultats donnés.
+     *
+     * @param results Les résultats.
+     *
+     * @return Les nombres de déplacements de ces résultats, dans le même ordre.
+     */
+    private static List<Integer> nbMovesOf(List<GameResult> results) {
+        return results.stream().map(GameResult::getNbMoves).toList();
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d’aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d’adéquation
+ * à un usage particulier et d’absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d’auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d’un contrat, d’un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d’autres éléments du logiciel.
+ *
+ * (c) 2022-2023 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+
+package fr.univartois.butinfo.ihm.taquin.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * La classe StatisticsLogTest teste la relecture des journaux de statistiques.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+final class StatisticsLogTest {
+
+    /**
+     * Le répertoire temporaire dans lequel écrire les journaux.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Vérifie qu'un journal de la version précédente est relu avec des grilles carrées,
+     * puis réécrit dans le format courant pour recevoir de nouveaux résultats.
+     *
+     * @throws IOException Ne doit pas se produire.
+     */
+    @Test
+    void legacyLogIsReadAsSquareGrids() throws IOException {
+        Path file = directory.resolve("statistics.log");
+        ByteBuffer legacy = ByteBuffer.allocate(2 * Integer.BYTES + 3 * 22);
+        legacy.putInt(0x54515354);
+        legacy.putInt(1);
+        putLegacy(legacy, 4, 30);
+        putLegacy(legacy, 4, 20);
+        putLegacy(legacy, 3, 10);
+        legacy.flip();
+        Files.write(file, Arrays.copyOf(legacy.array(), legacy.limit()));
+
+        try (GameStatistics statistics = new GameStatistics(file)) {
+            assertEquals(2, statistics.getNbGames(4, 4));
+            assertEquals(20, statistics.getBestScore(4, 4));
+            assertEquals(1, statistics.getNbGames(3, 3));
+            statistics.record(4, 4, 42, 15);
+        }
+
+        assertEquals(2, ByteBuffer.wrap(Files.readAllBytes(file)).getInt(Integer.BYTES));
+        try (GameStatistics statistics = new GameStatistics(file)) {
+            assertEquals(3, statistics.getNbGames(4, 4));
+            assertEquals(15, statistics.getBestScore(4, 4));
+            assertEquals(1, statistics.getNbGames(3, 3));
+        }
+    }
+
+    /**
+     * Écrit le résultat d'une partie au format de la version précédente.
+     *
+     * @param buffer Le tampon dans lequel écrire.
+     * @param size La taille de la grille.
+     * @param nbMoves Le nombre de déplacements de la partie.
+     */
+    private static void putLegacy(ByteBuffer buffer, int size, int nbMoves) {
+        buffer.put(StatisticsLog.RESULT);
+        buffer.put((byte) size);
+        buffer.putInt(nbMoves);
+        buffer.putLong(nbMoves);
+        buffer.putLong(System.currentTimeMillis());
+    }
+
+}